@@ -2,12 +2,18 @@ package com.fintech.brokerage;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class BrokerageApiApplication {
 
+	/** Startup steps kept for StartupTimelineReporter and /actuator/startup; later ones are dropped. */
+	private static final int STARTUP_STEPS = 8192;
+
 	public static void main(String[] args) {
-		SpringApplication.run(BrokerageApiApplication.class, args);
+		SpringApplication app = new SpringApplication(BrokerageApiApplication.class);
+		app.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		app.run(args);
 	}
 
 }
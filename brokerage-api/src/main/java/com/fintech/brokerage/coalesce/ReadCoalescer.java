@@ -0,0 +1,87 @@
+package com.fintech.brokerage.coalesce;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fintech.brokerage.event.AccountChangedEvent;
+import com.fintech.brokerage.event.AccountsChangedEvent;
+import com.fintech.brokerage.security.util.SecurityUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Merges identical concurrent reads of a customer's data into one backend execution. Keys are
+ * the endpoint, the calling principal, the customer and the normalized request parameters.
+ * Results linger for {@code app.read-coalescing.linger-ms} and are dropped as soon as a write
+ * to the customer's assets or orders commits.
+ */
+@Component
+public class ReadCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadCoalescer.class);
+
+    public record ReadKey(String endpoint, UUID principal, UUID customerId, List<Object> params) {}
+
+    private final SingleFlight<ReadKey> flights;
+    private final boolean enabled;
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(MeterRegistry registry,
+                         @Value("${app.read-coalescing.enabled:true}") boolean enabled,
+                         @Value("${app.read-coalescing.linger-ms:50}") long lingerMs) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.flights = new SingleFlight<>(TimeUnit.MILLISECONDS.toNanos(lingerMs));
+        Gauge.builder("reads.coalescing.entries", flights, SingleFlight::size).register(registry);
+        log.info("ReadCoalescer initialized: enabled={}, lingerMs={}", enabled, lingerMs);
+    }
+
+    /**
+     * Returns the result of {@code loader}, shared with identical reads running or lingering.
+     * {@code params} must be normalized and may contain nulls.
+     */
+    public <V> V read(String endpoint, UUID customerId, List<Object> params, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ReadKey key = new ReadKey(endpoint, SecurityUtil.currentCustomerId().orElse(null), customerId, params);
+        return flights.execute(key, loader, outcome -> counter(endpoint, outcome).increment());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent e) {
+        flights.invalidate(k -> k.customerId().equals(e.customerId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent e) {
+        flights.invalidate(k -> e.customerIds().contains(k.customerId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-coalescing.sweep-interval-ms:1000}")
+    public void evictExpired() {
+        flights.evictExpired();
+    }
+
+    private Counter counter(String endpoint, SingleFlight.Outcome outcome) {
+        return counters.computeIfAbsent(endpoint + '|' + outcome, k -> Counter.builder("reads.coalescing")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .description("Coalesced reads by how they were served: loaded, joined a running load or lingered")
+                .register(registry));
+    }
+}
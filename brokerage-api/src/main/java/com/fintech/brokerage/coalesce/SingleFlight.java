@@ -0,0 +1,126 @@
+package com.fintech.brokerage.coalesce;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time: callers arriving while a load is running wait for
+ * it and get the same result (or exception). A successful result is additionally handed out
+ * for {@code lingerNanos} after it completed, so near-simultaneous requests share it too.
+ */
+public class SingleFlight<K> {
+
+    /** How a call was served. */
+    public enum Outcome { LOADED, JOINED, LINGERED }
+
+    private static final long RUNNING = Long.MAX_VALUE;
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long expiresAt = RUNNING;
+    }
+
+    private final ConcurrentHashMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final long lingerNanos;
+    private final LongSupplier clock;
+
+    public SingleFlight(long lingerNanos) {
+        this(lingerNanos, System::nanoTime);
+    }
+
+    SingleFlight(long lingerNanos, LongSupplier clock) {
+        this.lingerNanos = lingerNanos;
+        this.clock = clock;
+    }
+
+    public <V> V execute(K key, Supplier<V> loader) {
+        return execute(key, loader, null);
+    }
+
+    /**
+     * @param observer optional, told how the call was served
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Supplier<V> loader, Consumer<Outcome> observer) {
+        while (true) {
+            Flight f = flights.get(key);
+            if (f != null) {
+                long expiresAt = f.expiresAt;
+                if (expiresAt != RUNNING && clock.getAsLong() - expiresAt >= 0) {
+                    flights.remove(key, f);
+                    continue;
+                }
+                notify(observer, expiresAt == RUNNING ? Outcome.JOINED : Outcome.LINGERED);
+                return (V) await(f);
+            }
+
+            Flight mine = new Flight();
+            if (flights.putIfAbsent(key, mine) != null) {
+                continue;
+            }
+            notify(observer, Outcome.LOADED);
+            V value;
+            try {
+                value = loader.get();
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, mine);
+                mine.result.completeExceptionally(e);
+                throw e;
+            }
+            if (lingerNanos > 0) {
+                mine.expiresAt = clock.getAsLong() + lingerNanos;
+            } else {
+                flights.remove(key, mine);
+            }
+            mine.result.complete(value);
+            return value;
+        }
+    }
+
+    /**
+     * Forgets running and lingering results of matching keys; later callers load again.
+     * Callers already waiting on a running load still get its result.
+     */
+    public void invalidate(Predicate<K> matching) {
+        flights.keySet().removeIf(matching);
+    }
+
+    /** Drops lingering results whose window has passed. */
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        flights.values().removeIf(f -> {
+            long expiresAt = f.expiresAt;
+            return expiresAt != RUNNING && now - expiresAt >= 0;
+        });
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    private static Object await(Flight f) {
+        try {
+            return f.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    private static void notify(Consumer<Outcome> observer, Outcome outcome) {
+        if (observer != null) {
+            observer.accept(outcome);
+        }
+    }
+}
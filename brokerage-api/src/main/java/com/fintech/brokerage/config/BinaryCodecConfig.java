@@ -0,0 +1,73 @@
+package com.fintech.brokerage.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fintech.brokerage.controller.dto.AssetResponse;
+import com.fintech.brokerage.controller.dto.OrderResponse;
+
+/**
+ * Compact binary encodings chosen by {@code Accept}: {@code application/cbor} and
+ * {@code application/x-jackson-smile}. JSON stays first in the converter list, so clients that
+ * do not ask for a binary type are unaffected.
+ * <p>
+ * In the binary forms the response DTOs are written as arrays, where the position given by
+ * their {@code @JsonPropertyOrder} is the field id. UUIDs are 16 raw bytes, decimals native
+ * numbers, instants numeric timestamps, and repeated strings (enum names, asset names) are
+ * back-references (CBOR stringref, Smile shared values).
+ */
+@Configuration
+public class BinaryCodecConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public BinaryCodecConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replaceOrAdd(converters, new MappingJackson2CborHttpMessageConverter(
+                binaryMapper(builders.getObject(), CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build())));
+        replaceOrAdd(converters, new MappingJackson2SmileHttpMessageConverter(
+                binaryMapper(builders.getObject(), SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())));
+    }
+
+    static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .mixIn(OrderResponse.class, ArrayShape.class)
+                .mixIn(AssetResponse.class, ArrayShape.class)
+                .build();
+    }
+
+    /** Takes the place of the default converter of the same type, keeping its position. */
+    private static void replaceOrAdd(List<HttpMessageConverter<?>> converters, HttpMessageConverter<?> converter) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == converter.getClass()) {
+                converters.set(i, converter);
+                return;
+            }
+        }
+        converters.add(converter);
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    private abstract static class ArrayShape {
+    }
+}
@@ -0,0 +1,308 @@
+package com.fintech.brokerage.config;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.shard.ShardMap;
+
+/**
+ * Generates a production-sized dataset for performance work ({@code bulk-seed} profile).
+ * <p>
+ * Rows go straight through JDBC batches, one commit per batch, bypassing JPA. All customers
+ * share one BCrypt hash computed once. Orders are spread over the configured period in time
+ * order, with UUIDv7 ids matching their create dates, and a power-law skew towards a few hot
+ * accounts. Balances are written last so that usable amounts already exclude what the
+ * generated PENDING orders reserve.
+ */
+@Component
+@Profile("bulk-seed")
+public class BulkDataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDataSeeder.class);
+
+    /** Amounts are generated as longs in units of 10^-4, the scale of the money columns. */
+    private static final int SCALE = 4;
+    private static final long ONE = 10_000L;
+
+    private static final AssetType[] STOCKS = { AssetType.AAPL, AssetType.TSLA, AssetType.GOOGL };
+    private static final long[] BASE_PRICE_CENTS = { 190_00, 240_00, 170_00 };
+
+    private final JdbcTemplate jdbc;
+    private final ShardMap shards;
+    private final InstrumentRegistry instruments;
+    private final PasswordEncoder encoder;
+
+    private final int customers;
+    private final int ordersPerCustomer;
+    private final double hotSkew;
+    private final int dateSpreadDays;
+    private final int pendingWeight;
+    private final int matchedWeight;
+    private final int canceledWeight;
+    private final double buyRatio;
+    private final String usernameFormat;
+    private final String password;
+    private final int batchSize;
+    private final long seed;
+
+    public BulkDataSeeder(JdbcTemplate jdbc, PasswordEncoder encoder, ShardMap shards, InstrumentRegistry instruments,
+                          @Value("${app.seed.bulk.customers:1000000}") int customers,
+                          @Value("${app.seed.bulk.orders-per-customer:10}") int ordersPerCustomer,
+                          @Value("${app.seed.bulk.hot-skew:3.0}") double hotSkew,
+                          @Value("${app.seed.bulk.date-spread-days:365}") int dateSpreadDays,
+                          @Value("${app.seed.bulk.status-mix.pending:20}") int pendingWeight,
+                          @Value("${app.seed.bulk.status-mix.matched:60}") int matchedWeight,
+                          @Value("${app.seed.bulk.status-mix.canceled:20}") int canceledWeight,
+                          @Value("${app.seed.bulk.buy-ratio:0.6}") double buyRatio,
+                          @Value("${app.seed.bulk.username-format:cust%07d}") String usernameFormat,
+                          @Value("${app.seed.bulk.password:password}") String password,
+                          @Value("${app.seed.bulk.batch-size:5000}") int batchSize,
+                          @Value("${app.seed.bulk.seed:42}") long seed) {
+        this.jdbc = jdbc;
+        this.instruments = instruments;
+        this.shards = shards;
+        this.encoder = encoder;
+        this.customers = customers;
+        this.ordersPerCustomer = ordersPerCustomer;
+        this.hotSkew = hotSkew;
+        this.dateSpreadDays = dateSpreadDays;
+        this.pendingWeight = pendingWeight;
+        this.matchedWeight = matchedWeight;
+        this.canceledWeight = canceledWeight;
+        this.buyRatio = buyRatio;
+        this.usernameFormat = usernameFormat;
+        this.password = password;
+        this.batchSize = batchSize;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (shards.isSharded()) {
+            // rows are written to one database, without the per-customer shard placement
+            throw new IllegalStateException("bulk-seed fills a single database; run it without app.sharding.urls");
+        }
+        String first = String.format(usernameFormat, 0);
+        Integer existing = jdbc.queryForObject("select count(*) from customer where username = ?", Integer.class, first);
+        if (existing != null && existing > 0) {
+            log.info("Bulk seed skipped, customer {} already exists", first);
+            return;
+        }
+
+        long started = System.nanoTime();
+        SplittableRandom rnd = new SplittableRandom(seed);
+        Instant now = Instant.now();
+        Instant from = now.minus(Duration.ofDays(dateSpreadDays));
+
+        long[] idHi = new long[customers];
+        long[] idLo = new long[customers];
+        seedCustomers(rnd, from, idHi, idLo);
+
+        long[] tryReserved = new long[customers];
+        long[][] stockReserved = new long[STOCKS.length][customers];
+        seedOrders(rnd, from, now, idHi, idLo, tryReserved, stockReserved);
+
+        seedAssets(rnd, idHi, idLo, tryReserved, stockReserved);
+
+        log.info("Bulk seed finished in {}s", Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private void seedCustomers(SplittableRandom rnd, Instant from, long[] idHi, long[] idLo) {
+        String hash = encoder.encode(password);
+        AtomicLong ids = new AtomicLong();
+        long fromMillis = from.toEpochMilli();
+
+        insert("customer", "insert into customer (id, username, role, password_hash, enabled, create_date) "
+                + "values (?, ?, ?, ?, true, ?)", customers, (ps, i) -> {
+            int c = (int) i;
+            long created = fromMillis - rnd.nextLong(Duration.ofDays(3 * 365).toMillis());
+            UUID id = UuidV7Generator.next(ids, created);
+            idHi[c] = id.getMostSignificantBits();
+            idLo[c] = id.getLeastSignificantBits();
+            ps.setObject(1, id);
+            ps.setString(2, String.format(usernameFormat, c));
+            ps.setString(3, Role.USER.name());
+            ps.setString(4, hash);
+            ps.setTimestamp(5, new Timestamp(created));
+        });
+    }
+
+    private int[] stockIds() {
+        int[] ids = new int[STOCKS.length];
+        for (int i = 0; i < STOCKS.length; i++) {
+            ids[i] = instruments.idOf(STOCKS[i].getSymbol());
+        }
+        return ids;
+    }
+
+    private void seedOrders(SplittableRandom rnd, Instant from, Instant to, long[] idHi, long[] idLo,
+                            long[] tryReserved, long[][] stockReserved) {
+        long total = (long) customers * ordersPerCustomer;
+        long fromMillis = from.toEpochMilli();
+        double step = (double) (to.toEpochMilli() - fromMillis) / Math.max(1, total);
+        int statusTotal = pendingWeight + matchedWeight + canceledWeight;
+        AtomicLong ids = new AtomicLong();
+        int[] stockIds = stockIds();
+
+        insert("orders", "insert into orders (id, customer_id, instrument_id, order_side, size, price, status, create_date) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?)", total, (ps, i) -> {
+            // Power-law pick: a small set of low indexes gets most of the orders.
+            int c = (int) Math.min(customers - 1, (long) (customers * Math.pow(rnd.nextDouble(), hotSkew)));
+            int stock = rnd.nextInt(STOCKS.length);
+            OrderSide side = rnd.nextDouble() < buyRatio ? OrderSide.BUY : OrderSide.SELL;
+            long shares = 1 + (long) Math.floor(Math.pow(rnd.nextDouble(), 2) * 100);
+            long priceCents = BASE_PRICE_CENTS[stock] * (80 + rnd.nextInt(41)) / 100;
+
+            int s = rnd.nextInt(statusTotal);
+            OrderStatus status = s < pendingWeight ? OrderStatus.PENDING
+                    : s < pendingWeight + matchedWeight ? OrderStatus.MATCHED : OrderStatus.CANCELED;
+            if (status == OrderStatus.PENDING) {
+                if (side == OrderSide.BUY) {
+                    tryReserved[c] += priceCents * shares * (ONE / 100);
+                } else {
+                    stockReserved[stock][c] += shares * ONE;
+                }
+            }
+
+            long created = fromMillis + (long) (i * step);
+            ps.setObject(1, UuidV7Generator.next(ids, created));
+            ps.setObject(2, new UUID(idHi[c], idLo[c]));
+            ps.setInt(3, stockIds[stock]);
+            ps.setString(4, side.name());
+            ps.setBigDecimal(5, BigDecimal.valueOf(shares * ONE, SCALE));
+            ps.setBigDecimal(6, BigDecimal.valueOf(priceCents, 2).setScale(SCALE));
+            ps.setString(7, status.name());
+            ps.setTimestamp(8, new Timestamp(created));
+        });
+    }
+
+    /**
+     * One TRY row per customer plus roughly half of the stocks; a stock with reserved shares is
+     * always held. {@code size = reserved + free}, {@code usable = free}.
+     */
+    private void seedAssets(SplittableRandom rnd, long[] idHi, long[] idLo, long[] tryReserved,
+                            long[][] stockReserved) {
+        AtomicLong ids = new AtomicLong();
+        long now = System.currentTimeMillis();
+        int perCustomer = 1 + STOCKS.length;
+        int tryId = instruments.idOf(AssetType.TRY.getSymbol());
+        int[] stockIds = stockIds();
+
+        insert("asset", "insert into asset (id, customer_id, instrument_id, size, usable_size, version) "
+                + "values (?, ?, ?, ?, ?, 0)", (long) customers * perCustomer, new RowWriter() {
+            @Override
+            public boolean write(PreparedStatement ps, long i) throws SQLException {
+                int c = (int) (i / perCustomer);
+                int slot = (int) (i % perCustomer);
+                long reserved;
+                long free;
+                int instrumentId;
+                if (slot == 0) {
+                    instrumentId = tryId;
+                    reserved = tryReserved[c];
+                    // Log-uniform between 1,000 and 1,000,000 TRY.
+                    free = (long) (Math.pow(10, 3 + 3 * rnd.nextDouble()) * ONE);
+                } else {
+                    instrumentId = stockIds[slot - 1];
+                    reserved = stockReserved[slot - 1][c];
+                    if (reserved == 0 && rnd.nextBoolean()) {
+                        return false;
+                    }
+                    free = rnd.nextInt(501) * ONE;
+                }
+                ps.setObject(1, UuidV7Generator.next(ids, now));
+                ps.setObject(2, new UUID(idHi[c], idLo[c]));
+                ps.setInt(3, instrumentId);
+                ps.setBigDecimal(4, BigDecimal.valueOf(reserved + free, SCALE));
+                ps.setBigDecimal(5, BigDecimal.valueOf(free, SCALE));
+                return true;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        /** Binds row {@code i}; returns {@code false} to skip it. */
+        boolean write(PreparedStatement ps, long i) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, long i) throws SQLException;
+    }
+
+    private void insert(String table, String sql, long rows, RowBinder binder) {
+        insert(table, sql, rows, (ps, i) -> {
+            binder.bind(ps, i);
+            return true;
+        });
+    }
+
+    private void insert(String table, String sql, long rows, RowWriter writer) {
+        long started = System.nanoTime();
+        long written = jdbc.execute((ConnectionCallback<Long>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                return writeBatches(con, ps, table, rows, writer, started);
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        });
+        double secs = Math.max(1, System.nanoTime() - started) / 1e9;
+        log.info("Seeded {} {} rows in {}s ({} rows/s)", written, table, Math.round(secs), Math.round(written / secs));
+    }
+
+    private long writeBatches(Connection con, PreparedStatement ps, String table, long rows, RowWriter writer,
+                              long started) throws SQLException {
+        long written = 0;
+        int pending = 0;
+        long nextReport = 1_000_000;
+        for (long i = 0; i < rows; i++) {
+            if (!writer.write(ps, i)) {
+                continue;
+            }
+            ps.addBatch();
+            written++;
+            if (++pending == batchSize) {
+                ps.executeBatch();
+                con.commit();
+                pending = 0;
+            }
+            if (written == nextReport) {
+                log.info("  {}: {} rows, {}s", table, written,
+                        Duration.ofNanos(System.nanoTime() - started).toSeconds());
+                nextReport += 1_000_000;
+            }
+        }
+        if (pending > 0) {
+            ps.executeBatch();
+            con.commit();
+        }
+        return written;
+    }
+}
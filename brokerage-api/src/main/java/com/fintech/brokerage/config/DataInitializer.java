@@ -15,13 +15,15 @@ import com.fintech.brokerage.enums.AssetType;
 import com.fintech.brokerage.enums.Role;
 import com.fintech.brokerage.repo.AssetRepository;
 import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.shard.ShardRouter;
 
 @Configuration
 public class DataInitializer {
     private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
 
     @Bean
-    CommandLineRunner seed(CustomerRepository customerRepo, AssetRepository assetRepo, PasswordEncoder encoder) {
+    CommandLineRunner seed(CustomerRepository customerRepo, AssetRepository assetRepo, PasswordEncoder encoder,
+                           ShardRouter router) {
         return args -> {
             if (customerRepo.count() == 0) {
             	Customer admin = new Customer("admin", encoder.encode("admin123"), Role.ADMIN);
@@ -42,9 +44,10 @@ public class DataInitializer {
 	            Asset asset3 = new Asset(customer3, AssetType.TSLA.getSymbol(), new BigDecimal("75.5000"), new BigDecimal("75.5000"));
 	            log.info("Seeded assets: TRY, GOOGL, TSLA");
 	            
-	            assetRepo.save(asset1);
-	            assetRepo.save(asset2);
-	            assetRepo.save(asset3);
+	            // assets live on their owner's shard
+	            for (Asset asset : new Asset[] { asset1, asset2, asset3 }) {
+	                router.onCustomerShard(asset.getCustomerId().getId(), () -> assetRepo.save(asset));
+	            }
             }
         };
     }
@@ -0,0 +1,40 @@
+package com.fintech.brokerage.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.security.PrincipalDirectory;
+import com.fintech.brokerage.service.AssetService;
+import com.fintech.brokerage.service.CustomerService;
+import com.fintech.brokerage.service.JwtService;
+import com.fintech.brokerage.service.OrderService;
+import com.fintech.brokerage.service.PasswordVerificationService;
+import com.fintech.brokerage.service.RefreshTokenService;
+
+/**
+ * Beans kept eager when {@code spring.main.lazy-initialization} is on (the {@code fast-start}
+ * profile): everything the first API request goes through. The rest, such as OpenAPI docs,
+ * the H2 console and actuator endpoints, is created on first use.
+ */
+@Configuration
+public class FastStartConfig {
+
+    private static final List<Class<?>> REQUEST_PATH = List.of(
+            DataSource.class, AbstractEntityManagerFactoryBean.class, PrincipalDirectory.class,
+            JwtService.class, PasswordVerificationService.class, RefreshTokenService.class,
+            CustomerService.class, AssetService.class, OrderService.class, InstrumentRegistry.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathBeansEager() {
+        return (beanName, beanDefinition, beanType) -> beanType.isAnnotationPresent(RestController.class)
+                || REQUEST_PATH.stream().anyMatch(t -> t.isAssignableFrom(beanType));
+    }
+}
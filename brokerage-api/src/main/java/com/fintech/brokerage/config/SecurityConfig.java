@@ -1,5 +1,6 @@
 package com.fintech.brokerage.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -12,29 +13,41 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import com.fintech.brokerage.security.JwtAuthFilter;
+import com.fintech.brokerage.security.ratelimit.ConcurrencyLimitFilter;
+import com.fintech.brokerage.security.ratelimit.RateLimitFilter;
 
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * Raising the strength is picked up by existing users on their next successful login,
+     * see {@link PasswordEncoder#upgradeEncoding(String)}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter,
+                                           RateLimitFilter rateLimitFilter,
+                                           ConcurrencyLimitFilter concurrencyLimitFilter) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .headers(h -> h.frameOptions(f -> f.disable()))
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // metrics name customers, instruments and pool sizes: scrape with an admin account
+                .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                 .requestMatchers("/actuator/health", "/v3/api-docs/**", "/swagger-ui.html",
-                        "/swagger-ui/**", "/h2-console/**", "/auth/login").permitAll()
+                        "/swagger-ui/**", "/h2-console/**", "/auth/login", "/auth/refresh", "/auth/logout").permitAll()
                 .anyRequest().authenticated()
             )
             .httpBasic(Customizer.withDefaults())
-            .addFilterBefore(jwtAuthFilter, BasicAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, BasicAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
+            .addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class);
         return http.build();
     }
 }
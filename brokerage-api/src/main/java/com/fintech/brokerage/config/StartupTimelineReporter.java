@@ -0,0 +1,125 @@
+package com.fintech.brokerage.config;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Logs where startup time went once the application is ready, and how long after JVM start the
+ * first request was served. Built from the steps buffered by the
+ * {@link BufferingApplicationStartup} installed in {@code BrokerageApiApplication}; the same
+ * data is served raw by {@code /actuator/startup} when that endpoint is exposed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.startup.report.enabled", havingValue = "true")
+public class StartupTimelineReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimelineReporter.class);
+
+    private static final String REFRESH = "spring.context.refresh";
+    private static final String BEAN = "spring.beans.instantiate";
+    private static final int SLOWEST_BEANS = 10;
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicLong readyMillis = new AtomicLong();
+    private final AtomicLong firstRequestMillis = new AtomicLong();
+
+    public StartupTimelineReporter(MeterRegistry registry) {
+        TimeGauge.builder("application.first_request.time", firstRequestMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the first request was served").register(registry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent e) {
+        readyMillis.set(System.currentTimeMillis() - jvmStartMillis);
+        ApplicationStartup startup = e.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            log.info("Startup: ready {} ms after JVM start (no step timeline recorded)", readyMillis.get());
+            return;
+        }
+        Instant timelineStart = buffering.getBufferedTimeline().getStartTime();
+        log.info(report(Duration.between(Instant.ofEpochMilli(jvmStartMillis), timelineStart),
+                buffering.getBufferedTimeline().getEvents(), e.getTimeTaken()));
+    }
+
+    @EventListener
+    public void onRequest(ServletRequestHandledEvent e) {
+        long ready = readyMillis.get();
+        if (ready > 0 && firstRequestMillis.get() == 0
+                && firstRequestMillis.compareAndSet(0, System.currentTimeMillis() - jvmStartMillis)) {
+            log.info("Startup: first request ({} {}) served {} ms after JVM start, {} ms after ready",
+                    e.getMethod(), e.getRequestUrl(), firstRequestMillis.get(), firstRequestMillis.get() - ready);
+        }
+    }
+
+    private String report(Duration beforeMain, List<TimelineEvent> events, Duration sinceMain) {
+        Map<Long, TimelineEvent> byId = new HashMap<>();
+        events.forEach(ev -> byId.put(ev.getStartupStep().getId(), ev));
+
+        // Top-level phases in order, with the direct children of the context refresh broken out.
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        phases.put("jvm start to main", beforeMain);
+        Map<Long, Duration> childBeanTime = new HashMap<>();
+        for (TimelineEvent ev : events) {
+            Long parentId = ev.getStartupStep().getParentId();
+            TimelineEvent parent = parentId == null ? null : byId.get(parentId);
+            if (parent == null) {
+                phases.merge(ev.getStartupStep().getName(), ev.getDuration(), Duration::plus);
+            } else if (REFRESH.equals(parent.getStartupStep().getName())) {
+                phases.merge("  " + ev.getStartupStep().getName(), ev.getDuration(), Duration::plus);
+            }
+            if (parent != null && BEAN.equals(ev.getStartupStep().getName()) && BEAN.equals(parent.getStartupStep().getName())) {
+                childBeanTime.merge(parentId, ev.getDuration(), Duration::plus);
+            }
+        }
+
+        // Beans by self time: instantiation minus the dependencies created while it ran.
+        List<Map.Entry<String, Duration>> beans = new ArrayList<>();
+        for (TimelineEvent ev : events) {
+            if (BEAN.equals(ev.getStartupStep().getName())) {
+                Duration self = ev.getDuration().minus(childBeanTime.getOrDefault(ev.getStartupStep().getId(), Duration.ZERO));
+                beans.add(Map.entry(beanName(ev), self));
+            }
+        }
+        beans.sort(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()));
+
+        StringBuilder sb = new StringBuilder(String.format("Startup timeline: ready %d ms after JVM start (%d ms in SpringApplication), %d steps%n",
+                readyMillis.get(), sinceMain.toMillis(), events.size()));
+        phases.forEach((name, d) -> sb.append(String.format("  %-45s %7d ms%n", name, d.toMillis())));
+        sb.append(String.format("  slowest beans (self time):%n"));
+        beans.stream().limit(SLOWEST_BEANS)
+                .forEach(b -> sb.append(String.format("    %-43s %7d ms%n", b.getKey(), b.getValue().toMillis())));
+        return sb.toString();
+    }
+
+    private static String beanName(TimelineEvent ev) {
+        for (var tag : ev.getStartupStep().getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
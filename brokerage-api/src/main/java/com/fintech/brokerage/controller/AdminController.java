@@ -1,11 +1,30 @@
 package com.fintech.brokerage.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import com.fintech.brokerage.controller.dto.InstrumentResponse;
+import com.fintech.brokerage.controller.dto.ListInstrumentRequest;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.reconcile.Reconciler;
+import com.fintech.brokerage.reconcile.ReconciliationReport;
+import com.fintech.brokerage.service.BulkFundingService;
+import com.fintech.brokerage.service.MassCancelService;
 import com.fintech.brokerage.service.OrderService;
+import com.fintech.brokerage.statement.StatementJob;
 
+import jakarta.validation.Valid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 
 @RestController
@@ -13,9 +32,21 @@ import java.util.UUID;
 public class AdminController {
 	
     private final OrderService orderService;
+    private final StatementJob statementJob;
+    private final Reconciler reconciler;
+    private final MassCancelService massCancelService;
+    private final InstrumentRegistry instruments;
+    private final BulkFundingService bulkFundingService;
     
-    public AdminController(OrderService orderService) {
+    public AdminController(OrderService orderService, StatementJob statementJob, Reconciler reconciler,
+                           MassCancelService massCancelService, InstrumentRegistry instruments,
+                           BulkFundingService bulkFundingService) {
     	this.orderService = orderService; 
+    	this.statementJob = statementJob;
+    	this.reconciler = reconciler;
+    	this.massCancelService = massCancelService;
+    	this.instruments = instruments;
+    	this.bulkFundingService = bulkFundingService;
     }
 
     @PostMapping("/orders/{id}/match")
@@ -24,4 +55,68 @@ public class AdminController {
         orderService.match(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Kill-switch: cancels all PENDING orders of a customer, of an asset, or of both, and
+     * releases their reservations.
+     */
+    @PostMapping("/orders/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
+    public MassCancelService.Result cancelPending(@RequestParam(required = false) UUID customerId,
+                                                  @RequestParam(required = false) String assetName) {
+        return massCancelService.cancelPending(customerId, assetName);
+    }
+
+    /**
+     * Runs the end-of-day statements of {@code date} and answers when they are written; a run
+     * that was interrupted continues from its checkpoint.
+     */
+    @PostMapping("/statements/{date}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public StatementJob.Result statements(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return statementJob.run(date);
+    }
+
+    @GetMapping("/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ReconciliationReport lastReconciliation() {
+        return reconciler.lastReport()
+                .orElseThrow(() -> new NoSuchElementException("No reconciliation has run yet"));
+    }
+
+    /**
+     * Reconciles reserved balances now: incrementally unless {@code full}, and repairing the
+     * drifts it confirms when {@code repair} is set.
+     */
+    @PostMapping("/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ReconciliationReport reconcile(@RequestParam(defaultValue = "false") boolean full,
+                                          @RequestParam(defaultValue = "false") boolean repair) {
+        return reconciler.run(full, repair);
+    }
+
+    /**
+     * Lists a new symbol; it can be traded right away on this instance, and on the others after
+     * their next registry refresh.
+     */
+    @PostMapping("/instruments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InstrumentResponse> listInstrument(@Valid @RequestBody ListInstrumentRequest req) {
+        InstrumentResponse listed = new InstrumentResponse(instruments.list(req.getSymbol().trim(), req.getName()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(listed);
+    }
+
+    /**
+     * Applies a funding file of {@code customerId,amount} lines, streamed from the request body;
+     * negative amounts are withdrawals. Rerunning a file with the same {@code Idempotency-Key}
+     * only applies what the earlier run did not.
+     */
+    @PostMapping(value = "/cash/postings", consumes = { "text/csv", "text/plain" })
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkFundingService.Result fund(@RequestHeader(name = "Idempotency-Key", required = false) String key,
+                                          InputStream body) throws IOException {
+        try (Reader postings = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return bulkFundingService.fund(postings, key);
+        }
+    }
 }
@@ -11,7 +11,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.coalesce.ReadCoalescer;
+import com.fintech.brokerage.controller.dto.AssetResponse;
+import com.fintech.brokerage.security.PrincipalDirectory;
 import com.fintech.brokerage.security.util.SecurityUtil;
 import com.fintech.brokerage.service.AssetService;
 
@@ -22,9 +24,13 @@ public class AssetController {
 	private static final Logger log = LoggerFactory.getLogger(AssetController.class);
 
 	private final AssetService assetService;
+	private final PrincipalDirectory directory;
+	private final ReadCoalescer coalescer;
 
-	public AssetController(AssetService assetService) {
+	public AssetController(AssetService assetService, PrincipalDirectory directory, ReadCoalescer coalescer) {
 		this.assetService = assetService;
+		this.directory = directory;
+		this.coalescer = coalescer;
 	}
 
 	private void checkAccess(UUID customerId) {
@@ -47,12 +53,17 @@ public class AssetController {
 	}
 
 	@GetMapping
-	public List<Asset> list(@RequestParam UUID customerId) {
+	public List<AssetResponse> list(@RequestParam UUID customerId) {
 		log.info("Received request to list assets for customerId={}", customerId);
+		if (directory.findById(customerId).isEmpty()) {
+			log.warn("Customer not found: {}", customerId);
+			throw new IllegalArgumentException("Customer not found");
+		}
 		checkAccess(customerId);
 
 		try {
-			List<Asset> assets = assetService.listAssets(customerId);
+			List<AssetResponse> assets = coalescer.read("assets", customerId, List.of(),
+					() -> assetService.listAssets(customerId).stream().map(AssetResponse::new).toList());
 			log.info("Returning {} assets for customerId={}", assets.size(), customerId);
 			return assets;
 		} catch (Exception ex) {
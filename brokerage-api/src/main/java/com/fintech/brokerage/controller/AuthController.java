@@ -4,14 +4,17 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import com.fintech.brokerage.controller.dto.LoginRequest;
+import com.fintech.brokerage.controller.dto.RefreshRequest;
 import com.fintech.brokerage.controller.dto.TokenResponse;
 import com.fintech.brokerage.entity.Customer;
-import com.fintech.brokerage.repo.CustomerRepository;
-import com.fintech.brokerage.service.impl.JwtServiceImpl;
+import com.fintech.brokerage.service.PasswordVerificationService;
+import com.fintech.brokerage.service.RefreshTokenService;
+import com.fintech.brokerage.service.RefreshTokenService.IssuedTokens;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
@@ -19,34 +22,49 @@ public class AuthController {
 
     private static final Logger log = LoggerFactory.getLogger(AuthController.class);
 
-    private final CustomerRepository customerRepo;
-    private final PasswordEncoder encoder;
-    private final JwtServiceImpl jwt;
+    private final PasswordVerificationService passwordVerifier;
+    private final RefreshTokenService refreshTokens;
 
-    public AuthController(CustomerRepository customerRepo, PasswordEncoder encoder, JwtServiceImpl jwt) {
-        this.customerRepo = customerRepo;
-        this.encoder = encoder;
-        this.jwt = jwt;
+    public AuthController(PasswordVerificationService passwordVerifier, RefreshTokenService refreshTokens) {
+        this.passwordVerifier = passwordVerifier;
+        this.refreshTokens = refreshTokens;
     }
 
+    /**
+     * Password verification runs on the bounded BCrypt pool; the servlet thread is released
+     * while it is pending and the response is completed asynchronously.
+     */
     @PostMapping("/login")
-    public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest req) {
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(@Valid @RequestBody LoginRequest req) {
         log.info("Login attempt for username: {}", req.getUsername());
 
-        Customer c = customerRepo.findByUsername(req.getUsername())
-                .orElseThrow(() -> {
-                    log.warn("Login failed - username not found: {}", req.getUsername());
-                    return new RuntimeException("Invalid credentials");
-                });
+        return passwordVerifier.verify(req.getUsername(), req.getPassword())
+                .thenApply(customer -> {
+                    Customer c = customer.orElseThrow(() -> {
+                        log.warn("Login failed - invalid credentials for username: {}", req.getUsername());
+                        return new RuntimeException("Invalid credentials");
+                    });
+
+                    IssuedTokens tokens = refreshTokens.issue(c);
+                    log.info("Login successful for username: {}", req.getUsername());
 
-        if (!encoder.matches(req.getPassword(), c.getPasswordHash())) {
-            log.warn("Login failed - invalid password for username: {}", req.getUsername());
-            throw new RuntimeException("Invalid credentials");
-        }
+                    return ResponseEntity.ok(new TokenResponse(tokens.accessToken(), tokens.refreshToken()));
+                });
+    }
 
-        String token = jwt.issueToken(c.getId(), c.getUsername(), c.getRole());
-        log.info("Login successful for username: {}", req.getUsername());
+    /**
+     * Rotates a refresh token: no password check and no customer query, only a signature
+     * check and a revocation lookup.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshRequest req) {
+        IssuedTokens tokens = refreshTokens.refresh(req.getRefreshToken());
+        return ResponseEntity.ok(new TokenResponse(tokens.accessToken(), tokens.refreshToken()));
+    }
 
-        return ResponseEntity.ok(new TokenResponse(token));
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest req) {
+        refreshTokens.revoke(req.getRefreshToken());
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,105 @@
+package com.fintech.brokerage.controller;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+import com.fintech.brokerage.controller.dto.CashPostingRequest;
+import com.fintech.brokerage.controller.dto.CashPostingResponse;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.security.PrincipalDirectory;
+import com.fintech.brokerage.security.util.SecurityUtil;
+import com.fintech.brokerage.service.CashService;
+import com.fintech.brokerage.service.CustomerService;
+
+import jakarta.validation.Valid;
+
+/**
+ * TRY deposits and withdrawals. Every call carries an {@code Idempotency-Key}; a retry with the
+ * same key answers 200 with the original posting instead of 201 with a new one.
+ */
+@RestController
+@RequestMapping("/api/customers/{customerId}")
+public class CashController {
+
+    private static final Logger log = LoggerFactory.getLogger(CashController.class);
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final CashService cashService;
+    private final CustomerService customerService;
+    private final PrincipalDirectory directory;
+
+    public CashController(CashService cashService, CustomerService customerService, PrincipalDirectory directory) {
+        this.cashService = cashService;
+        this.customerService = customerService;
+        this.directory = directory;
+    }
+
+    @PostMapping("/deposits")
+    public ResponseEntity<CashPostingResponse> deposit(
+            @PathVariable UUID customerId,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String key,
+            @Valid @RequestBody CashPostingRequest req) {
+        return post(customerId, key, c -> cashService.deposit(c, req.getAmount(), key));
+    }
+
+    @PostMapping("/withdrawals")
+    public ResponseEntity<CashPostingResponse> withdraw(
+            @PathVariable UUID customerId,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String key,
+            @Valid @RequestBody CashPostingRequest req) {
+        return post(customerId, key, c -> cashService.withdraw(c, req.getAmount(), key));
+    }
+
+    private ResponseEntity<CashPostingResponse> post(UUID customerId, String key,
+                                                     Function<Customer, CashService.Result> posting) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Customer customer = resolveCustomer(customerId);
+
+        CashService.Result result;
+        try {
+            result = posting.apply(customer);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request with the same key inserted its posting first; this attempt
+            // rolled back, and running it again replays that posting or rejects a mismatch
+            log.info("Concurrent posting with key {} for customerId={}, replaying", key, customerId);
+            result = posting.apply(customer);
+        }
+
+        CashPostingResponse body = new CashPostingResponse(result.posting());
+        return ResponseEntity.status(result.replayed() ? HttpStatus.OK : HttpStatus.CREATED).body(body);
+    }
+
+    private Customer resolveCustomer(UUID customerId) {
+        if (directory.findById(customerId).isEmpty()) {
+            log.warn("Customer not found: {}", customerId);
+            throw new IllegalArgumentException("Customer not found");
+        }
+        checkAccess(customerId);
+        return customerService.getReference(customerId);
+    }
+
+    private void checkAccess(UUID customerId) {
+        if (SecurityUtil.isAdmin()) {
+            return;
+        }
+        UUID tokenCustomerId = SecurityUtil.currentCustomerId()
+                .orElseThrow(() -> new AccessDeniedException("No customer in token"));
+        if (!tokenCustomerId.equals(customerId)) {
+            log.warn("Access denied: tokenCustomerId={} tried to post cash for customerId={}",
+                    tokenCustomerId, customerId);
+            throw new AccessDeniedException("Forbidden");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.fintech.brokerage.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fintech.brokerage.controller.dto.InstrumentResponse;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+
+@RestController
+@RequestMapping("/api/instruments")
+public class InstrumentController {
+
+	private final InstrumentRegistry instruments;
+
+	public InstrumentController(InstrumentRegistry instruments) {
+		this.instruments = instruments;
+	}
+
+	/** Every tradable symbol, served from memory. */
+	@GetMapping
+	public List<InstrumentResponse> list() {
+		return instruments.instruments().stream().map(InstrumentResponse::new).toList();
+	}
+}
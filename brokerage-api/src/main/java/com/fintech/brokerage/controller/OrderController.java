@@ -13,9 +13,11 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Sort;
 
+import com.fintech.brokerage.coalesce.ReadCoalescer;
 import com.fintech.brokerage.controller.dto.*;
 import com.fintech.brokerage.entity.*;
 import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.security.PrincipalDirectory;
 import com.fintech.brokerage.security.util.SecurityUtil;
 import com.fintech.brokerage.service.CustomerService;
 import com.fintech.brokerage.service.OrderService;
@@ -32,24 +34,23 @@ public class OrderController {
 
     private final OrderService orderService;
     private final CustomerService customerService;
+    private final PrincipalDirectory directory;
+    private final ReadCoalescer coalescer;
 
-    public OrderController(OrderService orderService, CustomerService customerService) {
+    public OrderController(OrderService orderService, CustomerService customerService, PrincipalDirectory directory,
+                           ReadCoalescer coalescer) {
         this.orderService = orderService;
         this.customerService = customerService;
+        this.coalescer = coalescer;
+        this.directory = directory;
     }
 
     @PostMapping
     public ResponseEntity<OrderResponse> create(@Valid @RequestBody CreateOrderRequest req) {
-        log.info("Creating order for customerId={} asset={} side={} size={} price={}",
+        log.debug("Creating order for customerId={} asset={} side={} size={} price={}",
                  req.getCustomerId(), req.getAssetName(), req.getSide(), req.getSize(), req.getPrice());
 
-        Customer customer = customerService.findById(req.getCustomerId())
-                .orElseThrow(() -> {
-                    log.warn("Customer not found: {}", req.getCustomerId());
-                    return new IllegalArgumentException("Customer not found");
-                });
-
-        checkAccess(customer.getId());
+        Customer customer = resolveCustomer(req.getCustomerId());
 
         Order order = orderService.create(customer, req.getAssetName(), req.getSide(), req.getSize(), req.getPrice());
         log.info("Order created successfully: orderId={}", order.getId());
@@ -67,13 +68,7 @@ public class OrderController {
         log.info("Listing orders for customerId={} from={} to={} status={} assetName={}",
                  customerId, from, to, status, assetName);
 
-        Customer customer = customerService.findById(customerId)
-                .orElseThrow(() -> {
-                    log.warn("Customer not found: {}", customerId);
-                    return new IllegalArgumentException("Customer not found");
-                });
-
-        checkAccess(customer.getId());
+        Customer customer = resolveCustomer(customerId);
 
         List<OrderResponse> orders = orderService.list(customer, from, to, status, assetName)
                 .stream().map(OrderResponse::new).collect(Collectors.toList());
@@ -91,31 +86,49 @@ public class OrderController {
                                          @PageableDefault(size = 20, sort = "createDate", direction = Sort.Direction.DESC)
                                          Pageable pageable) {
 
-        Customer customer = customerService.findById(customerId)
-                .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
-
-        checkAccess(customer.getId());
-
-        Page<Order> page = orderService.list(
-                customer,
-                from.orElse(null),
-                to.orElse(null),
-                status,
-                assetName,
-                pageable
-        );
-
-        return page.map(OrderResponse::new);
+        Customer customer = resolveCustomer(customerId);
+        String asset = (assetName == null || assetName.isBlank()) ? null : assetName.trim();
+
+        return coalescer.read("orders_paged", customerId,
+                Arrays.asList(from.orElse(null), to.orElse(null), status, asset, pageable),
+                () -> orderService.list(
+                        customer,
+                        from.orElse(null),
+                        to.orElse(null),
+                        status,
+                        asset,
+                        pageable
+                ).map(OrderResponse::new));
     }
 
     @DeleteMapping("/{orderId}")
     public ResponseEntity<Void> cancel(@PathVariable UUID orderId) {
-        log.info("Cancelling order: orderId={}", orderId);
+        log.debug("Cancelling order: orderId={}", orderId);
         orderService.cancel(orderId);
         log.info("Order cancelled successfully: orderId={}", orderId);
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/{orderId}")
+    public OrderResponse amend(@PathVariable UUID orderId, @Valid @RequestBody AmendOrderRequest req) {
+        Customer customer = resolveCustomer(req.getCustomerId());
+        Order order = orderService.amend(customer, orderId, req.getSize(), req.getPrice());
+        return new OrderResponse(order);
+    }
+
+    /**
+     * Existence and access checks against the principal directory, then a lazy reference so
+     * the customer row itself is not loaded.
+     */
+    private Customer resolveCustomer(UUID customerId) {
+        if (directory.findById(customerId).isEmpty()) {
+            log.warn("Customer not found: {}", customerId);
+            throw new IllegalArgumentException("Customer not found");
+        }
+        checkAccess(customerId);
+        return customerService.getReference(customerId);
+    }
+
     private void checkAccess(UUID customerId) {
         if (SecurityUtil.isAdmin()) {
             log.debug("Admin access granted for customerId={}", customerId);
@@ -0,0 +1,30 @@
+package com.fintech.brokerage.controller.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * New size and/or price for a PENDING order; a missing value keeps the current one.
+ */
+public class AmendOrderRequest {
+
+    @NotNull(message = "Customer ID cannot be null")
+    private final UUID customerId;
+
+    @DecimalMin(value = "0.0001", inclusive = true, message = "Size must be greater than 0")
+    private final BigDecimal size;
+
+    @DecimalMin(value = "0.0001", inclusive = true, message = "Price must be greater than 0")
+    private final BigDecimal price;
+
+    public AmendOrderRequest(UUID customerId, BigDecimal size, BigDecimal price) {
+        this.customerId = customerId;
+        this.size = size;
+        this.price = price;
+    }
+
+    public UUID getCustomerId() { return customerId; }
+    public BigDecimal getSize() { return size; }
+    public BigDecimal getPrice() { return price; }
+}
@@ -0,0 +1,32 @@
+package com.fintech.brokerage.controller.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fintech.brokerage.ledger.Balance;
+
+/** Property order is the field id of the binary encodings; only append new properties. */
+@JsonPropertyOrder({ "id", "customerId", "assetName", "size", "usableSize" })
+public class AssetResponse {
+
+    private UUID id;
+    private UUID customerId;
+    private String assetName;
+    private BigDecimal size;
+    private BigDecimal usableSize;
+
+    public AssetResponse(Balance b) {
+        this.id = b.id();
+        this.customerId = b.customerId();
+        this.assetName = b.assetName();
+        this.size = b.size();
+        this.usableSize = b.usableSize();
+    }
+
+    public UUID getId() { return id; }
+    public UUID getCustomerId() { return customerId; }
+    public String getAssetName() { return assetName; }
+    public BigDecimal getSize() { return size; }
+    public BigDecimal getUsableSize() { return usableSize; }
+}
@@ -0,0 +1,22 @@
+package com.fintech.brokerage.controller.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CashPostingRequest {
+
+    @NotNull(message = "Amount cannot be null")
+    @DecimalMin(value = "0.0001", inclusive = true, message = "Amount must be greater than 0")
+    private final BigDecimal amount;
+
+    // explicit, since a single-argument constructor would otherwise bind the whole body to it
+    @JsonCreator
+    public CashPostingRequest(@JsonProperty("amount") BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getAmount() { return amount; }
+}
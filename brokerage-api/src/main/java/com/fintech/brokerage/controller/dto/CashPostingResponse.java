@@ -0,0 +1,36 @@
+package com.fintech.brokerage.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fintech.brokerage.entity.CashPosting;
+import com.fintech.brokerage.enums.PostingType;
+
+@JsonPropertyOrder({ "id", "customerId", "type", "amount", "idempotencyKey", "createdAt" })
+public class CashPostingResponse {
+
+    private UUID id;
+    private UUID customerId;
+    private PostingType type;
+    private BigDecimal amount;
+    private String idempotencyKey;
+    private Instant createdAt;
+
+    public CashPostingResponse(CashPosting p) {
+        this.id = p.getId();
+        this.customerId = p.getCustomerId().getId();
+        this.type = p.getType();
+        this.amount = p.getAmount();
+        this.idempotencyKey = p.getIdempotencyKey();
+        this.createdAt = p.getCreatedAt();
+    }
+
+    public UUID getId() { return id; }
+    public UUID getCustomerId() { return customerId; }
+    public PostingType getType() { return type; }
+    public BigDecimal getAmount() { return amount; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public Instant getCreatedAt() { return createdAt; }
+}
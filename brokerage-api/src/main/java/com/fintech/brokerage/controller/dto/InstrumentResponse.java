@@ -0,0 +1,28 @@
+package com.fintech.brokerage.controller.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fintech.brokerage.entity.Instrument;
+
+/** Property order is the field id of the binary encodings; only append new properties. */
+@JsonPropertyOrder({ "id", "symbol", "name", "listedAt" })
+public class InstrumentResponse {
+
+    private Integer id;
+    private String symbol;
+    private String name;
+    private Instant listedAt;
+
+    public InstrumentResponse(Instrument i) {
+        this.id = i.getId();
+        this.symbol = i.getSymbol();
+        this.name = i.getName();
+        this.listedAt = i.getListedAt();
+    }
+
+    public Integer getId() { return id; }
+    public String getSymbol() { return symbol; }
+    public String getName() { return name; }
+    public Instant getListedAt() { return listedAt; }
+}
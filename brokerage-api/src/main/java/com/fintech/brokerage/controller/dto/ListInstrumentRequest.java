@@ -0,0 +1,18 @@
+package com.fintech.brokerage.controller.dto;
+
+import jakarta.validation.constraints.*;
+
+public class ListInstrumentRequest {
+
+    @NotBlank(message = "Symbol cannot be blank")
+    @Size(max = 16, message = "Symbol must be at most 16 characters")
+    private String symbol;
+
+    @Size(max = 255, message = "Name must be at most 255 characters")
+    private String name;
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
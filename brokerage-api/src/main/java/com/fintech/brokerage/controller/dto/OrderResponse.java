@@ -4,10 +4,13 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fintech.brokerage.entity.*;
 import com.fintech.brokerage.enums.OrderSide;
 import com.fintech.brokerage.enums.OrderStatus;
 
+/** Property order is the field id of the binary encodings; only append new properties. */
+@JsonPropertyOrder({ "id", "customerId", "assetName", "side", "size", "price", "status", "createDate" })
 public class OrderResponse {
 	
     private UUID id;
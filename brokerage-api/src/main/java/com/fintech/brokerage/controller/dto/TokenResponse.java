@@ -2,6 +2,9 @@ package com.fintech.brokerage.controller.dto;
 
 public class TokenResponse {
     private String token;
+    private String refreshToken;
     public TokenResponse(String token) { this.token = token; }
+    public TokenResponse(String token, String refreshToken) { this.token = token; this.refreshToken = refreshToken; }
     public String getToken() { return token; }
-}
\ No newline at end of file
+    public String getRefreshToken() { return refreshToken; }
+}
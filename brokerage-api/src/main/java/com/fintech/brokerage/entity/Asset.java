@@ -2,13 +2,20 @@ package com.fintech.brokerage.entity;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
+import com.fintech.brokerage.entity.id.UuidV7;
+import com.fintech.brokerage.event.AccountEntityListener;
+import com.fintech.brokerage.instrument.InstrumentIdConverter;
+
 @Entity
-@Table(name = "asset", uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "asset_name"}))
+@EntityListeners(AccountEntityListener.class)
+@Table(name = "asset", uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "instrument_id"}),
+       indexes = @Index(name = "idx_asset_updated_at", columnList = "updated_at"))
 public class Asset {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -16,8 +23,13 @@ public class Asset {
     private Customer customerId;//The API requirements specified that customer information should be 
     							//kept under the name customerId, so it was named that way.
 
-    @Column(name = "asset_name", nullable = false)
-    private String assetName;
+    @Convert(converter = InstrumentIdConverter.class)
+    @Column(name = "instrument_id", nullable = false)
+    private String assetName; // the symbol; the row holds its instrument id
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instrument_id", insertable = false, updatable = false)
+    private Instrument instrument; // never read, only declares the foreign key
 
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal size;
@@ -27,6 +39,9 @@ public class Asset {
 
     @Version
     private long version; // optimistic locking for concurrent balance adjustments
+
+    @Column(name = "updated_at")
+    private Instant updatedAt; // last JPA write; incremental reconciliation picks changed customers by it
     
     protected Asset() {}
 
@@ -37,11 +52,18 @@ public class Asset {
         this.usableSize = usableSize;
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+
     public UUID getId() { return id; }
     public Customer getCustomerId() { return customerId; }
     public String getAssetName() { return assetName; }
     public BigDecimal getSize() { return size; }
     public BigDecimal getUsableSize() { return usableSize; }
+    public Instant getUpdatedAt() { return updatedAt; }
 
     public void setSize(BigDecimal size) { this.size = size; }
     public void setUsableSize(BigDecimal usableSize) { this.usableSize = usableSize; }
@@ -0,0 +1,76 @@
+package com.fintech.brokerage.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fintech.brokerage.entity.id.UuidV7;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.event.AccountEntityListener;
+import com.fintech.brokerage.instrument.InstrumentIdConverter;
+
+/**
+ * One change of a balance, never updated except for the {@code compacted} flag. The effective
+ * balance is the {@link Asset} snapshot plus the movements not yet compacted into it.
+ */
+@Entity
+@EntityListeners(AccountEntityListener.class)
+@Table(name = "balance_movement", indexes = {
+        @Index(name = "idx_balance_movement_tail", columnList = "customer_id, instrument_id, compacted"),
+        @Index(name = "idx_balance_movement_compacted", columnList = "compacted, id") })
+public class BalanceMovement {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customerId;
+
+    @Convert(converter = InstrumentIdConverter.class)
+    @Column(name = "instrument_id", nullable = false)
+    private String assetName;
+
+    @Column(name = "size_delta", nullable = false, precision = 19, scale = 4)
+    private BigDecimal sizeDelta;
+
+    @Column(name = "usable_delta", nullable = false, precision = 19, scale = 4)
+    private BigDecimal usableDelta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MovementReason reason;
+
+    @Column(name = "reference_id")
+    private UUID referenceId; // the order or cash posting behind the movement, if any
+
+    @Column(nullable = false)
+    private boolean compacted; // set once the deltas are part of the asset snapshot
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected BalanceMovement() {}
+
+    public BalanceMovement(Customer customerId, String assetName, BigDecimal sizeDelta, BigDecimal usableDelta,
+                           MovementReason reason, UUID referenceId) {
+        this.customerId = customerId;
+        this.assetName = assetName;
+        this.sizeDelta = sizeDelta;
+        this.usableDelta = usableDelta;
+        this.reason = reason;
+        this.referenceId = referenceId;
+        this.createdAt = Instant.now();
+    }
+
+    public UUID getId() { return id; }
+    public Customer getCustomerId() { return customerId; }
+    public String getAssetName() { return assetName; }
+    public BigDecimal getSizeDelta() { return sizeDelta; }
+    public BigDecimal getUsableDelta() { return usableDelta; }
+    public MovementReason getReason() { return reason; }
+    public UUID getReferenceId() { return referenceId; }
+    public boolean isCompacted() { return compacted; }
+    public Instant getCreatedAt() { return createdAt; }
+}
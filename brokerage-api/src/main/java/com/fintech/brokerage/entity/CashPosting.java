@@ -0,0 +1,58 @@
+package com.fintech.brokerage.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fintech.brokerage.entity.id.UuidV7;
+import com.fintech.brokerage.enums.PostingType;
+
+/**
+ * A TRY deposit or withdrawal that has been applied to the customer's balance. Lives on the
+ * customer's shard; the idempotency key is unique per customer, so a retried request finds the
+ * posting of its first attempt instead of moving the money again.
+ */
+@Entity
+@Table(name = "cash_posting",
+       uniqueConstraints = @UniqueConstraint(name = "uk_cash_posting_key", columnNames = {"customer_id", "idempotency_key"}),
+       indexes = @Index(name = "idx_cash_posting_key", columnList = "idempotency_key"))
+public class CashPosting {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customerId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 80)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PostingType type;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount; // always positive, the type gives the direction
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected CashPosting() {}
+
+    public CashPosting(Customer customerId, String idempotencyKey, PostingType type, BigDecimal amount) {
+        this.customerId = customerId;
+        this.idempotencyKey = idempotencyKey;
+        this.type = type;
+        this.amount = amount;
+        this.createdAt = Instant.now();
+    }
+
+    public UUID getId() { return id; }
+    public Customer getCustomerId() { return customerId; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public PostingType getType() { return type; }
+    public BigDecimal getAmount() { return amount; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -7,9 +7,11 @@ import java.util.List;
 import java.util.UUID;
 
 import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.event.CustomerEntityListener;
 
 @Entity
 @Table(name = "customer")
+@EntityListeners(CustomerEntityListener.class)
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -70,7 +72,9 @@ public class Customer {
 	
     public String getUsername() { return username; }
     public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
     public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
     public List<Asset> getAssets() { return assets; }
 
 	public Role getRole() {
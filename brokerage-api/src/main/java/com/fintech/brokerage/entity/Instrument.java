@@ -0,0 +1,40 @@
+package com.fintech.brokerage.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A tradable symbol. Assets and orders reference it by its integer id; the symbol string only
+ * lives here and in {@code InstrumentRegistry}.
+ */
+@Entity
+@Table(name = "instrument", uniqueConstraints = @UniqueConstraint(name = "uk_instrument_symbol", columnNames = "symbol"))
+public class Instrument {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 16)
+    private String symbol;
+
+    @Column
+    private String name;
+
+    @Column(name = "listed_at", nullable = false)
+    private Instant listedAt;
+
+    protected Instrument() {}
+
+    public Instrument(Integer id, String symbol, String name, Instant listedAt) {
+        this.id = id;
+        this.symbol = symbol;
+        this.name = name;
+        this.listedAt = listedAt;
+    }
+
+    public Integer getId() { return id; }
+    public String getSymbol() { return symbol; }
+    public String getName() { return name; }
+    public Instant getListedAt() { return listedAt; }
+}
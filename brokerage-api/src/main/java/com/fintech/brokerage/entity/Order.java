@@ -5,22 +5,31 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.fintech.brokerage.entity.id.UuidV7;
+import com.fintech.brokerage.event.AccountEntityListener;
+import com.fintech.brokerage.instrument.InstrumentIdConverter;
 import com.fintech.brokerage.enums.OrderSide;
 import com.fintech.brokerage.enums.OrderStatus;
 
 @Entity
+@EntityListeners(AccountEntityListener.class)
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customerId;
 
-    @Column(name = "asset_name", nullable = false)
-    private String assetName;
+    @Convert(converter = InstrumentIdConverter.class)
+    @Column(name = "instrument_id", nullable = false)
+    private String assetName; // the symbol; the row holds its instrument id
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "instrument_id", insertable = false, updatable = false)
+    private Instrument instrument; // never read, only declares the foreign key
 
     @Enumerated(EnumType.STRING)
     @Column(name = "order_side", nullable = false)
@@ -61,6 +70,8 @@ public class Order {
     
     public BigDecimal getSize() { return size; }
     public BigDecimal getPrice() { return price; }
+    /** In-memory only; the row is changed by {@code OrderRepository.amendIfPending}. */
+    public void applyAmendment(BigDecimal size, BigDecimal price) { this.size = size; this.price = price; }
     
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
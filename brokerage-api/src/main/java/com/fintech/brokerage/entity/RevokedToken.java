@@ -0,0 +1,43 @@
+package com.fintech.brokerage.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A revoked refresh token id or token family id. Rows are only needed until the tokens they
+ * refer to would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"))
+public class RevokedToken implements Persistable<UUID> {
+    @Id
+    private UUID id;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Ids are assigned by the caller; lets save() insert directly instead of merge-selecting first.
+    @Transient
+    private boolean isNew = true;
+
+    protected RevokedToken() {}
+
+    public RevokedToken(UUID id, Instant expiresAt) {
+        this.id = id;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
+    @Override
+    public UUID getId() { return id; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+}
@@ -0,0 +1,20 @@
+package com.fintech.brokerage.entity.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the annotated identifier as a time-ordered UUIDv7 (RFC 9562), see
+ * {@link UuidV7Generator}. Replaces {@code @GeneratedValue(strategy = GenerationType.UUID)}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface UuidV7 {
+}
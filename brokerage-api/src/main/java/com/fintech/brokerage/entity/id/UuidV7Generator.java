@@ -0,0 +1,99 @@
+package com.fintech.brokerage.entity.id;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/**
+ * UUIDv7 identifiers: 48-bit Unix millisecond timestamp, version, 12-bit sequence, variant
+ * and 62 random bits.
+ * <p>
+ * Consecutive ids sort in creation order, so inserts append to the right edge of the primary
+ * key index instead of splitting random pages. Timestamp and sequence share one
+ * {@link AtomicLong} advanced by CAS: within a millisecond the sequence increments, and if it
+ * overflows the timestamp borrows the next millisecond, so ids stay strictly increasing
+ * (compared as unsigned, like H2 does) across all entities and threads without a lock.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    /** {@code unixMillis << 12 | sequence} of the last issued id. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private static final ThreadLocal<RandomBits> RANDOM = ThreadLocal.withInitial(RandomBits::new);
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        return next(LAST, System.currentTimeMillis());
+    }
+
+    /**
+     * Id for the given millisecond using caller-owned state, e.g. to give historical rows of a
+     * bulk load ids that sort like their creation dates.
+     */
+    public static UUID next(AtomicLong last, long nowMillis) {
+        long candidate = nowMillis << SEQUENCE_BITS;
+        long state = last.updateAndGet(prev -> Math.max(prev + 1, candidate));
+
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.get().nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * The smallest id that can be issued at {@code instant}: every id created at or after it
+     * compares greater, so a key range starting here selects the rows created since.
+     */
+    public static UUID lowerBound(Instant instant) {
+        return new UUID((instant.toEpochMilli() << 16) | 0x7000L, 0L);
+    }
+
+    /**
+     * Per-thread secure random bits drawn in blocks: one {@code nextBytes} call per 64 ids costs
+     * far less than a {@code nextLong} per id, and the instance is never shared.
+     */
+    private static final class RandomBits {
+        private final SecureRandom random = newSecureRandom();
+        private final ByteBuffer buffer = ByteBuffer.allocate(512).position(512);
+
+        long nextLong() {
+            if (!buffer.hasRemaining()) {
+                random.nextBytes(buffer.array());
+                buffer.clear();
+            }
+            return buffer.getLong();
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.fintech.brokerage.enums;
+
+public enum MovementReason {
+	ORDER_PLACED,
+	ORDER_AMENDED,
+	ORDER_CANCELED,
+	ORDER_MATCHED,
+	DEPOSIT,
+	WITHDRAWAL,
+	REPAIR
+}
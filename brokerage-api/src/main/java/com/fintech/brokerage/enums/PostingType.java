@@ -0,0 +1,6 @@
+package com.fintech.brokerage.enums;
+
+public enum PostingType {
+	DEPOSIT,
+	WITHDRAWAL
+}
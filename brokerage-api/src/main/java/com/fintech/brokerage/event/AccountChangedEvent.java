@@ -0,0 +1,10 @@
+package com.fintech.brokerage.event;
+
+import java.util.UUID;
+
+/**
+ * Published whenever an asset or order row of a customer is written, so read-side caches of
+ * that customer's balances and orders can be dropped.
+ */
+public record AccountChangedEvent(UUID customerId) {
+}
@@ -0,0 +1,41 @@
+package com.fintech.brokerage.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.BalanceMovement;
+import com.fintech.brokerage.entity.Order;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link Asset}, {@link BalanceMovement} and {@link Order} that turns writes
+ * into {@link AccountChangedEvent}s. Bulk JPQL updates of orders bypass it: cancel and match
+ * always record a balance movement in the same transaction, and amend publishes the event
+ * itself.
+ */
+@Component
+public class AccountEntityListener {
+
+	private final ApplicationEventPublisher publisher;
+
+	public AccountEntityListener(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void onChange(Object entity) {
+		if (entity instanceof Asset a) {
+			publisher.publishEvent(new AccountChangedEvent(a.getCustomerId().getId()));
+		} else if (entity instanceof BalanceMovement m) {
+			publisher.publishEvent(new AccountChangedEvent(m.getCustomerId().getId()));
+		} else if (entity instanceof Order o) {
+			publisher.publishEvent(new AccountChangedEvent(o.getCustomerId().getId()));
+		}
+	}
+}
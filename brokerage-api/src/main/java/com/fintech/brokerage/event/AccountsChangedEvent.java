@@ -0,0 +1,11 @@
+package com.fintech.brokerage.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link AccountChangedEvent} for a whole set of customers written by one bulk statement, so a
+ * run over many accounts publishes and delivers one event rather than one per customer.
+ */
+public record AccountsChangedEvent(Set<UUID> customerIds) {
+}
@@ -0,0 +1,17 @@
+package com.fintech.brokerage.event;
+
+import java.util.UUID;
+
+import com.fintech.brokerage.enums.Role;
+
+/**
+ * Published whenever a customer row is created, updated or deleted.
+ */
+public record CustomerChangedEvent(UUID customerId, String username, Role role, boolean enabled, ChangeType type) {
+
+	public enum ChangeType {
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+}
@@ -0,0 +1,45 @@
+package com.fintech.brokerage.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.event.CustomerChangedEvent.ChangeType;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener that turns customer writes into {@link CustomerChangedEvent}s, so caches
+ * keyed by customer do not have to poll the database. Instantiated by Hibernate through
+ * Spring's bean container.
+ */
+@Component
+public class CustomerEntityListener {
+
+	private final ApplicationEventPublisher publisher;
+
+	public CustomerEntityListener(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@PostPersist
+	void onCreate(Customer c) {
+		publish(c, ChangeType.CREATED);
+	}
+
+	@PostUpdate
+	void onUpdate(Customer c) {
+		publish(c, ChangeType.UPDATED);
+	}
+
+	@PostRemove
+	void onDelete(Customer c) {
+		publish(c, ChangeType.DELETED);
+	}
+
+	private void publish(Customer c, ChangeType type) {
+		publisher.publishEvent(new CustomerChangedEvent(c.getId(), c.getUsername(), c.getRole(), c.isEnabled(), type));
+	}
+}
@@ -0,0 +1,7 @@
+package com.fintech.brokerage.event;
+
+/**
+ * Published when a symbol is added to the instrument table.
+ */
+public record InstrumentListedEvent(int instrumentId, String symbol) {
+}
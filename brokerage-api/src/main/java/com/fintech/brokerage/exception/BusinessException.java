@@ -11,4 +11,9 @@ public class BusinessException extends RuntimeException {
     public BusinessException(String message, Throwable cause) {
         super(message, cause);
     }
-}
\ No newline at end of file
+
+    /** For rejections that are thrown often enough that capturing the stack would dominate their cost. */
+    protected BusinessException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+}
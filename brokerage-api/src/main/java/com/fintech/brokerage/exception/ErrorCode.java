@@ -0,0 +1,25 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * Stable codes of business rejections, sent as the {@code error} field of the error body.
+ * Clients may branch on them, so existing codes are never renamed.
+ */
+public enum ErrorCode {
+
+	/** The usable balance does not cover the reservation or withdrawal. */
+	INSUFFICIENT_BALANCE("insufficient_balance"),
+	/** A new order or an amendment has a missing or invalid field. */
+	INVALID_ORDER("invalid_order"),
+	/** The order is no longer PENDING, or was changed while being amended. */
+	ORDER_NOT_PENDING("order_not_pending");
+
+	private final String code;
+
+	ErrorCode(String code) {
+		this.code = code;
+	}
+
+	public String code() {
+		return code;
+	}
+}
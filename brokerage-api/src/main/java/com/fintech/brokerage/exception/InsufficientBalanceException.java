@@ -0,0 +1,13 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * The usable balance does not cover an order or a withdrawal.
+ */
+public class InsufficientBalanceException extends RejectedException {
+
+	private static final long serialVersionUID = -2140379160356437921L;
+
+	public InsufficientBalanceException(String message) {
+		super(ErrorCode.INSUFFICIENT_BALANCE, message);
+	}
+}
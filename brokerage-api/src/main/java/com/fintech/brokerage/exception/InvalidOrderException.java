@@ -0,0 +1,13 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * A new order or an amendment is missing a field or has an invalid one.
+ */
+public class InvalidOrderException extends RejectedException {
+
+	private static final long serialVersionUID = 6685503011907154342L;
+
+	public InvalidOrderException(String message) {
+		super(ErrorCode.INVALID_ORDER, message);
+	}
+}
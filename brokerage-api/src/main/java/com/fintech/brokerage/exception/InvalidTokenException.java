@@ -0,0 +1,13 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * A presented token is malformed, expired or revoked (HTTP 401).
+ */
+public class InvalidTokenException extends BusinessException {
+
+	private static final long serialVersionUID = -6043310254917321846L;
+
+	public InvalidTokenException(String message) {
+		super(message);
+	}
+}
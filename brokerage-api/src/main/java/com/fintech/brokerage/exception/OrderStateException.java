@@ -0,0 +1,13 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * The order is not PENDING anymore, or was changed concurrently.
+ */
+public class OrderStateException extends RejectedException {
+
+	private static final long serialVersionUID = -7504224379613322218L;
+
+	public OrderStateException(String message) {
+		super(ErrorCode.ORDER_NOT_PENDING, message);
+	}
+}
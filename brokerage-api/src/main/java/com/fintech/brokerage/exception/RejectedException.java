@@ -0,0 +1,24 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * An expected refusal of a request, such as an order the balance does not cover (HTTP 400).
+ * <p>
+ * Rejections are part of normal traffic and can outnumber successes, so they carry no stack
+ * trace and no suppressed exceptions. Instances with a fixed message can therefore be created
+ * once and thrown again from any thread.
+ */
+public abstract class RejectedException extends BusinessException {
+
+	private static final long serialVersionUID = 4417021698130593702L;
+
+	private final ErrorCode code;
+
+	protected RejectedException(ErrorCode code, String message) {
+		super(message, false);
+		this.code = code;
+	}
+
+	public ErrorCode getCode() {
+		return code;
+	}
+}
@@ -0,0 +1,20 @@
+package com.fintech.brokerage.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the caller should retry later (HTTP 429).
+ */
+public class TooManyRequestsException extends BusinessException {
+
+	private static final long serialVersionUID = 2861470905412264807L;
+
+	private final long retryAfterSeconds;
+
+	public TooManyRequestsException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
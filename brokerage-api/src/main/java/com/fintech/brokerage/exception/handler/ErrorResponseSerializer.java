@@ -0,0 +1,45 @@
+package com.fintech.brokerage.exception.handler;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fintech.brokerage.exception.handler.GlobalExceptionHandler.ErrorResponse;
+
+/**
+ * Writes {@link ErrorResponse} field by field, without the bean introspection and per-property
+ * lookups of the generic record serializer. The output is the same: the fields in declaration
+ * order, and the timestamp in the mapper's date format, so JSON, CBOR and Smile bodies keep
+ * their shape. Only a message that is not a string, like the list of validation errors, goes
+ * through the generic path.
+ */
+class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+
+    private static final long serialVersionUID = 1L;
+
+    ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value, 5);
+        gen.writeStringField("error", value.error());
+        if (value.message() == null || value.message() instanceof String) {
+            gen.writeStringField("message", (String) value.message());
+        } else {
+            provider.defaultSerializeField("message", value.message(), gen);
+        }
+        gen.writeStringField("path", value.path());
+        if (value.timestamp() == null || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeField("timestamp", value.timestamp(), gen);
+        } else {
+            gen.writeStringField("timestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value.timestamp()));
+        }
+        gen.writeNumberField("status", value.status());
+        gen.writeEndObject();
+    }
+}
@@ -2,6 +2,8 @@ package com.fintech.brokerage.exception.handler;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -11,7 +13,14 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import com.fintech.brokerage.exception.BusinessException;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fintech.brokerage.exception.InvalidTokenException;
+import com.fintech.brokerage.exception.RejectedException;
+import com.fintech.brokerage.exception.TooManyRequestsException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -21,7 +30,15 @@ public class GlobalExceptionHandler {
 
 	private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+	private final RejectionLog rejectionLog;
+
+	public GlobalExceptionHandler(MeterRegistry registry,
+			@Value("${app.errors.rejection-log.max-per-second:10}") int maxRejectionLogsPerSecond) {
+		this.rejectionLog = new RejectionLog(log, Clock.systemUTC(), registry, maxRejectionLogsPerSecond);
+	}
+
 	// Enhanced DTO for standardized error response
+	@JsonSerialize(using = ErrorResponseSerializer.class)
 	public record ErrorResponse(String error, Object message, String path, LocalDateTime timestamp, int status) {
 		public static ErrorResponse of(String error, Object message, String path, HttpStatus status) {
 			return new ErrorResponse(error, message, path, LocalDateTime.now(), status.value());
@@ -54,6 +71,19 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
 	}
 
+	// Expected refusals: no stack trace to log, and only a sample of them is logged at all
+	@ExceptionHandler(RejectedException.class)
+	public ResponseEntity<ErrorResponse> handleRejected(RejectedException ex, WebRequest request) {
+
+		String path = request.getDescription(false);
+		rejectionLog.log(ex, path);
+
+		ErrorResponse errorResponse = ErrorResponse.of(ex.getCode().code(), ex.getMessage(), path,
+				HttpStatus.BAD_REQUEST);
+
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+	}
+
 	@ExceptionHandler(AccessDeniedException.class)
 	public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException ex, WebRequest request) {
 
@@ -76,6 +106,29 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
 	}
 
+	@ExceptionHandler(InvalidTokenException.class)
+	public ResponseEntity<ErrorResponse> handleInvalidToken(InvalidTokenException ex, WebRequest request) {
+
+		log.warn("Invalid token for {}: {}", request.getDescription(false), ex.getMessage());
+
+		ErrorResponse errorResponse = ErrorResponse.of("invalid_token", ex.getMessage(), request.getDescription(false),
+				HttpStatus.UNAUTHORIZED);
+
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+	}
+
+	@ExceptionHandler(TooManyRequestsException.class)
+	public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+
+		log.warn("Too many requests for {}: {}", request.getDescription(false), ex.getMessage());
+
+		ErrorResponse errorResponse = ErrorResponse.of("too_many_requests", ex.getMessage(),
+				request.getDescription(false), HttpStatus.TOO_MANY_REQUESTS);
+
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())).body(errorResponse);
+	}
+
 	// Handle business logic exceptions (if you have custom ones)
 	@ExceptionHandler(BusinessException.class)
 	public ResponseEntity<ErrorResponse> handleBusinessException(BusinessException ex, WebRequest request) {
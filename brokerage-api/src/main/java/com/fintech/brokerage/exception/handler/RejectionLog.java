@@ -0,0 +1,71 @@
+package com.fintech.brokerage.exception.handler;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.fintech.brokerage.exception.ErrorCode;
+import com.fintech.brokerage.exception.RejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Logs business rejections, at most {@code maxPerSecond} per error code and second. The rest
+ * are only counted, and their number is logged once the next second starts, so a burst of
+ * rejected orders costs one counter increment each instead of a log line. Every rejection
+ * is counted in {@code errors.rejected{code}}.
+ */
+final class RejectionLog {
+
+    private final Logger log;
+    private final Clock clock;
+    private final int maxPerSecond;
+    private final Map<ErrorCode, Window> windows = new EnumMap<>(ErrorCode.class);
+    private final Map<ErrorCode, Counter> rejected = new EnumMap<>(ErrorCode.class);
+
+    /** Rejections of one code in the current second; reset by whichever thread sees the next. */
+    private static final class Window {
+        final AtomicLong second = new AtomicLong();
+        final AtomicInteger logged = new AtomicInteger();
+        final AtomicInteger suppressed = new AtomicInteger();
+    }
+
+    RejectionLog(Logger log, Clock clock, MeterRegistry registry, int maxPerSecond) {
+        this.log = log;
+        this.clock = clock;
+        this.maxPerSecond = Math.max(0, maxPerSecond);
+        for (ErrorCode code : ErrorCode.values()) {
+            windows.put(code, new Window());
+            rejected.put(code, Counter.builder("errors.rejected").tag("code", code.code())
+                    .description("Requests refused by a business rule").register(registry));
+        }
+    }
+
+    /** Returns whether the rejection was logged. */
+    boolean log(RejectedException ex, String path) {
+        ErrorCode code = ex.getCode();
+        rejected.get(code).increment();
+
+        Window w = windows.get(code);
+        long now = clock.millis() / 1000;
+        long current = w.second.get();
+        if (now != current && w.second.compareAndSet(current, now)) {
+            w.logged.set(0);
+            int dropped = w.suppressed.getAndSet(0);
+            if (dropped > 0) {
+                log.info("{} more {} rejections were not logged", dropped, code.code());
+            }
+        }
+        if (w.logged.incrementAndGet() > maxPerSecond) {
+            w.suppressed.incrementAndGet();
+            return false;
+        }
+        log.info("Rejected {} ({}): {}", path, code.code(), ex.getMessage());
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+package com.fintech.brokerage.instrument;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an asset name as its instrument id. Entities and the API keep working with symbols;
+ * only the column holds the compact id. Created by Hibernate through Spring, so the registry is
+ * injected.
+ */
+@Converter
+public class InstrumentIdConverter implements AttributeConverter<String, Integer> {
+
+    private final InstrumentRegistry registry;
+
+    public InstrumentIdConverter(InstrumentRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String symbol) {
+        return symbol == null ? null : registry.idOf(symbol);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : registry.symbolOf(id);
+    }
+}
@@ -0,0 +1,184 @@
+package com.fintech.brokerage.instrument;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.brokerage.entity.Instrument;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.event.InstrumentListedEvent;
+import com.fintech.brokerage.shard.ShardRouter;
+
+/**
+ * In-memory view of the instrument table: symbol to id and back without touching the database.
+ * Lookups read an immutable snapshot that is replaced as a whole when a symbol is listed, and
+ * every {@code app.instruments.refresh-ms} to pick up listings made by other instances.
+ * <p>
+ * The symbols of {@link AssetType} are listed at startup when missing, so TRY and the original
+ * stocks always exist. Reads go through the routing data source: outside a transaction that is
+ * shard 0, inside one the shard's copy of the table.
+ */
+@Component
+public class InstrumentRegistry implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentRegistry.class);
+
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9][A-Z0-9._-]{0,15}");
+    private static final String SELECT_ALL = "select id, symbol, name, listed_at from instrument";
+    private static final RowMapper<Instrument> ROW = (rs, i) -> new Instrument(rs.getInt("id"), rs.getString("symbol"),
+            rs.getString("name"), rs.getObject("listed_at", OffsetDateTime.class).toInstant());
+
+    private final JdbcTemplate jdbc;
+    private final ShardRouter router;
+    private final ApplicationEventPublisher publisher;
+
+    private volatile Snapshot snapshot;
+
+    public InstrumentRegistry(JdbcTemplate jdbc, ShardRouter router, ApplicationEventPublisher publisher) {
+        this.jdbc = jdbc;
+        this.router = router;
+        this.publisher = publisher;
+    }
+
+    private record Snapshot(Map<String, Instrument> bySymbol, Instrument[] byId) {
+
+        static Snapshot of(List<Instrument> rows) {
+            Map<String, Instrument> bySymbol = new HashMap<>(rows.size() * 2);
+            int maxId = rows.stream().mapToInt(Instrument::getId).max().orElse(0);
+            Instrument[] byId = new Instrument[maxId + 1];
+            for (Instrument i : rows) {
+                bySymbol.put(i.getSymbol(), i);
+                byId[i.getId()] = i;
+            }
+            return new Snapshot(Map.copyOf(bySymbol), byId);
+        }
+
+        Instrument byId(int id) {
+            return id >= 0 && id < byId.length ? byId[id] : null;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (AssetType type : AssetType.values()) {
+            if (!current().bySymbol().containsKey(type.getSymbol())) {
+                try {
+                    list(type.getSymbol(), null);
+                } catch (IllegalStateException e) {
+                    // listed by another instance starting at the same time; list() has reloaded
+                }
+            }
+        }
+        log.info("Instrument registry loaded: {} instruments", current().bySymbol().size());
+    }
+
+    /**
+     * Id of a listed symbol; an unknown symbol is rejected like any other invalid input.
+     */
+    public int idOf(String symbol) {
+        Instrument i = symbol == null ? null : current().bySymbol().get(symbol);
+        if (i == null) {
+            throw new IllegalArgumentException("Unknown asset: " + symbol);
+        }
+        return i.getId();
+    }
+
+    /**
+     * Symbol of an id read from the database. An id this instance has not seen yet was listed
+     * elsewhere since the last refresh, so the table is reloaded once before giving up.
+     */
+    public String symbolOf(int id) {
+        Instrument i = current().byId(id);
+        if (i == null) {
+            i = reload().byId(id);
+        }
+        if (i == null) {
+            throw new IllegalStateException("No instrument with id " + id);
+        }
+        return i.getSymbol();
+    }
+
+    public boolean isListed(String symbol) {
+        return symbol != null && current().bySymbol().containsKey(symbol);
+    }
+
+    public List<Instrument> instruments() {
+        List<Instrument> all = new ArrayList<>(current().bySymbol().values());
+        all.sort(Comparator.comparing(Instrument::getId));
+        return all;
+    }
+
+    /**
+     * Adds a symbol to the instrument table on shard 0; it can be traded as soon as this returns.
+     */
+    public Instrument list(String symbol, String name) {
+        if (symbol == null || !SYMBOL.matcher(symbol).matches()) {
+            throw new IllegalArgumentException("symbol must be 1-16 upper case letters, digits, '.', '_' or '-'");
+        }
+        if (isListed(symbol)) {
+            throw new IllegalStateException("Instrument " + symbol + " is already listed");
+        }
+        Instant listedAt = Instant.now();
+        KeyHolder key = new GeneratedKeyHolder();
+        try {
+            router.onShard(0, () -> jdbc.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "insert into instrument (symbol, name, listed_at) values (?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, symbol);
+                ps.setString(2, name);
+                ps.setObject(3, listedAt.atOffset(ZoneOffset.UTC));
+                return ps;
+            }, key));
+        } catch (DuplicateKeyException e) {
+            // listed concurrently, here or by another instance
+            reload();
+            throw new IllegalStateException("Instrument " + symbol + " is already listed");
+        }
+        int id = key.getKeyAs(Integer.class);
+        reload();
+        publisher.publishEvent(new InstrumentListedEvent(id, symbol));
+        log.info("Listed instrument {} with id {}", symbol, id);
+        return new Instrument(id, symbol, name, listedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.instruments.refresh-ms:30000}",
+               initialDelayString = "${app.instruments.refresh-ms:30000}")
+    public void refresh() {
+        int before = current().bySymbol().size();
+        int after = reload().bySymbol().size();
+        if (after != before) {
+            log.info("Instrument registry refreshed: {} -> {} instruments", before, after);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        return s != null ? s : reload();
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot s = Snapshot.of(jdbc.query(SELECT_ALL, ROW));
+        snapshot = s;
+        return s;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fintech.brokerage.instrument;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves a database created before the instrument registry from {@code asset_name} strings to
+ * {@code instrument_id}: lists every symbol in use, fills the new column and drops the old
+ * one. A new database has no {@code asset_name} column and is left to Hibernate. Foreign keys
+ * and the new unique constraint are added by the regular schema update afterwards.
+ */
+@Component
+public class V1__InstrumentIds extends BaseJavaMigration {
+
+    private static final String[] TABLES = { "ASSET", "ORDERS" };
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        if (!hasColumn(jdbc, "ASSET", "ASSET_NAME")) {
+            return;
+        }
+        jdbc.execute("""
+                create table if not exists instrument (
+                    id integer generated by default as identity,
+                    symbol varchar(16) not null,
+                    name varchar(255),
+                    listed_at timestamp(6) with time zone not null,
+                    primary key (id))
+                """);
+        jdbc.update("""
+                insert into instrument (symbol, listed_at)
+                select distinct asset_name, current_timestamp
+                  from (select asset_name from asset union select asset_name from orders)
+                 where asset_name not in (select symbol from instrument)
+                """);
+        for (String table : TABLES) {
+            jdbc.execute("alter table " + table + " add column instrument_id integer");
+            jdbc.update("update " + table
+                    + " t set instrument_id = (select i.id from instrument i where i.symbol = t.asset_name)");
+            jdbc.execute("alter table " + table + " alter column instrument_id set not null");
+            // e.g. the (customer_id, asset_name) unique key, which blocks dropping the column
+            for (String constraint : jdbc.queryForList("""
+                    select constraint_name from information_schema.key_column_usage
+                     where table_name = ? and column_name = 'ASSET_NAME'
+                    """, String.class, table)) {
+                jdbc.execute("alter table " + table + " drop constraint " + constraint);
+            }
+            jdbc.execute("alter table " + table + " drop column asset_name");
+        }
+    }
+
+    private static boolean hasColumn(JdbcTemplate jdbc, String table, String column) {
+        Integer n = jdbc.queryForObject("""
+                select count(*) from information_schema.columns where table_name = ? and column_name = ?
+                """, Integer.class, table, column);
+        return n != null && n > 0;
+    }
+}
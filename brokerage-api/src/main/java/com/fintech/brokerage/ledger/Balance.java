@@ -0,0 +1,11 @@
+package com.fintech.brokerage.ledger;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Effective balance of one asset: the snapshot row plus its uncompacted movements. {@code id}
+ * is the id of the snapshot row.
+ */
+public record Balance(UUID id, UUID customerId, String assetName, BigDecimal size, BigDecimal usableSize) {
+}
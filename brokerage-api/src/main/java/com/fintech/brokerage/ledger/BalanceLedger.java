@@ -0,0 +1,152 @@
+package com.fintech.brokerage.ledger;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.BalanceMovement;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.repo.AssetRepository;
+import com.fintech.brokerage.repo.BalanceMovementRepository;
+
+/**
+ * Balances as an append-only ledger on top of the {@link Asset} snapshot rows.
+ * <p>
+ * A change is a {@link BalanceMovement} insert; the snapshot row is only written by
+ * {@link LedgerCompactor}. Credits need no lock at all. A debit of a usable balance takes the
+ * row lock of the snapshot first ({@link #lockBalance}), so two debits of the same balance
+ * cannot both pass their check, but neither of them writes the row. All methods join the
+ * caller's transaction, which runs on the customer's shard.
+ * <p>
+ * The empty snapshot row of a customer's first movement in an instrument is created with one
+ * insert-if-absent statement; two first credits racing for it both succeed. H2 rejects the
+ * insert at once while the other transaction's row is uncommitted, only that statement fails,
+ * and it is retried until the other transaction has ended. Rows known to exist are remembered
+ * once the creating or observing transaction commits, so later movements skip the statement.
+ */
+@Component
+public class BalanceLedger {
+
+    private static final String INSERT_IF_ABSENT_SQL = """
+            insert into asset (id, customer_id, instrument_id, size, usable_size, version, updated_at)
+            select ?, ?, ?, 0, 0, 0, ?
+             where not exists (select 1 from asset where customer_id = ? and instrument_id = ?)
+            """;
+    private static final int SNAPSHOT_ATTEMPTS = 100;
+    private static final long SNAPSHOT_RETRY_MILLIS = 5;
+
+    private final AssetRepository assetRepo;
+    private final BalanceMovementRepository movementRepo;
+    private final JdbcTemplate jdbc;
+    private final InstrumentRegistry instruments;
+    private final int maxKnownSnapshots;
+    private final Set<SnapshotKey> knownSnapshots = ConcurrentHashMap.newKeySet();
+
+    public BalanceLedger(AssetRepository assetRepo, BalanceMovementRepository movementRepo, JdbcTemplate jdbc,
+                         InstrumentRegistry instruments,
+                         @Value("${app.ledger.known-snapshots:100000}") int maxKnownSnapshots) {
+        this.assetRepo = assetRepo;
+        this.movementRepo = movementRepo;
+        this.jdbc = jdbc;
+        this.instruments = instruments;
+        this.maxKnownSnapshots = maxKnownSnapshots;
+    }
+
+    public List<Balance> balances(Customer customer) {
+        return assetRepo.findBalances(customer, null);
+    }
+
+    public Optional<Balance> balance(Customer customer, String assetName) {
+        return assetRepo.findBalances(customer, assetName).stream().findFirst();
+    }
+
+    /**
+     * Locks the snapshot row, creating an empty one if the customer has none, and returns the
+     * effective balance. It cannot change until the transaction ends, except by credits.
+     */
+    public Balance lockBalance(Customer customer, String assetName) {
+        ensureSnapshot(customer, assetName);
+        assetRepo.lockByCustomerIdAndAssetName(customer, assetName).orElseThrow();
+        return balance(customer, assetName).orElseThrow();
+    }
+
+    /**
+     * Appends a movement. Callers that lower the usable balance must hold {@link #lockBalance}.
+     * The snapshot row is created on first use, so reads and compaction always find one.
+     */
+    public BalanceMovement record(Customer customer, String assetName, BigDecimal sizeDelta, BigDecimal usableDelta,
+                                  MovementReason reason, UUID referenceId) {
+        ensureSnapshot(customer, assetName);
+        return movementRepo.save(new BalanceMovement(customer, assetName, sizeDelta, usableDelta, reason, referenceId));
+    }
+
+    private void ensureSnapshot(Customer customer, String assetName) {
+        int instrumentId = instruments.idOf(assetName);
+        SnapshotKey key = new SnapshotKey(customer.getId(), instrumentId);
+        if (knownSnapshots.contains(key)) {
+            return;
+        }
+        insertSnapshotIfAbsent(customer.getId(), instrumentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a row inserted here is gone again if the transaction rolls back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(key);
+                }
+            });
+        } else {
+            remember(key);
+        }
+    }
+
+    private void insertSnapshotIfAbsent(UUID customerId, int instrumentId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbc.update(INSERT_IF_ABSENT_SQL, UuidV7Generator.next(), customerId, instrumentId,
+                        OffsetDateTime.now(ZoneOffset.UTC), customerId, instrumentId);
+                return;
+            } catch (DuplicateKeyException e) {
+                // inserted by a concurrent transaction that has committed since
+                return;
+            } catch (TransientDataAccessException e) {
+                // the concurrent row is not committed yet
+                if (attempt == SNAPSHOT_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(SNAPSHOT_RETRY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void remember(SnapshotKey key) {
+        if (knownSnapshots.size() >= maxKnownSnapshots) {
+            knownSnapshots.clear();
+        }
+        knownSnapshots.add(key);
+    }
+
+    private record SnapshotKey(UUID customerId, int instrumentId) {}
+}
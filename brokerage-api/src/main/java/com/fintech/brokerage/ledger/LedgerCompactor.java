@@ -0,0 +1,154 @@
+package com.fintech.brokerage.ledger;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Folds uncompacted balance movements into their {@link com.fintech.brokerage.entity.Asset}
+ * snapshot rows, oldest first, one batch per transaction.
+ * <p>
+ * A batch is claimed and summed by one statement: {@code FINAL TABLE (UPDATE ...)} flags the
+ * movements and returns exactly the rows it flagged, grouped per (customer, asset). The sums
+ * are then added to the snapshots in the same transaction, so a reader sees a movement either
+ * in the tail or in the snapshot, never in both. Snapshot rows are updated in key order, and
+ * each update waits for debits holding the row lock, which keeps their balance checks valid.
+ * Movements stay in the table as the audit trail.
+ */
+@Component
+public class LedgerCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerCompactor.class);
+
+    private static final String CLAIM_SQL = """
+            select customer_id, instrument_id, sum(size_delta) as size_delta, sum(usable_delta) as usable_delta,
+                   count(*) as movements
+              from final table (update balance_movement set compacted = true
+                                 where compacted = false
+                                   and id in (select id from balance_movement where compacted = false
+                                               order by id limit ?))
+             group by customer_id, instrument_id
+             order by customer_id, instrument_id
+            """;
+    private static final String FOLD_SQL = """
+            update asset
+               set size = size + ?, usable_size = usable_size + ?, version = version + 1, updated_at = ?
+             where customer_id = ? and instrument_id = ?
+            """;
+    private static final String INSERT_SQL = """
+            insert into asset (id, customer_id, instrument_id, size, usable_size, version, updated_at)
+            values (?, ?, ?, ?, ?, 0, ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ShardRouter router;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter compacted;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LedgerCompactor(JdbcTemplate jdbc, ShardRouter router, PlatformTransactionManager txManager,
+                           MeterRegistry registry,
+                           @Value("${app.ledger.compaction.enabled:true}") boolean enabled,
+                           @Value("${app.ledger.compaction.batch-size:5000}") int batchSize,
+                           @Value("${app.ledger.compaction.max-batches-per-run:100}") int maxBatches) {
+        this.jdbc = jdbc;
+        this.router = router;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.compacted = Counter.builder("ledger.movements.compacted")
+                .description("Balance movements folded into asset snapshots").register(registry);
+    }
+
+    private record Fold(UUID customerId, int instrumentId, BigDecimal size, BigDecimal usable, long movements) {}
+
+    @Scheduled(initialDelayString = "${app.ledger.compaction.interval-ms:1000}",
+               fixedDelayString = "${app.ledger.compaction.interval-ms:1000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.warn("Ledger compaction failed, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Compacts every shard, at most {@code max-batches-per-run} batches each. Returns the number
+     * of movements folded, or 0 if another run is in progress.
+     */
+    public long compact() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            return router.onAllShards(this::compactShard).stream().mapToLong(Long::longValue).sum();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long compactShard() {
+        long total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            long movements = tx.execute(status -> compactBatch());
+            total += movements;
+            compacted.increment(movements);
+            if (movements < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("Compacted {} balance movements", total);
+        }
+        return total;
+    }
+
+    /** Movements folded by one batch; fewer than {@code batch-size} means the tail is empty. */
+    private long compactBatch() {
+        List<Fold> folds = jdbc.query(CLAIM_SQL, (rs, i) -> new Fold(rs.getObject("customer_id", UUID.class),
+                rs.getInt("instrument_id"), rs.getBigDecimal("size_delta"), rs.getBigDecimal("usable_delta"),
+                rs.getLong("movements")), batchSize);
+        if (folds.isEmpty()) {
+            return 0L;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        int[] updated = jdbc.batchUpdate(FOLD_SQL, folds.stream()
+                .map(f -> new Object[] { f.size(), f.usable(), now, f.customerId(), f.instrumentId() })
+                .toList());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                // writers create the row before recording against it; start one rather than stall on it
+                Fold f = folds.get(i);
+                log.warn("No snapshot row of customer {}, instrument {}; creating it", f.customerId(), f.instrumentId());
+                jdbc.update(INSERT_SQL, UuidV7Generator.next(), f.customerId(), f.instrumentId(), f.size(), f.usable(), now);
+            }
+        }
+        return folds.stream().mapToLong(Fold::movements).sum();
+    }
+}
@@ -0,0 +1,52 @@
+package com.fintech.brokerage.logging;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Keeps roughly one in {@code keepOneIn} INFO and lower events of the configured loggers
+ * (name prefixes) and drops the rest before any message formatting happens. WARN and ERROR
+ * always pass. Configured in {@code logback-spring.xml} from {@code app.logging.sampling.*}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String[] prefixes = new String[0];
+    private int keepOneIn = 1;
+
+    /** Comma separated logger name prefixes. */
+    public void setLoggers(String loggers) {
+        this.prefixes = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        this.keepOneIn = keepOneIn;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null for isXxxEnabled() checks; let those through so guards stay accurate
+        if (keepOneIn <= 1 || format == null || level.isGreaterOrEqual(Level.WARN) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(keepOneIn) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String name) {
+        for (String p : prefixes) {
+            if (name.startsWith(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
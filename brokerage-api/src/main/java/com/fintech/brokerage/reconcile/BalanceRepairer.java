@@ -0,0 +1,87 @@
+package com.fintech.brokerage.reconcile;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.Order;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.ledger.BalanceLedger;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.repo.OrderRepository;
+import com.fintech.brokerage.shard.ShardRouted;
+
+/**
+ * Resets the usable balance of one asset to {@code size - pending reservations} by recording a
+ * {@code REPAIR} movement.
+ * <p>
+ * The balance is locked, so no order can reserve from it meanwhile, and read again after the
+ * orders. Refunds and settlements do not take the lock, but each commits its order change and
+ * its movement together: if one lands between the reads, the two balances differ and the
+ * repair is skipped instead of applying a stale reservation.
+ */
+@Component
+public class BalanceRepairer {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceRepairer.class);
+    private static final int MONEY_SCALE = 4;
+
+    private final BalanceLedger ledger;
+    private final OrderRepository orderRepo;
+    private final CustomerRepository customerRepo;
+
+    public BalanceRepairer(BalanceLedger ledger, OrderRepository orderRepo, CustomerRepository customerRepo) {
+        this.ledger = ledger;
+        this.orderRepo = orderRepo;
+        this.customerRepo = customerRepo;
+    }
+
+    @Transactional
+    @ShardRouted
+    public Drift.Repair repair(UUID customerId, String assetName) {
+        Customer customer = customerRepo.getReferenceById(customerId);
+        if (ledger.balance(customer, assetName).isEmpty()) {
+            return Drift.Repair.UNREPAIRABLE;
+        }
+        Balance balance = ledger.lockBalance(customer, assetName);
+
+        BigDecimal expected = BigDecimal.ZERO;
+        boolean cash = AssetType.TRY.getSymbol().equals(assetName);
+        for (Order o : orderRepo.findByCustomerIdAndStatus(customer, OrderStatus.PENDING)) {
+            if (cash && o.getOrderSide() == OrderSide.BUY) {
+                // same rounding as the reservation in OrderServiceImpl
+                expected = expected.add(o.getPrice().multiply(o.getSize()).setScale(MONEY_SCALE, RoundingMode.HALF_UP));
+            } else if (o.getOrderSide() == OrderSide.SELL && o.getAssetName().equals(assetName)) {
+                expected = expected.add(o.getSize());
+            }
+        }
+
+        Balance after = ledger.balance(customer, assetName).orElseThrow();
+        if (after.size().compareTo(balance.size()) != 0 || after.usableSize().compareTo(balance.usableSize()) != 0) {
+            return Drift.Repair.CHANGED_CONCURRENTLY;
+        }
+
+        BigDecimal usable = balance.size().subtract(expected);
+        if (usable.signum() < 0) {
+            log.warn("Cannot repair {} of customer {}: size {} is below pending reservations {}",
+                    assetName, customerId, balance.size(), expected);
+            return Drift.Repair.UNREPAIRABLE;
+        }
+        if (usable.compareTo(balance.usableSize()) != 0) {
+            log.warn("Repairing {} of customer {}: usable {} -> {}", assetName, customerId, balance.usableSize(), usable);
+            ledger.record(customer, assetName, BigDecimal.ZERO, usable.subtract(balance.usableSize()),
+                    MovementReason.REPAIR, null);
+        }
+        return Drift.Repair.REPAIRED;
+    }
+}
@@ -0,0 +1,34 @@
+package com.fintech.brokerage.reconcile;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Reserved amount of one (customer, asset) that does not match the customer's PENDING orders.
+ * {@code actualReserved} is {@code size - usableSize} of the balance, {@code expectedReserved}
+ * the TRY notional of pending BUY orders or the size of pending SELL orders of that asset.
+ */
+@JsonPropertyOrder({ "customerId", "assetName", "expectedReserved", "actualReserved", "repair" })
+public record Drift(UUID customerId, String assetName, BigDecimal expectedReserved, BigDecimal actualReserved,
+                    Repair repair) {
+
+    public enum Repair {
+        /** Reported only; repair was not requested. */
+        NONE,
+        REPAIRED,
+        /** The asset changed between check and repair; the next run looks at it again. */
+        CHANGED_CONCURRENTLY,
+        /** The holding is smaller than the pending orders, or there is no asset row to fix. */
+        UNREPAIRABLE
+    }
+
+    Drift withRepair(Repair repair) {
+        return new Drift(customerId, assetName, expectedReserved, actualReserved, repair);
+    }
+
+    BigDecimal difference() {
+        return actualReserved.subtract(expectedReserved);
+    }
+}
@@ -0,0 +1,360 @@
+package com.fintech.brokerage.reconcile;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.reconcile.ReconciliationReport.Mode;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Compares the reserved part of every asset ({@code size - usable_size}, including uncompacted
+ * ledger movements) with the PENDING orders that hold it, and reports or repairs the
+ * differences.
+ * <p>
+ * Both sides are aggregated in the database, one customer id range or id batch at a time, so a
+ * run never loads entities. A full run splits the id space into {@code partitions} ranges and
+ * checks them in parallel on every shard. The scheduled runs after it are incremental: they
+ * only look at customers whose assets or balance movements changed since the previous run
+ * started (minus {@code overlap-ms} for clock skew between shards), which is every customer an
+ * order could have touched.
+ * <p>
+ * The check reads without locks, so an order committed between the two queries shows up as a
+ * drift. Suspects are therefore checked a second time and only reported when the same
+ * difference is still there.
+ */
+@Component
+public class Reconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(Reconciler.class);
+
+    private static final String TRY = AssetType.TRY.getSymbol();
+    private static final int BATCH_SIZE = 500;
+    private static final int LOGGED_DRIFTS = 20;
+
+    private static final String RESERVED_SQL = """
+            select customer_id, instrument_id,
+                   size - usable_size + coalesce((select sum(m.size_delta - m.usable_delta) from balance_movement m
+                                                   where m.customer_id = a.customer_id
+                                                     and m.instrument_id = a.instrument_id
+                                                     and m.compacted = false), 0) as reserved
+              from asset a
+             where %s
+            """;
+    private static final String PENDING_SQL = """
+            select customer_id,
+                   case when order_side = 'BUY' then %1$d else instrument_id end as reserved_instrument,
+                   sum(case when order_side = 'BUY' then round(price * size, 4) else size end) as reserved
+              from orders
+             where status = 'PENDING' and %2$s
+             group by customer_id, case when order_side = 'BUY' then %1$d else instrument_id end
+            """;
+    // movement ids are UUIDv7, so the primary key finds the recent ones without a timestamp index
+    private static final String CHANGED_SQL = """
+            select customer_id from asset where updated_at > ?
+            union
+            select customer_id from balance_movement where id > ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ShardRouter router;
+    private final BalanceRepairer repairer;
+    private final InstrumentRegistry instruments;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int partitions;
+    private final int parallelism;
+    private final Duration overlap;
+    private final boolean repairOnSchedule;
+    private final int maxReportedDrifts;
+    private final Counter fullChecked;
+    private final Counter incrementalChecked;
+    private final AtomicInteger lastDriftCount = new AtomicInteger();
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    /** Start of the previous run; {@code null} until the first full run. */
+    private volatile Instant watermark;
+    private volatile ReconciliationReport lastReport;
+
+    public Reconciler(JdbcTemplate jdbc, ShardRouter router, BalanceRepairer repairer, InstrumentRegistry instruments,
+                      MeterRegistry registry,
+                      @Value("${app.reconcile.enabled:true}") boolean enabled,
+                      @Value("${app.reconcile.partitions:16}") int partitions,
+                      @Value("${app.reconcile.parallelism:0}") int parallelism,
+                      @Value("${app.reconcile.overlap-ms:5000}") long overlapMs,
+                      @Value("${app.reconcile.repair:false}") boolean repairOnSchedule,
+                      @Value("${app.reconcile.full-on-start:true}") boolean fullOnStart,
+                      @Value("${app.reconcile.max-reported-drifts:1000}") int maxReportedDrifts) {
+        this.jdbc = jdbc;
+        this.router = router;
+        this.repairer = repairer;
+        this.instruments = instruments;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.partitions = Math.max(1, partitions);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.repairOnSchedule = repairOnSchedule;
+        this.maxReportedDrifts = maxReportedDrifts;
+        this.watermark = fullOnStart ? null : Instant.now();
+        this.fullChecked = checkedCounter(registry, Mode.FULL);
+        this.incrementalChecked = checkedCounter(registry, Mode.INCREMENTAL);
+        Gauge.builder("reconcile.drifts", lastDriftCount, AtomicInteger::get)
+                .description("Reserved balance drifts found by the last reconciliation run").register(registry);
+    }
+
+    private static Counter checkedCounter(MeterRegistry registry, Mode mode) {
+        return Counter.builder("reconcile.customers.checked").tag("mode", mode.name().toLowerCase())
+                .description("Customers whose reserved balances were reconciled").register(registry);
+    }
+
+    /**
+     * A full run first, incremental runs after it. Skipped while a manual run is in progress.
+     */
+    @Scheduled(initialDelayString = "${app.reconcile.interval-ms:60000}",
+               fixedDelayString = "${app.reconcile.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled || !runLock.tryLock()) {
+            return;
+        }
+        try {
+            reconcile(watermark == null ? Mode.FULL : Mode.INCREMENTAL, repairOnSchedule);
+        } catch (RuntimeException e) {
+            log.error("Reconciliation run failed", e);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    public ReconciliationReport run(boolean full, boolean repair) {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Reconciliation is already running");
+        }
+        try {
+            return reconcile(full || watermark == null ? Mode.FULL : Mode.INCREMENTAL, repair);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    public Optional<ReconciliationReport> lastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    private ReconciliationReport reconcile(Mode mode, boolean repair) {
+        Instant startedAt = Instant.now();
+        long started = System.nanoTime();
+
+        List<Scope> scopes = mode == Mode.FULL ? rangeScopes() : changedScopes(watermark.minus(overlap));
+        List<Check> firstPass = checkAll(scopes);
+
+        // scopes are disjoint (one shard, one id range or batch each), so their counts add up
+        long customers = 0;
+        Map<Integer, Set<UUID>> suspectsByShard = new HashMap<>();
+        Map<Key, Drift> suspects = new HashMap<>();
+        for (Check check : firstPass) {
+            customers += check.customers();
+            for (Drift d : check.drifts()) {
+                suspects.put(new Key(d.customerId(), d.assetName()), d);
+                suspectsByShard.computeIfAbsent(check.shard(), s -> new HashSet<>()).add(d.customerId());
+            }
+        }
+
+        List<Drift> confirmed = new ArrayList<>();
+        if (!suspects.isEmpty()) {
+            List<Scope> recheck = new ArrayList<>();
+            suspectsByShard.forEach((shard, ids) -> recheck.addAll(batches(shard, new ArrayList<>(ids))));
+            for (Check check : checkAll(recheck)) {
+                for (Drift d : check.drifts()) {
+                    if (d.equals(suspects.get(new Key(d.customerId(), d.assetName())))) {
+                        confirmed.add(d);
+                    }
+                }
+            }
+        }
+
+        int repaired = 0;
+        List<Drift> drifts = new ArrayList<>(confirmed.size());
+        for (Drift d : confirmed) {
+            Drift.Repair result = repair ? repair(d) : Drift.Repair.NONE;
+            if (result == Drift.Repair.REPAIRED) {
+                repaired++;
+            }
+            drifts.add(d.withRepair(result));
+        }
+
+        (mode == Mode.FULL ? fullChecked : incrementalChecked).increment(customers);
+        lastDriftCount.set(drifts.size());
+        watermark = startedAt;
+
+        ReconciliationReport report = new ReconciliationReport(mode, startedAt,
+                Duration.ofNanos(System.nanoTime() - started).toMillis(), customers, drifts.size(), repaired,
+                List.copyOf(drifts.subList(0, Math.min(drifts.size(), maxReportedDrifts))));
+        lastReport = report;
+        logReport(report);
+        return report;
+    }
+
+    private Drift.Repair repair(Drift d) {
+        Drift.Repair result;
+        try {
+            result = repairer.repair(d.customerId(), d.assetName());
+        } catch (ConcurrencyFailureException e) {
+            result = Drift.Repair.CHANGED_CONCURRENTLY;
+        }
+        registry.counter("reconcile.repairs", "result", result.name().toLowerCase()).increment();
+        return result;
+    }
+
+    private void logReport(ReconciliationReport report) {
+        if (report.driftCount() == 0) {
+            if (report.mode() == Mode.FULL) {
+                log.info("Full reconciliation: {} customers, no drift ({} ms)", report.customersChecked(),
+                        report.millis());
+            } else {
+                log.debug("Incremental reconciliation: {} customers, no drift ({} ms)", report.customersChecked(),
+                        report.millis());
+            }
+            return;
+        }
+        log.warn("{} reconciliation: {} customers, {} drifts, {} repaired ({} ms)", report.mode(),
+                report.customersChecked(), report.driftCount(), report.repaired(), report.millis());
+        report.drifts().stream().limit(LOGGED_DRIFTS).forEach(d -> log.warn(
+                "Drift {} {}: reserved {} expected {} ({})", d.customerId(), d.assetName(), d.actualReserved(),
+                d.expectedReserved(), d.repair()));
+    }
+
+    private List<Check> checkAll(List<Scope> scopes) {
+        if (scopes.size() <= 1) {
+            return scopes.stream().map(this::check).toList();
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> scopes.parallelStream().map(this::check).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Reserved amounts and pending orders of one scope, compared per (customer, asset). */
+    private Check check(Scope scope) {
+        return router.onShard(scope.shard(), () -> {
+            Map<Key, BigDecimal> actual = new LinkedHashMap<>();
+            Map<Key, BigDecimal> expected = new HashMap<>();
+            Set<UUID> customers = new HashSet<>();
+            jdbc.query(RESERVED_SQL.formatted(scope.predicate()), rs -> {
+                UUID customerId = rs.getObject("customer_id", UUID.class);
+                customers.add(customerId);
+                actual.put(new Key(customerId, instruments.symbolOf(rs.getInt("instrument_id"))), rs.getBigDecimal("reserved"));
+            }, scope.args());
+            jdbc.query(PENDING_SQL.formatted(instruments.idOf(TRY), scope.predicate()), rs -> {
+                UUID customerId = rs.getObject("customer_id", UUID.class);
+                customers.add(customerId);
+                expected.put(new Key(customerId, instruments.symbolOf(rs.getInt("reserved_instrument"))),
+                        rs.getBigDecimal("reserved"));
+            }, scope.args());
+
+            List<Drift> drifts = new ArrayList<>();
+            Set<Key> keys = new HashSet<>(actual.keySet());
+            keys.addAll(expected.keySet());
+            for (Key key : keys) {
+                BigDecimal a = actual.getOrDefault(key, BigDecimal.ZERO);
+                BigDecimal e = expected.getOrDefault(key, BigDecimal.ZERO);
+                if (a.compareTo(e) != 0) {
+                    drifts.add(new Drift(key.customerId(), key.assetName(), e, a, Drift.Repair.NONE));
+                }
+            }
+            return new Check(scope.shard(), customers.size(), drifts);
+        });
+    }
+
+    private List<Scope> rangeScopes() {
+        List<Scope> scopes = new ArrayList<>();
+        List<UUID[]> bounds = partitionBounds(partitions);
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            for (UUID[] b : bounds) {
+                scopes.add(new Scope(shard, "customer_id between ? and ?", new Object[] { b[0], b[1] }));
+            }
+        }
+        return scopes;
+    }
+
+    private List<Scope> changedScopes(Instant since) {
+        OffsetDateTime from = since.atOffset(ZoneOffset.UTC);
+        List<Scope> scopes = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            List<UUID> changed = router.onShard(shard,
+                    () -> jdbc.queryForList(CHANGED_SQL, UUID.class, from, UuidV7Generator.lowerBound(since)));
+            scopes.addAll(batches(shard, changed));
+        }
+        return scopes;
+    }
+
+    private static List<Scope> batches(int shard, List<UUID> ids) {
+        List<Scope> scopes = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            List<UUID> batch = ids.subList(i, Math.min(ids.size(), i + BATCH_SIZE));
+            String predicate = "customer_id in (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")";
+            scopes.add(new Scope(shard, predicate, batch.toArray()));
+        }
+        return scopes;
+    }
+
+    /**
+     * Inclusive {@code [lo, hi]} customer id ranges that together cover the whole UUID space,
+     * split evenly on the most significant 64 bits. The database orders UUIDs as unsigned
+     * numbers, so the ranges are built and compared the same way.
+     */
+    static List<UUID[]> partitionBounds(int partitions) {
+        long step = Long.divideUnsigned(-1L, partitions);
+        List<UUID[]> bounds = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            long lo = i * step;
+            long hi = i == partitions - 1 ? -1L : (i + 1) * step - 1;
+            bounds.add(new UUID[] { new UUID(lo, 0L), new UUID(hi, -1L) });
+        }
+        return bounds;
+    }
+
+    private record Scope(int shard, String predicate, Object[] args) {}
+
+    private record Key(UUID customerId, String assetName) {}
+
+    private record Check(int shard, int customers, List<Drift> drifts) {}
+}
@@ -0,0 +1,22 @@
+package com.fintech.brokerage.reconcile;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Outcome of one reconciliation run. {@code drifts} holds at most
+ * {@code app.reconcile.max-reported-drifts} entries; {@code driftCount} is the full number.
+ */
+@JsonPropertyOrder({ "mode", "startedAt", "millis", "customersChecked", "driftCount", "repaired", "drifts" })
+public record ReconciliationReport(Mode mode, Instant startedAt, long millis, long customersChecked, int driftCount,
+                                   int repaired, List<Drift> drifts) {
+
+    public enum Mode {
+        /** Every customer, by customer id range partitions. */
+        FULL,
+        /** Customers whose assets changed since the previous run. */
+        INCREMENTAL
+    }
+}
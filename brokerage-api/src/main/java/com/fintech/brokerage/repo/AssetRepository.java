@@ -3,11 +3,40 @@ package com.fintech.brokerage.repo;
 import java.util.*;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.fintech.brokerage.entity.Asset;
 import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.ledger.Balance;
+
+import jakarta.persistence.LockModeType;
 
 public interface AssetRepository extends JpaRepository<Asset, UUID> {
     public Optional<Asset> findByCustomerIdAndAssetName(Customer customerId, String assetName);
     public List<Asset> findAllByCustomerId(Customer customerId);
-}
\ No newline at end of file
+
+    /**
+     * Takes the row lock of the snapshot without changing it. Every check-then-debit of a
+     * usable balance holds it, and so does compaction while it folds movements into the row,
+     * so the balance read after it stays valid until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Asset a where a.customerId = :customer and a.assetName = :assetName")
+    Optional<Asset> lockByCustomerIdAndAssetName(@Param("customer") Customer customer,
+                                                 @Param("assetName") String assetName);
+
+    @Query("""
+        select new com.fintech.brokerage.ledger.Balance(a.id, a.customerId.id, a.assetName,
+               a.size + coalesce((select sum(m.sizeDelta) from BalanceMovement m
+                                   where m.customerId = a.customerId and m.assetName = a.assetName
+                                     and m.compacted = false), 0),
+               a.usableSize + coalesce((select sum(m.usableDelta) from BalanceMovement m
+                                         where m.customerId = a.customerId and m.assetName = a.assetName
+                                           and m.compacted = false), 0))
+          from Asset a
+         where a.customerId = :customer and (:assetName is null or a.assetName = :assetName)
+    """)
+    List<Balance> findBalances(@Param("customer") Customer customer, @Param("assetName") String assetName);
+}
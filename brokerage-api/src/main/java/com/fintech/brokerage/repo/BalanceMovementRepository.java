@@ -0,0 +1,9 @@
+package com.fintech.brokerage.repo;
+
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.fintech.brokerage.entity.BalanceMovement;
+
+public interface BalanceMovementRepository extends JpaRepository<BalanceMovement, UUID> {
+}
@@ -0,0 +1,12 @@
+package com.fintech.brokerage.repo;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.fintech.brokerage.entity.CashPosting;
+import com.fintech.brokerage.entity.Customer;
+
+public interface CashPostingRepository extends JpaRepository<CashPosting, UUID> {
+    public Optional<CashPosting> findByCustomerIdAndIdempotencyKey(Customer customerId, String idempotencyKey);
+}
@@ -3,13 +3,19 @@ package com.fintech.brokerage.repo;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.security.CustomerPrincipal;
+
 import java.util.List;
 
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
    
 	Optional<Customer> findByUsername(String username);
+
+	@Query("select new com.fintech.brokerage.security.CustomerPrincipal(c.id, c.username, c.role, c.enabled) from Customer c")
+	List<CustomerPrincipal> findAllPrincipals();
     
 }
\ No newline at end of file
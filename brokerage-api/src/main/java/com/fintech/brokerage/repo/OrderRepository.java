@@ -8,6 +8,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +25,8 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     Page<Order> findByCustomerId(Customer customer, Pageable pageable);
 
+    List<Order> findByCustomerIdAndStatus(Customer customer, OrderStatus status);
+
     /**
      * Atomically flip PENDING -> CANCELED. Returns 1 if we won the race, else 0.
      */
@@ -47,6 +50,25 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
            and o.status = com.fintech.brokerage.enums.OrderStatus.PENDING
     """)
     int matchIfPending(@Param("orderId") UUID orderId);
+
+    /**
+     * Atomically replace size and price of a PENDING order, provided they still hold the
+     * expected values. Returns 1 if we won the race, else 0.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+        update Order o
+           set o.size = :size, o.price = :price
+         where o.id = :orderId
+           and o.status = com.fintech.brokerage.enums.OrderStatus.PENDING
+           and o.size = :expectedSize
+           and o.price = :expectedPrice
+    """)
+    int amendIfPending(@Param("orderId") UUID orderId,
+                       @Param("expectedSize") BigDecimal expectedSize,
+                       @Param("expectedPrice") BigDecimal expectedPrice,
+                       @Param("size") BigDecimal size,
+                       @Param("price") BigDecimal price);
     
     @Query("""
             select o from Order o
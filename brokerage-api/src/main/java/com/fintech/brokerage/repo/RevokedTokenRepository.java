@@ -0,0 +1,23 @@
+package com.fintech.brokerage.repo;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fintech.brokerage.entity.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+	List<RevokedToken> findAllByExpiresAtAfter(Instant now);
+
+	@Transactional
+	@Modifying
+	@Query("delete from RevokedToken r where r.expiresAt <= :now")
+	int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,11 @@
+package com.fintech.brokerage.security;
+
+import java.util.UUID;
+
+import com.fintech.brokerage.enums.Role;
+
+/**
+ * Immutable authentication view of a customer: only what the request path needs.
+ */
+public record CustomerPrincipal(UUID customerId, String username, Role role, boolean enabled) {
+}
@@ -1,8 +1,11 @@
 package com.fintech.brokerage.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,31 +13,42 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.service.JwtService;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
-    private final String secret;
-    private final CustomerRepository customerRepo;
-
-    public JwtAuthFilter(@Value("${app.jwt.secret}") String secret, CustomerRepository customerRepo) {
-        this.secret = secret;
-        this.customerRepo = customerRepo;
+    private final JwtParser parser;
+    private final PrincipalDirectory directory;
+    private final VerifiedTokenCache tokenCache;
+
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthFilter(@Value("${app.jwt.secret}") String secret, PrincipalDirectory directory,
+                         VerifiedTokenCache tokenCache, MeterRegistry registry) {
+        // Key and parser are immutable and thread-safe, build them once instead of per request.
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.directory = directory;
+        this.tokenCache = tokenCache;
+
+        this.cachedTimer = verifyTimer("cached", registry);
+        this.verifiedTimer = verifyTimer("verified", registry);
+        this.rejectedTimer = verifyTimer("rejected", registry);
     }
 
     @Override
@@ -43,46 +57,66 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String auth = request.getHeader("Authorization");
 
         if (auth != null && auth.startsWith("Bearer ")) {
+            long start = System.nanoTime();
             String token = auth.substring(7);
-            try {
-                SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
-                Claims claims = Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseSignedClaims(token)
-                        .getPayload();
-
-                String username = claims.getSubject();
-                String customerId = claims.get("customerId", String.class);
-                String role = claims.get("role", String.class); 
-
-                if (username != null && customerId != null && customerRepo.findByUsername(username).isPresent()) {
-                    // Rol yoksa default USER
-                    String effectiveRole = (role != null) ? role : "USER";
-
-                    List<GrantedAuthority> auths = List.of(new SimpleGrantedAuthority("ROLE_" + effectiveRole));
+            Authentication a = tokenCache.get(token);
+            // A cached authentication is only reused while the customer has not changed since.
+            if (a instanceof JwtAuthentication cached && !directory.isCurrent(cached.getCustomer())) {
+                a = null;
+            }
+            Timer timer = cachedTimer;
+            if (a == null) {
+                a = verify(token);
+                timer = a != null ? verifiedTimer : rejectedTimer;
+            }
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (a != null) {
+                SecurityContextHolder.getContext().setAuthentication(a);
+            }
+        }
 
-                    Map<String, Object> details = new HashMap<>();
-                    details.put("customerId", customerId);
-                    details.put("role", effectiveRole);
+        filterChain.doFilter(request, response);
+    }
 
-                    Authentication a = new AbstractAuthenticationToken(auths) {
-                        @Override public Object getCredentials() { return token; }
-                        @Override public Object getPrincipal() { return username; }
-                    };
+    /**
+     * Full verification path: HMAC check, claim parsing and principal lookup. A successful
+     * result is cached until the token expires.
+     */
+    private Authentication verify(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (JwtService.TOKEN_USE_REFRESH.equals(claims.get(JwtService.TOKEN_USE_CLAIM, String.class))) {
+                log.warn("Refresh token presented as access token");
+                return null;
+            }
 
-                    ((AbstractAuthenticationToken) a).setDetails(details);
-                    ((AbstractAuthenticationToken) a).setAuthenticated(true);
+            String username = claims.getSubject();
+            String customerId = claims.get("customerId", String.class);
+            if (username == null || customerId == null) {
+                return null;
+            }
 
-                    SecurityContextHolder.getContext().setAuthentication(a);
-                }
-            } catch (Exception e) {
-                log.warn("Invalid JWT: {}", e.getMessage());
+            // Role and enabled flag come from the directory so changes apply to live tokens.
+            CustomerPrincipal principal = directory.findByUsername(username).orElse(null);
+            if (principal == null || !principal.enabled()
+                    || !principal.customerId().toString().equals(customerId)) {
+                log.warn("JWT rejected for username: {}", username);
+                return null;
             }
-        }
 
-        filterChain.doFilter(request, response);
+            JwtAuthentication a = new JwtAuthentication(principal);
+            Date exp = claims.getExpiration();
+            tokenCache.put(token, a, exp != null ? exp.toInstant() : null);
+            return a;
+        } catch (Exception e) {
+            log.warn("Invalid JWT: {}", e.getMessage());
+        }
+        return null;
     }
 
+    private static Timer verifyTimer(String result, MeterRegistry registry) {
+        return Timer.builder("auth.jwt.verify").tag("result", result)
+                .description("Bearer token authentication, from cache or full verification")
+                .publishPercentileHistogram().register(registry);
+    }
 }
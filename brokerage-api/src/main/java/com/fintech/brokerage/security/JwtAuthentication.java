@@ -0,0 +1,40 @@
+package com.fintech.brokerage.security;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Authentication built from a verified access token. Instances are shared between requests
+ * through {@link VerifiedTokenCache}, so everything exposed here is immutable. The token itself
+ * is not kept: the cache is keyed by its digest, and nothing needs it once it is verified.
+ */
+public class JwtAuthentication extends AbstractAuthenticationToken {
+
+    private static final long serialVersionUID = 4127053129744431262L;
+
+    private final transient CustomerPrincipal customer;
+
+    public JwtAuthentication(CustomerPrincipal customer) {
+        super(List.of(new SimpleGrantedAuthority("ROLE_" + customer.role().name())));
+        this.customer = customer;
+        setDetails(Map.of("customerId", customer.customerId().toString(), "role", customer.role().name()));
+        setAuthenticated(true);
+    }
+
+    public CustomerPrincipal getCustomer() {
+        return customer;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return customer.username();
+    }
+}
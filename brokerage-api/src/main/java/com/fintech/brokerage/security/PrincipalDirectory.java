@@ -0,0 +1,142 @@
+package com.fintech.brokerage.security;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.event.CustomerChangedEvent;
+import com.fintech.brokerage.repo.CustomerRepository;
+
+/**
+ * In-memory directory of customer principals used on the request path instead of a
+ * customer lookup per call.
+ * <p>
+ * Optionally preloaded at startup, read-through on a miss (rows written outside JPA, e.g. by
+ * bulk loads) and kept current by {@link CustomerChangedEvent}s after the writing
+ * transaction commits.
+ * <p>
+ * A read-through that finds nothing is remembered for {@code missing-ttl-ms}, so tokens of
+ * deleted or unknown customers do not query the database on every request. Change events
+ * clear such entries at once; the ttl only covers rows that appear without an event here.
+ */
+@Component
+public class PrincipalDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalDirectory.class);
+
+    private final CustomerRepository customerRepo;
+    private final ConcurrentHashMap<String, CustomerPrincipal> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CustomerPrincipal> byId = new ConcurrentHashMap<>();
+    /** Usernames and ids without a customer, until the given epoch millis. */
+    private final ConcurrentHashMap<Object, Long> missing = new ConcurrentHashMap<>();
+    private final long missingTtlMillis;
+    private final int maxMissing;
+
+    public PrincipalDirectory(CustomerRepository customerRepo,
+                              @Value("${app.security.principal-directory.preload:true}") boolean preload,
+                              @Value("${app.security.principal-directory.missing-ttl-ms:60000}") long missingTtlMillis,
+                              @Value("${app.security.principal-directory.missing-max-entries:10000}") int maxMissing) {
+        this.customerRepo = customerRepo;
+        this.missingTtlMillis = missingTtlMillis;
+        this.maxMissing = maxMissing;
+        if (preload) {
+            reload();
+        }
+    }
+
+    /**
+     * Replaces the directory content with the current state of the customer table.
+     */
+    public void reload() {
+        byUsername.clear();
+        byId.clear();
+        missing.clear();
+        customerRepo.findAllPrincipals().forEach(this::store);
+        log.info("PrincipalDirectory loaded {} customers", byId.size());
+    }
+
+    public Optional<CustomerPrincipal> findByUsername(String username) {
+        CustomerPrincipal p = byUsername.get(username);
+        if (p == null && !isMissing(username)) {
+            p = customerRepo.findByUsername(username).map(this::store).orElse(null);
+            if (p == null) {
+                rememberMissing(username);
+            }
+        }
+        return Optional.ofNullable(p);
+    }
+
+    public Optional<CustomerPrincipal> findById(UUID customerId) {
+        CustomerPrincipal p = byId.get(customerId);
+        if (p == null && !isMissing(customerId)) {
+            p = customerRepo.findById(customerId).map(this::store).orElse(null);
+            if (p == null) {
+                rememberMissing(customerId);
+            }
+        }
+        return Optional.ofNullable(p);
+    }
+
+    /**
+     * True when {@code p} is still the latest known state of its customer. Cheap identity
+     * check used to validate cached authentications.
+     */
+    public boolean isCurrent(CustomerPrincipal p) {
+        return byUsername.get(p.username()) == p;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent e) {
+        if (e.type() == CustomerChangedEvent.ChangeType.DELETED) {
+            byUsername.remove(e.username());
+            byId.remove(e.customerId());
+            rememberMissing(e.username());
+            rememberMissing(e.customerId());
+        } else {
+            store(new CustomerPrincipal(e.customerId(), e.username(), e.role(), e.enabled()));
+        }
+        log.debug("PrincipalDirectory {} customer {}", e.type(), e.username());
+    }
+
+    private CustomerPrincipal store(Customer c) {
+        return store(new CustomerPrincipal(c.getId(), c.getUsername(), c.getRole(), c.isEnabled()));
+    }
+
+    private CustomerPrincipal store(CustomerPrincipal p) {
+        byUsername.put(p.username(), p);
+        byId.put(p.customerId(), p);
+        missing.remove(p.username());
+        missing.remove(p.customerId());
+        return p;
+    }
+
+    private boolean isMissing(Object key) {
+        Long until = missing.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() < until) {
+            return true;
+        }
+        missing.remove(key, until);
+        return false;
+    }
+
+    private void rememberMissing(Object key) {
+        if (missingTtlMillis <= 0) {
+            return;
+        }
+        if (missing.size() >= maxMissing) {
+            // bounded against floods of made-up names; dropping them only costs a query each
+            missing.clear();
+        }
+        missing.put(key, System.currentTimeMillis() + missingTtlMillis);
+    }
+}
@@ -0,0 +1,117 @@
+package com.fintech.brokerage.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already verified JWTs.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the raw token and hold an authentication without
+ * credentials, so the token itself is never kept. They expire together with the token's
+ * {@code exp} claim. A hit replaces signature verification and claim parsing with a digest and
+ * a hash lookup.
+ * <p>
+ * A full cache drops expired tokens first and otherwise evicts arbitrary entries, so new
+ * clients are still admitted; an evicted token is simply verified again on its next request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    /** A full cache scans for expired tokens at most this often; it evicts arbitrary ones in between. */
+    private static final long PURGE_INTERVAL_MILLIS = 1_000;
+
+    private final ConcurrentHashMap<Digest, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private volatile long lastPurgeMillis;
+
+    public VerifiedTokenCache(@Value("${app.jwt.cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        log.info("VerifiedTokenCache initialized with maxEntries: {}", maxEntries);
+    }
+
+    /**
+     * Returns the cached authentication for the token, or {@code null} if it is unknown or expired.
+     */
+    public Authentication get(String token) {
+        Digest key = digest(token);
+        Entry e = entries.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= e.expiresAtMillis()) {
+            entries.remove(key, e);
+            return null;
+        }
+        return e.authentication();
+    }
+
+    /**
+     * Caches a verified token until {@code expiresAt}, making room first when the cache is full.
+     */
+    public void put(String token, Authentication authentication, Instant expiresAt) {
+        if (maxEntries <= 0 || expiresAt == null) {
+            return;
+        }
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest(token), new Entry(authentication, expiresAtMillis));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMillis >= PURGE_INTERVAL_MILLIS) {
+            lastPurgeMillis = now;
+            entries.values().removeIf(e -> now >= e.expiresAtMillis());
+        }
+        // keys are digests, so iteration order is as good as random
+        Iterator<Digest> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static Digest digest(String token) {
+        MessageDigest md = SHA256.get();
+        ByteBuffer b = ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new Digest(b.getLong(), b.getLong(), b.getLong(), b.getLong());
+    }
+
+    private record Digest(long a, long b, long c, long d) {}
+
+    private record Entry(Authentication authentication, long expiresAtMillis) {}
+}
@@ -0,0 +1,149 @@
+package com.fintech.brokerage.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient based concurrency limit: compares the recent average latency (short RTT) with a
+ * slowly moving baseline (long RTT) and scales the limit by their ratio.
+ * <pre>
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * While latency stays at the baseline the {@code sqrt(limit)} headroom lets the limit grow;
+ * once requests start to queue in the database the gradient drops below 1 and the limit
+ * shrinks until latency recovers. Excess requests are rejected up front instead of waiting.
+ * <p>
+ * Samples are accumulated lock-free; the limit is recomputed once per window by whichever
+ * thread closes it.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Current window, written by every completing request.
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private volatile long windowStartNanos;
+
+    // Only touched by the thread holding the update flag.
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private double estimatedLimit;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos,
+                                      int minWindowSamples, double rttTolerance, double smoothing, long nowNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (rttTolerance < 1.0 || smoothing <= 0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("Require rttTolerance >= 1 and 0 < smoothing <= 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = minWindowSamples;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.windowStartNanos = nowNanos;
+    }
+
+    /**
+     * Takes a slot, or returns {@code false} when the limit is reached. Every successful call
+     * must be paired with {@link #release(long, long)} or {@link #releaseWithoutSample()}.
+     */
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        windowMaxInFlight.accumulateAndGet(current, Math::max);
+        return true;
+    }
+
+    /**
+     * Frees the slot and records the request latency.
+     */
+    public void release(long rttNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        if (nowNanos - windowStartNanos >= windowNanos && windowSamples.sum() >= minWindowSamples) {
+            closeWindow(nowNanos);
+        }
+    }
+
+    /**
+     * Frees the slot without contributing a sample, e.g. for requests that failed before doing
+     * any real work.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void closeWindow(long nowNanos) {
+        if (!updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (nowNanos - windowStartNanos < windowNanos) {
+                return; // another thread closed it first
+            }
+            long samples = windowSamples.sumThenReset();
+            long rttSum = windowRttSum.sumThenReset();
+            int maxInFlight = windowMaxInFlight.getAndSet(0);
+            windowStartNanos = nowNanos;
+            if (samples == 0) {
+                return;
+            }
+            update((double) rttSum / samples, maxInFlight);
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt = longRtt * 0.95 + shortRtt * 0.05;
+        }
+        // After a sustained slowdown the baseline itself has drifted up; pull it back faster
+        // so the limit can recover once latency returns to normal.
+        if (longRtt / shortRtt > 2.0) {
+            longRtt *= 0.95;
+        }
+
+        // Not enough demand to tell whether a higher limit would help.
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
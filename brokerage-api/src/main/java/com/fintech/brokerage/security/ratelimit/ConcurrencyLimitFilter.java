@@ -0,0 +1,112 @@
+package com.fintech.brokerage.security.ratelimit;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.brokerage.exception.handler.GlobalExceptionHandler.ErrorResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Global adaptive concurrency limit on the order-mutating endpoints. Requests above the
+ * current limit get 503 immediately instead of queueing for a database that is already slow.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, MeterRegistry registry,
+                                  @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${app.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${app.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${app.concurrency-limit.window-ms:1000}") long windowMs,
+                                  @Value("${app.concurrency-limit.min-window-samples:10}") int minWindowSamples,
+                                  @Value("${app.concurrency-limit.rtt-tolerance:1.5}") double rttTolerance,
+                                  @Value("${app.concurrency-limit.smoothing:0.2}") double smoothing) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                TimeUnit.MILLISECONDS.toNanos(windowMs), minWindowSamples, rttTolerance, smoothing, System.nanoTime());
+
+        this.rejected = Counter.builder("concurrency.rejected")
+                .description("Write requests shed by the adaptive concurrency limit").register(registry);
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+
+        log.info("ConcurrencyLimitFilter initialized: enabled={}, limit={} [{}..{}], window={}ms",
+                enabled, initialLimit, minLimit, maxLimit, windowMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !isOrderMutation(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            log.warn("Concurrency limit {} reached, shedding {} {}", limiter.getLimit(), request.getMethod(),
+                    request.getRequestURI());
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed) {
+                long end = System.nanoTime();
+                limiter.release(end - start, end);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of("overloaded",
+                "Server is busy, retry later", "uri=" + request.getRequestURI(), HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    /** POST /api/orders, DELETE and PATCH /api/orders/{id} and POST /api/admin/orders/{id}/match. */
+    private static boolean isOrderMutation(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (request.getMethod()) {
+            case "POST" -> path.equals("/api/orders")
+                    || (path.startsWith("/api/admin/orders/") && path.endsWith("/match"));
+            case "DELETE", "PATCH" -> path.startsWith("/api/orders/");
+            default -> false;
+        };
+    }
+}
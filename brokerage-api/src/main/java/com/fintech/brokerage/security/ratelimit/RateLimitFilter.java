@@ -0,0 +1,177 @@
+package com.fintech.brokerage.security.ratelimit;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.brokerage.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import com.fintech.brokerage.security.JwtAuthentication;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-customer, per-endpoint token buckets in front of the order write endpoints. Runs right
+ * after {@code JwtAuthFilter}, keyed by the {@code customerId} of the JWT details; requests
+ * without a JWT authentication are left to the authorization rules.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final String ORDERS_PATH = "/api/orders";
+
+    enum Endpoint {
+        CREATE_ORDER, CANCEL_ORDER, AMEND_ORDER
+    }
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Map<Endpoint, Limit> limits = new EnumMap<>(Endpoint.class);
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry registry,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.create-order.capacity:20}") int createCapacity,
+                           @Value("${app.rate-limit.create-order.refill-per-second:10}") int createRefill,
+                           @Value("${app.rate-limit.cancel-order.capacity:20}") int cancelCapacity,
+                           @Value("${app.rate-limit.cancel-order.refill-per-second:10}") int cancelRefill,
+                           @Value("${app.rate-limit.amend-order.capacity:20}") int amendCapacity,
+                           @Value("${app.rate-limit.amend-order.refill-per-second:10}") int amendRefill) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        limits.put(Endpoint.CREATE_ORDER, new Limit(Endpoint.CREATE_ORDER, createCapacity, createRefill, registry));
+        limits.put(Endpoint.CANCEL_ORDER, new Limit(Endpoint.CANCEL_ORDER, cancelCapacity, cancelRefill, registry));
+        limits.put(Endpoint.AMEND_ORDER, new Limit(Endpoint.AMEND_ORDER, amendCapacity, amendRefill, registry));
+        log.info("RateLimitFilter initialized: enabled={}, createOrder={}/{}s, cancelOrder={}/{}s, amendOrder={}/{}s",
+                enabled, createCapacity, createRefill, cancelCapacity, cancelRefill, amendCapacity, amendRefill);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || endpointOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String customerId = customerIdOf(SecurityContextHolder.getContext().getAuthentication());
+        if (customerId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Limit limit = limits.get(endpointOf(request));
+        long result = limit.bucket(customerId).tryAcquire(System.currentTimeMillis());
+        response.setIntHeader(LIMIT_HEADER, limit.capacity);
+
+        if (result >= 0) {
+            response.setIntHeader(REMAINING_HEADER, (int) result);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        limit.rejected.increment();
+        long retryAfterSeconds = Math.max(1, (-result + 999) / 1000);
+        log.warn("Rate limit exceeded on {} for customerId: {}", limit.endpoint, customerId);
+        reject(request, response, retryAfterSeconds);
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they are recreated full on the next request,
+     * so this only bounds memory to recently active customers.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.currentTimeMillis();
+        limits.values().forEach(l -> l.buckets.values().removeIf(b -> b.isFull(now)));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setIntHeader(REMAINING_HEADER, 0);
+        response.setHeader(RESET_HEADER, String.valueOf(retryAfterSeconds));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of("too_many_requests",
+                "Rate limit exceeded, retry later", "uri=" + request.getRequestURI(), HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    private static Endpoint endpointOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if ("POST".equals(method) && ORDERS_PATH.equals(path)) {
+            return Endpoint.CREATE_ORDER;
+        }
+        if (path.startsWith(ORDERS_PATH + "/") && path.indexOf('/', ORDERS_PATH.length() + 1) < 0) {
+            if ("DELETE".equals(method)) {
+                return Endpoint.CANCEL_ORDER;
+            }
+            if ("PATCH".equals(method)) {
+                return Endpoint.AMEND_ORDER;
+            }
+        }
+        return null;
+    }
+
+    private static String customerIdOf(Authentication a) {
+        if (a instanceof JwtAuthentication && a.getDetails() instanceof Map<?, ?> details
+                && details.get("customerId") instanceof String id) {
+            return id;
+        }
+        return null;
+    }
+
+    private static final class Limit {
+        final Endpoint endpoint;
+        final int capacity;
+        final int refillPerSecond;
+        final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        final Counter rejected;
+
+        Limit(Endpoint endpoint, int capacity, int refillPerSecond, MeterRegistry registry) {
+            // Validates the configuration at startup rather than on the first request.
+            new TokenBucket(capacity, refillPerSecond, System.currentTimeMillis());
+            this.endpoint = endpoint;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            String tag = endpoint.name().toLowerCase();
+            this.rejected = Counter.builder("ratelimit.rejected").tag("endpoint", tag)
+                    .description("Requests rejected by the per-customer rate limit").register(registry);
+            Gauge.builder("ratelimit.buckets", buckets, Map::size).tag("endpoint", tag).register(registry);
+        }
+
+        TokenBucket bucket(String customerId) {
+            TokenBucket b = buckets.get(customerId);
+            if (b == null) {
+                b = buckets.computeIfAbsent(customerId,
+                        k -> new TokenBucket(capacity, refillPerSecond, System.currentTimeMillis()));
+            }
+            return b;
+        }
+    }
+}
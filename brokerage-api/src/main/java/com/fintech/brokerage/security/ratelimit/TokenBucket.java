@@ -0,0 +1,85 @@
+package com.fintech.brokerage.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket whose whole state lives in one {@code long}, updated with CAS:
+ * <pre>
+ *   [ 40 bits: last refill, ms since {@link #EPOCH_BASE_MILLIS} ][ 24 bits: milli-tokens ]
+ * </pre>
+ * Refill is integer arithmetic in milli-tokens ({@code elapsedMs * tokensPerSecond}), so no
+ * fraction is lost between calls and {@link #tryAcquire(long)} allocates nothing.
+ */
+public final class TokenBucket {
+
+    /** 2024-01-01T00:00:00Z; 40 bits of milliseconds from here last for ~34 years. */
+    static final long EPOCH_BASE_MILLIS = 1_704_067_200_000L;
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000;
+
+    /** Largest capacity that fits in the token field. */
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / ONE_TOKEN);
+
+    private final AtomicLong state;
+    private final long capacityMilli;
+    private final long refillPerSecond;
+
+    public TokenBucket(int capacity, int refillPerSecond, long nowMillis) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (refillPerSecond < 1) {
+            throw new IllegalArgumentException("refillPerSecond must be >= 1");
+        }
+        this.capacityMilli = capacity * ONE_TOKEN;
+        this.refillPerSecond = refillPerSecond;
+        this.state = new AtomicLong(pack(nowMillis, capacityMilli));
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return the whole tokens left ({@code >= 0}) when allowed, or the negated number of
+     *         milliseconds until the next token becomes available when rejected
+     */
+    public long tryAcquire(long nowMillis) {
+        for (;;) {
+            long s = state.get();
+            long tokens = available(s, nowMillis);
+            if (tokens < ONE_TOKEN) {
+                long missing = ONE_TOKEN - tokens;
+                return -((missing + refillPerSecond - 1) / refillPerSecond);
+            }
+            long next = pack(Math.max(nowMillis, lastRefill(s)), tokens - ONE_TOKEN);
+            if (state.compareAndSet(s, next)) {
+                return (tokens - ONE_TOKEN) / ONE_TOKEN;
+            }
+        }
+    }
+
+    /** True once the bucket has refilled completely, i.e. it carries no state worth keeping. */
+    public boolean isFull(long nowMillis) {
+        return available(state.get(), nowMillis) >= capacityMilli;
+    }
+
+    private long available(long s, long nowMillis) {
+        long elapsed = nowMillis - lastRefill(s);
+        long tokens = s & TOKEN_MASK;
+        if (elapsed <= 0) {
+            return tokens;
+        }
+        // Cap elapsed first so the multiplication cannot overflow after a long idle period.
+        long fillTime = capacityMilli / refillPerSecond + 1;
+        return Math.min(capacityMilli, tokens + Math.min(elapsed, fillTime) * refillPerSecond);
+    }
+
+    private static long lastRefill(long s) {
+        return (s >>> TOKEN_BITS) + EPOCH_BASE_MILLIS;
+    }
+
+    private static long pack(long millis, long milliTokens) {
+        return ((millis - EPOCH_BASE_MILLIS) << TOKEN_BITS) | milliTokens;
+    }
+}
@@ -5,10 +5,11 @@ import java.util.Optional;
 import java.util.UUID;
 import com.fintech.brokerage.entity.Asset;
 import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.ledger.Balance;
 
 public interface AssetService {
 
-	public List<Asset> listAssets(UUID customerId);
+	public List<Balance> listAssets(UUID customerId);
 	public Asset getOrCreateAsset(Customer customer, String assetName);
 	public Asset createOrUpdateAsset(Asset asset);
 	public Optional<Asset> findByCustomerIdAndAssetName(Customer customerId, String assetName);
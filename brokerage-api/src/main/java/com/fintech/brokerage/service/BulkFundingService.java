@@ -0,0 +1,28 @@
+package com.fintech.brokerage.service;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+public interface BulkFundingService {
+
+	/**
+	 * Applies a file of TRY postings, one {@code customerId,amount} per line, where a negative
+	 * amount is a withdrawal. Postings of one customer are netted and applied at once; unknown
+	 * customers, and net withdrawals the usable balance does not cover, are rejected. Running
+	 * the same file again under the same idempotency key skips the customers it already funded.
+	 */
+	public Result fund(Reader postings, String idempotencyKey);
+
+	/**
+	 * {@code rejectedCustomers} holds at most {@code app.cash.bulk.max-reported-rejections}
+	 * entries; {@code rejected} is the full number.
+	 */
+	@JsonPropertyOrder({ "postings", "customers", "applied", "alreadyApplied", "rejected", "netAmount", "millis",
+			"rejectedCustomers" })
+	public record Result(long postings, int customers, int applied, int alreadyApplied, int rejected,
+						 BigDecimal netAmount, long millis, List<UUID> rejectedCustomers) {}
+}
@@ -0,0 +1,24 @@
+package com.fintech.brokerage.service;
+
+import java.math.BigDecimal;
+
+import com.fintech.brokerage.entity.CashPosting;
+import com.fintech.brokerage.entity.Customer;
+
+public interface CashService {
+
+	/**
+	 * Credits {@code amount} TRY to the customer. A repeated call with the same idempotency key
+	 * returns the first posting without crediting again.
+	 */
+	public Result deposit(Customer customer, BigDecimal amount, String idempotencyKey);
+
+	/**
+	 * Debits {@code amount} TRY from the customer's usable balance, which has to cover it. A
+	 * rejected withdrawal is not recorded, so it can be retried with the same key.
+	 */
+	public Result withdraw(Customer customer, BigDecimal amount, String idempotencyKey);
+
+	/** {@code replayed} is set when the key had already been used for this posting. */
+	public record Result(CashPosting posting, boolean replayed) {}
+}
@@ -7,5 +7,6 @@ import com.fintech.brokerage.entity.Customer;
 public interface CustomerService {
 
 	public Optional<Customer> findById(UUID id);
+	public Customer getReference(UUID id);
 	public Iterable<Customer> listAll();
 }
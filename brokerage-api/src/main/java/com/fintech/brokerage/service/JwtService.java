@@ -1,9 +1,25 @@
 package com.fintech.brokerage.service;
 
+import java.time.Instant;
 import java.util.UUID;
 import com.fintech.brokerage.enums.Role;
 
 public interface JwtService {
 
+	/** Claim that marks refresh tokens so they are never accepted as access tokens. */
+	public static final String TOKEN_USE_CLAIM = "token_use";
+	public static final String TOKEN_USE_REFRESH = "refresh";
+
 	public String issueToken(UUID customerId, String username, Role role);
+
+	public String issueRefreshToken(RefreshClaims claims);
+
+	/**
+	 * Verifies signature, expiry and token use of a refresh token.
+	 *
+	 * @throws io.jsonwebtoken.JwtException if the token is not a valid refresh token
+	 */
+	public RefreshClaims parseRefreshToken(String token);
+
+	public record RefreshClaims(UUID tokenId, UUID familyId, UUID customerId, String username, Instant expiresAt) {}
 }
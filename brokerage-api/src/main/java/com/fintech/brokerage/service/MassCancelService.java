@@ -0,0 +1,17 @@
+package com.fintech.brokerage.service;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+public interface MassCancelService {
+
+	/**
+	 * Cancels every PENDING order of {@code customerId}, of {@code assetName}, or of both when
+	 * both are given, and releases their reservations. At least one of them is required.
+	 */
+	public Result cancelPending(UUID customerId, String assetName);
+
+	@JsonPropertyOrder({ "customerId", "assetName", "canceledOrders", "refundedBalances", "millis" })
+	public record Result(UUID customerId, String assetName, long canceledOrders, long refundedBalances, long millis) {}
+}
@@ -17,6 +17,7 @@ public interface OrderService {
 
 	public Order create(Customer customer, String assetName, OrderSide side, BigDecimal size, BigDecimal price);
 	public void cancel(UUID orderId);
+	public Order amend(Customer customer, UUID orderId, BigDecimal size, BigDecimal price);
 	public void match(UUID orderId);
 	public List<Order> list(Customer customer, Instant from, Instant to, OrderStatus status, String assetName);
 	public Page<Order> list(Customer customer, Instant from, Instant to, OrderStatus status, String assetName,
@@ -0,0 +1,17 @@
+package com.fintech.brokerage.service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.fintech.brokerage.entity.Customer;
+
+public interface PasswordVerificationService {
+
+	/**
+	 * Verifies the credentials off the request thread. Completes with the customer when the
+	 * password matches, or empty otherwise. Throws
+	 * {@link com.fintech.brokerage.exception.TooManyRequestsException} right away when the
+	 * verification pool is saturated.
+	 */
+	public CompletableFuture<Optional<Customer>> verify(String username, String rawPassword);
+}
@@ -0,0 +1,20 @@
+package com.fintech.brokerage.service;
+
+import com.fintech.brokerage.entity.Customer;
+
+public interface RefreshTokenService {
+
+	/** Starts a new token family for a freshly authenticated customer. */
+	public IssuedTokens issue(Customer customer);
+
+	/**
+	 * Exchanges a refresh token for a new access token and a new refresh token of the same
+	 * family. The presented token is revoked; presenting it again revokes the whole family.
+	 */
+	public IssuedTokens refresh(String refreshToken);
+
+	/** Revokes the family of the given refresh token (logout). */
+	public void revoke(String refreshToken);
+
+	public record IssuedTokens(String accessToken, String refreshToken) {}
+}
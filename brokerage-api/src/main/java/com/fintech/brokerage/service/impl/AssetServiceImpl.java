@@ -9,43 +9,51 @@ import org.springframework.stereotype.Service;
 
 import com.fintech.brokerage.entity.Asset;
 import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.ledger.BalanceLedger;
 import com.fintech.brokerage.repo.AssetRepository;
 import com.fintech.brokerage.repo.CustomerRepository;
 import com.fintech.brokerage.service.AssetService;
-
-import jakarta.persistence.EntityNotFoundException;
+import com.fintech.brokerage.shard.ShardRouted;
 
 @Service
 public class AssetServiceImpl implements AssetService {
 
 	private final AssetRepository assetRepo;
 	private final CustomerRepository customerRepo;
+	private final BalanceLedger ledger;
 
-	public AssetServiceImpl(AssetRepository assetRepo, CustomerRepository customerRepo) {
+	public AssetServiceImpl(AssetRepository assetRepo, CustomerRepository customerRepo, BalanceLedger ledger) {
 		this.assetRepo = assetRepo;
 		this.customerRepo = customerRepo;
+		this.ledger = ledger;
 	}
 
+	/**
+	 * Existence of the customer is checked by the caller, so only a reference is needed here.
+	 * The balances include movements that are not compacted into the asset rows yet.
+	 */
 	@Override
-	public List<Asset> listAssets(UUID customerId) {
-		Customer customer = customerRepo.findById(customerId)
-				.orElseThrow(() -> new EntityNotFoundException("Customer not found with id: " + customerId));
-
-		return assetRepo.findAllByCustomerId(customer);
+	@ShardRouted
+	public List<Balance> listAssets(UUID customerId) {
+		return ledger.balances(customerRepo.getReferenceById(customerId));
 	}
 
 	@Override
+	@ShardRouted
 	public Asset getOrCreateAsset(Customer customer, String assetName) {
 		return assetRepo.findByCustomerIdAndAssetName(customer, assetName)
 				.orElseGet(() -> assetRepo.save(new Asset(customer, assetName, BigDecimal.ZERO, BigDecimal.ZERO)));
 	}
 
 	@Override
+	@ShardRouted
 	public Asset createOrUpdateAsset(Asset asset) {
 		return assetRepo.save(asset);		
 	}
 
 	@Override
+	@ShardRouted
 	public Optional<Asset> findByCustomerIdAndAssetName(Customer customer, String assetName) {
 		return assetRepo.findByCustomerIdAndAssetName(customer, assetName);
 	}
@@ -0,0 +1,352 @@
+package com.fintech.brokerage.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.enums.PostingType;
+import com.fintech.brokerage.event.AccountsChangedEvent;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.service.BulkFundingService;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Nets a funding file to one delta per customer and applies the deltas in JDBC batches, one
+ * transaction per batch.
+ * <p>
+ * Each delta is a single conditional {@code update asset}, so a batch costs one round trip
+ * rather than a read and a write per posting, and it never overwrites a concurrent order
+ * reservation. Customers without a TRY row get one inserted, once the shard's copy of the
+ * customer table confirms they exist; the others need no such lookup, as their balance row's
+ * foreign key already vouches for them. Each applied customer gets a {@code cash_posting} row
+ * under the run's idempotency key, committed with its balance: a rerun skips exactly those
+ * customers, and the unique (customer, key) index rolls back a batch that a concurrent run of
+ * the same key has already applied. Each posting is also recorded as a balance movement, marked
+ * as compacted because the row already holds it, so the ledger stays a complete history of the
+ * balance. Short transactions keep a payroll run from holding row locks on every account it
+ * funds until the end.
+ * <p>
+ * Withdrawals lock their rows before the batch, like any other debit of the balance ledger:
+ * the check then sees every committed reservation, and none can slip in before the update.
+ */
+@Service
+public class BulkFundingServiceImpl implements BulkFundingService {
+    private static final Logger log = LoggerFactory.getLogger(BulkFundingServiceImpl.class);
+
+    private static final String TRY = AssetType.TRY.getSymbol();
+    private static final int MONEY_SCALE = 4;
+    private static final int MAX_KEY_LENGTH = 64;
+    // keeps bulk keys apart from the keys of single deposits and withdrawals
+    private static final String KEY_PREFIX = "bulk:";
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private static final String FUNDED_SQL = "select customer_id from cash_posting where idempotency_key = ?";
+    // the usable balance includes ledger movements not compacted into the row yet
+    private static final String ADJUST_SQL = """
+            update asset
+               set size = size + ?, usable_size = usable_size + ?, version = version + 1, updated_at = ?
+             where customer_id = ? and instrument_id = ?
+               and usable_size + ? + coalesce((select sum(m.usable_delta) from balance_movement m
+                                                where m.customer_id = asset.customer_id
+                                                  and m.instrument_id = asset.instrument_id
+                                                  and m.compacted = false), 0) >= 0
+            """;
+    private static final String INSERT_ASSET_SQL = """
+            insert into asset (id, customer_id, instrument_id, size, usable_size, version, updated_at)
+            values (?, ?, ?, ?, ?, 0, ?)
+            """;
+    private static final String INSERT_POSTING_SQL = """
+            insert into cash_posting (id, customer_id, idempotency_key, type, amount, created_at)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+    // already part of the snapshot updated above, so written as compacted
+    private static final String INSERT_MOVEMENT_SQL = """
+            insert into balance_movement (id, customer_id, instrument_id, size_delta, usable_delta, reason,
+                                          reference_id, compacted, created_at)
+            values (?, ?, ?, ?, ?, ?, ?, true, ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ShardRouter router;
+    private final InstrumentRegistry instruments;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+    private final int maxPostings;
+    private final int maxReportedRejections;
+
+    private final Counter appliedCustomers;
+    private final Counter rejectedCustomers;
+
+    public BulkFundingServiceImpl(JdbcTemplate jdbc, ShardRouter router, InstrumentRegistry instruments,
+                                  PlatformTransactionManager txManager, ApplicationEventPublisher publisher,
+                                  MeterRegistry registry,
+                                  @Value("${app.cash.bulk.batch-size:5000}") int batchSize,
+                                  @Value("${app.cash.bulk.max-postings:1000000}") int maxPostings,
+                                  @Value("${app.cash.bulk.max-reported-rejections:100}") int maxReportedRejections) {
+        this.jdbc = jdbc;
+        this.router = router;
+        this.instruments = instruments;
+        this.tx = new TransactionTemplate(txManager);
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.maxPostings = maxPostings;
+        this.maxReportedRejections = maxReportedRejections;
+
+        this.appliedCustomers = Counter.builder("cash.bulk.customers").tag("result", "applied")
+                .description("Customers of bulk funding runs by outcome").register(registry);
+        this.rejectedCustomers = Counter.builder("cash.bulk.customers").tag("result", "rejected")
+                .description("Customers of bulk funding runs by outcome").register(registry);
+    }
+
+    private record Delta(UUID customerId, BigDecimal amount) {}
+
+    private record ShardResult(int applied, int alreadyApplied, List<UUID> rejected, BigDecimal net) {}
+
+    /**
+     * The whole file is parsed before anything is applied. Batches then commit one by one, so
+     * a failed run may have funded part of the file, and rerunning it with the same key
+     * completes the rest.
+     */
+    @Override
+    public Result fund(Reader postings, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key of 1 to " + MAX_KEY_LENGTH + " characters is required");
+        }
+        String key = KEY_PREFIX + idempotencyKey;
+        long started = System.nanoTime();
+
+        Map<UUID, BigDecimal> deltas = new HashMap<>();
+        long lines = parse(postings, deltas);
+
+        Map<Integer, List<Delta>> byShard = new HashMap<>();
+        deltas.forEach((customer, amount) -> {
+            if (amount.signum() != 0) {
+                byShard.computeIfAbsent(router.shardOf(customer), s -> new ArrayList<>())
+                        .add(new Delta(customer, amount));
+            }
+        });
+
+        int applied = 0;
+        int alreadyApplied = 0;
+        List<UUID> rejected = new ArrayList<>();
+        BigDecimal net = BigDecimal.ZERO;
+        for (Map.Entry<Integer, List<Delta>> e : byShard.entrySet()) {
+            List<Delta> shardDeltas = e.getValue();
+            // one lock order for every run, so two runs over the same customers cannot deadlock
+            shardDeltas.sort((a, b) -> a.customerId().compareTo(b.customerId()));
+            ShardResult r = router.onShard(e.getKey(), () -> fundShard(shardDeltas, key));
+            applied += r.applied();
+            alreadyApplied += r.alreadyApplied();
+            rejected.addAll(r.rejected());
+            net = net.add(r.net());
+        }
+
+        appliedCustomers.increment(applied);
+        rejectedCustomers.increment(rejected.size());
+        Result result = new Result(lines, deltas.size(), applied, alreadyApplied, rejected.size(), net,
+                Duration.ofNanos(System.nanoTime() - started).toMillis(),
+                List.copyOf(rejected.subList(0, Math.min(rejected.size(), maxReportedRejections))));
+        log.info("Bulk funding {}: {} postings, {} customers, {} applied, {} already applied, {} rejected, net {} in {} ms",
+                idempotencyKey, lines, deltas.size(), applied, alreadyApplied, rejected.size(), net, result.millis());
+        return result;
+    }
+
+    /**
+     * Sums the amounts per customer into {@code deltas} and returns the number of postings. A
+     * header line starting with {@code customerId}, blank lines and {@code #} comments are
+     * skipped.
+     */
+    long parse(Reader in, Map<UUID, BigDecimal> deltas) {
+        BufferedReader reader = in instanceof BufferedReader b ? b : new BufferedReader(in, 1 << 16);
+        long postings = 0;
+        long lineNo = 0;
+        try {
+            for (String line; (line = reader.readLine()) != null; ) {
+                lineNo++;
+                String s = line.strip();
+                if (s.isEmpty() || s.startsWith("#")) {
+                    continue;
+                }
+                int comma = s.indexOf(',');
+                if (comma < 0 || s.indexOf(',', comma + 1) >= 0) {
+                    throw badLine(lineNo, "expected customerId,amount");
+                }
+                String id = s.substring(0, comma).strip();
+                if (postings == 0 && id.equalsIgnoreCase("customerId")) {
+                    continue;
+                }
+                UUID customer = parseId(id, lineNo);
+                BigDecimal amount = parseAmount(s.substring(comma + 1).strip(), lineNo);
+                if (++postings > maxPostings) {
+                    throw new IllegalArgumentException("More than " + maxPostings + " postings in one file");
+                }
+                deltas.merge(customer, amount, BigDecimal::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (postings == 0) {
+            throw new IllegalArgumentException("No postings in the file");
+        }
+        return postings;
+    }
+
+    private static UUID parseId(String text, long lineNo) {
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            throw badLine(lineNo, "invalid customer id");
+        }
+    }
+
+    private static BigDecimal parseAmount(String text, long lineNo) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw badLine(lineNo, "invalid amount");
+        }
+        if (amount.signum() == 0) {
+            throw badLine(lineNo, "amount must not be 0");
+        }
+        if (amount.stripTrailingZeros().scale() > MONEY_SCALE) {
+            throw badLine(lineNo, "amount has more than " + MONEY_SCALE + " decimal places");
+        }
+        return amount;
+    }
+
+    private static IllegalArgumentException badLine(long lineNo, String problem) {
+        return new IllegalArgumentException("Line " + lineNo + ": " + problem);
+    }
+
+    /** Reads the customer table of the current shard, which is a copy everywhere but on shard 0. */
+    private Set<UUID> knownCustomers(List<Delta> deltas) {
+        Set<UUID> known = new HashSet<>();
+        for (int from = 0; from < deltas.size(); from += LOOKUP_CHUNK) {
+            List<Delta> chunk = deltas.subList(from, Math.min(deltas.size(), from + LOOKUP_CHUNK));
+            String sql = "select id from customer where id in ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            known.addAll(jdbc.queryForList(sql, UUID.class, chunk.stream().map(Delta::customerId).toArray()));
+        }
+        return known;
+    }
+
+    private void lockWithdrawals(List<Delta> batch, int tryId) {
+        List<Delta> debits = batch.stream().filter(d -> d.amount().signum() < 0).toList();
+        for (int from = 0; from < debits.size(); from += LOOKUP_CHUNK) {
+            List<Delta> chunk = debits.subList(from, Math.min(debits.size(), from + LOOKUP_CHUNK));
+            String sql = "select id from asset where instrument_id = ? and customer_id in ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ") for update";
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(tryId);
+            chunk.forEach(d -> args.add(d.customerId()));
+            jdbc.queryForList(sql, UUID.class, args.toArray());
+        }
+    }
+
+    private ShardResult fundShard(List<Delta> deltas, String key) {
+        Set<UUID> funded = new HashSet<>(jdbc.queryForList(FUNDED_SQL, UUID.class, key));
+        List<Delta> todo = deltas.stream().filter(d -> !funded.contains(d.customerId())).toList();
+
+        int applied = 0;
+        List<UUID> rejected = new ArrayList<>();
+        BigDecimal net = BigDecimal.ZERO;
+        for (int from = 0; from < todo.size(); from += batchSize) {
+            List<Delta> batch = todo.subList(from, Math.min(todo.size(), from + batchSize));
+            ShardResult r = tx.execute(status -> fundBatch(batch, key));
+            applied += r.applied();
+            rejected.addAll(r.rejected());
+            net = net.add(r.net());
+        }
+        return new ShardResult(applied, deltas.size() - todo.size(), rejected, net);
+    }
+
+    private ShardResult fundBatch(List<Delta> batch, String key) {
+        int tryId = instruments.idOf(TRY);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        lockWithdrawals(batch, tryId);
+
+        int[] updated = jdbc.batchUpdate(ADJUST_SQL, batch.stream()
+                .map(d -> new Object[] { d.amount(), d.amount(), now, d.customerId(), tryId, d.amount() })
+                .toList());
+        List<Delta> applied = new ArrayList<>(batch.size());
+        List<Delta> missing = new ArrayList<>();
+        List<UUID> rejected = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            Delta d = batch.get(i);
+            if (updated[i] > 0) {
+                applied.add(d);
+            } else if (d.amount().signum() > 0) {
+                missing.add(d);
+            } else {
+                rejected.add(d.customerId()); // no balance, or not enough of it
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Set<UUID> known = knownCustomers(missing);
+            List<Delta> created = new ArrayList<>(missing.size());
+            for (Delta d : missing) {
+                if (known.contains(d.customerId())) {
+                    created.add(d);
+                } else {
+                    rejected.add(d.customerId()); // no such customer
+                }
+            }
+            jdbc.batchUpdate(INSERT_ASSET_SQL, created.stream().map(d -> new Object[] { UuidV7Generator.next(),
+                    d.customerId(), tryId, d.amount(), d.amount(), now }).toList());
+            applied.addAll(created);
+        }
+        if (applied.isEmpty()) {
+            return new ShardResult(0, 0, rejected, BigDecimal.ZERO);
+        }
+
+        List<Object[]> postings = new ArrayList<>(applied.size());
+        List<Object[]> movements = new ArrayList<>(applied.size());
+        for (Delta d : applied) {
+            UUID postingId = UuidV7Generator.next();
+            boolean deposit = d.amount().signum() > 0;
+            postings.add(new Object[] { postingId, d.customerId(), key,
+                    (deposit ? PostingType.DEPOSIT : PostingType.WITHDRAWAL).name(), d.amount().abs(), now });
+            movements.add(new Object[] { UuidV7Generator.next(), d.customerId(), tryId, d.amount(), d.amount(),
+                    (deposit ? MovementReason.DEPOSIT : MovementReason.WITHDRAWAL).name(), postingId, now });
+        }
+        jdbc.batchUpdate(INSERT_POSTING_SQL, postings);
+        jdbc.batchUpdate(INSERT_MOVEMENT_SQL, movements);
+
+        Set<UUID> changed = new HashSet<>();
+        applied.forEach(d -> changed.add(d.customerId()));
+        publisher.publishEvent(new AccountsChangedEvent(changed));
+        BigDecimal net = applied.stream().map(Delta::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new ShardResult(applied.size(), 0, rejected, net);
+    }
+}
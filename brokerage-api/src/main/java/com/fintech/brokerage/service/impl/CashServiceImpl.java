@@ -0,0 +1,112 @@
+package com.fintech.brokerage.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fintech.brokerage.entity.CashPosting;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.enums.PostingType;
+import com.fintech.brokerage.exception.InsufficientBalanceException;
+import com.fintech.brokerage.ledger.BalanceLedger;
+import com.fintech.brokerage.repo.CashPostingRepository;
+import com.fintech.brokerage.service.CashService;
+import com.fintech.brokerage.shard.ShardRouted;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The posting row is inserted first: its unique (customer, key) index makes a concurrent
+ * request with the same key fail there, before any balance is touched. The balance then moves
+ * by a ledger movement: a deposit is a plain insert that waits for nothing, a withdrawal locks
+ * the TRY balance for its check like an order reservation does.
+ */
+@Service
+public class CashServiceImpl implements CashService {
+    private static final Logger log = LoggerFactory.getLogger(CashServiceImpl.class);
+
+    private static final String TRY = AssetType.TRY.getSymbol();
+    private static final int MONEY_SCALE = 4;
+
+    private final CashPostingRepository postingRepo;
+    private final BalanceLedger ledger;
+
+    private final Counter deposits;
+    private final Counter withdrawals;
+    private final Counter insufficient;
+
+    public CashServiceImpl(CashPostingRepository postingRepo, BalanceLedger ledger, MeterRegistry registry) {
+        this.postingRepo = postingRepo;
+        this.ledger = ledger;
+
+        this.deposits = Counter.builder("cash.postings").tag("type", "deposit")
+                .description("Deposits and withdrawals applied through the API").register(registry);
+        this.withdrawals = Counter.builder("cash.postings").tag("type", "withdrawal")
+                .description("Deposits and withdrawals applied through the API").register(registry);
+        this.insufficient = Counter.builder("cash.withdrawals.rejected")
+                .description("Withdrawals rejected because the usable balance did not cover them").register(registry);
+    }
+
+    @Override
+    @Transactional
+    @ShardRouted
+    public Result deposit(Customer customer, BigDecimal amount, String idempotencyKey) {
+        return post(customer, PostingType.DEPOSIT, amount, idempotencyKey);
+    }
+
+    @Override
+    @Transactional
+    @ShardRouted
+    public Result withdraw(Customer customer, BigDecimal amount, String idempotencyKey) {
+        return post(customer, PostingType.WITHDRAWAL, amount, idempotencyKey);
+    }
+
+    private Result post(Customer customer, PostingType type, BigDecimal amount, String key) {
+        validate(amount, key);
+
+        Optional<CashPosting> previous = postingRepo.findByCustomerIdAndIdempotencyKey(customer, key);
+        if (previous.isPresent()) {
+            CashPosting p = previous.get();
+            if (p.getType() != type || p.getAmount().compareTo(amount) != 0) {
+                throw new IllegalStateException("Idempotency key was already used for a different posting");
+            }
+            log.info("Replaying {} {} of customer {} for key {}", type, amount, customer.getId(), key);
+            return new Result(p, true);
+        }
+
+        CashPosting posting = postingRepo.saveAndFlush(new CashPosting(customer, key, type, amount));
+
+        if (type == PostingType.DEPOSIT) {
+            ledger.record(customer, TRY, amount, amount, MovementReason.DEPOSIT, posting.getId());
+        } else {
+            if (ledger.lockBalance(customer, TRY).usableSize().compareTo(amount) < 0) {
+                insufficient.increment();
+                throw new InsufficientBalanceException("Insufficient TRY usable balance");
+            }
+            ledger.record(customer, TRY, amount.negate(), amount.negate(), MovementReason.WITHDRAWAL, posting.getId());
+        }
+
+        (type == PostingType.DEPOSIT ? deposits : withdrawals).increment();
+        log.info("Applied {} of {} TRY for customer {}", type, amount, customer.getId());
+        return new Result(posting, false);
+    }
+
+    private static void validate(BigDecimal amount, String key) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Idempotency key is required");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+        if (amount.stripTrailingZeros().scale() > MONEY_SCALE) {
+            throw new IllegalArgumentException("Amount must have at most " + MONEY_SCALE + " decimal places");
+        }
+    }
+}
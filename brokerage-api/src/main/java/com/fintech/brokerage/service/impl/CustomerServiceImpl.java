@@ -21,6 +21,16 @@ public class CustomerServiceImpl implements CustomerService{
     public Optional<Customer> findById(UUID id) {
         return customerRepo.findById(id);
     }
+
+    /**
+     * Returns a lazy reference without hitting the database. Callers are expected to have
+     * checked that the customer exists.
+     */
+    @Override
+    public Customer getReference(UUID id) {
+        return customerRepo.getReferenceById(id);
+    }
+
     @Override
     public Iterable<Customer> listAll() {
         return customerRepo.findAll();
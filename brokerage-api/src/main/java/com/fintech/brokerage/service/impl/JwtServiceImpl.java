@@ -15,7 +15,9 @@ import org.springframework.stereotype.Service;
 import com.fintech.brokerage.enums.Role;
 import com.fintech.brokerage.service.JwtService;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -25,6 +27,7 @@ public class JwtServiceImpl implements JwtService{
     private static final Logger log = LoggerFactory.getLogger(JwtServiceImpl.class);
 
     private final SecretKey key;
+    private final JwtParser parser;
     private final long ttlSeconds;
 
     public JwtServiceImpl(@Value("${app.jwt.secret}") String secret,
@@ -32,6 +35,7 @@ public class JwtServiceImpl implements JwtService{
         
     	// Secret key should be 256 bit length at least.
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
         this.ttlSeconds = ttlSeconds;
         
         log.info("JwtService initialized with TTL: {} seconds", ttlSeconds);
@@ -57,4 +61,36 @@ public class JwtServiceImpl implements JwtService{
             throw e;
         }
     }
+
+    @Override
+    public String issueRefreshToken(RefreshClaims claims) {
+        return Jwts.builder()
+                .id(claims.tokenId().toString())
+                .subject(claims.username())
+                .claim("customerId", claims.customerId().toString())
+                .claim("fam", claims.familyId().toString())
+                .claim(TOKEN_USE_CLAIM, TOKEN_USE_REFRESH)
+                .issuedAt(new Date())
+                .expiration(Date.from(claims.expiresAt()))
+                .signWith(key, Jwts.SIG.HS256)
+                .compact();
+    }
+
+    @Override
+    public RefreshClaims parseRefreshToken(String token) {
+        Claims c = parser.parseSignedClaims(token).getPayload();
+        if (!TOKEN_USE_REFRESH.equals(c.get(TOKEN_USE_CLAIM, String.class))) {
+            throw new JwtException("Not a refresh token");
+        }
+        try {
+            return new RefreshClaims(
+                    UUID.fromString(c.getId()),
+                    UUID.fromString(c.get("fam", String.class)),
+                    UUID.fromString(c.get("customerId", String.class)),
+                    c.getSubject(),
+                    c.getExpiration().toInstant());
+        } catch (RuntimeException e) {
+            throw new JwtException("Malformed refresh token", e);
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package com.fintech.brokerage.service.impl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.event.AccountChangedEvent;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.service.MassCancelService;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cancels all matching PENDING orders of a shard with one statement and refunds them with one
+ * balance movement per (customer, asset).
+ * <p>
+ * The status flip and the refund amounts come from the same statement: H2's
+ * {@code FINAL TABLE (UPDATE ...)} returns exactly the rows the update changed, which are
+ * summed per customer and reserved asset right there. An order canceled or matched by someone
+ * else in the meantime is not in that set, so nothing is refunded twice. The refunds are
+ * credits, so they are inserted without locking the balances they go to.
+ */
+@Service
+public class MassCancelServiceImpl implements MassCancelService {
+    private static final Logger log = LoggerFactory.getLogger(MassCancelServiceImpl.class);
+
+    private static final String TRY = AssetType.TRY.getSymbol();
+
+    // same reservation amounts as OrderServiceImpl: rounded TRY notional for BUY, size for SELL
+    private static final String CANCEL_SQL = """
+            select customer_id,
+                   case when order_side = 'BUY' then %1$d else instrument_id end as reserved_instrument,
+                   sum(case when order_side = 'BUY' then round(price * size, 4) else size end) as refund,
+                   count(*) as orders
+              from final table (update orders set status = 'CANCELED' where status = 'PENDING' and %2$s)
+             group by customer_id, case when order_side = 'BUY' then %1$d else instrument_id end
+            """;
+    // inserts nothing if the balance row is missing, so every movement has a snapshot to compact into
+    private static final String REFUND_SQL = """
+            insert into balance_movement
+                   (id, customer_id, instrument_id, size_delta, usable_delta, reason, compacted, created_at)
+            select ?, customer_id, instrument_id, 0, ?, 'ORDER_CANCELED', false, ?
+              from asset
+             where customer_id = ? and instrument_id = ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ShardRouter router;
+    private final InstrumentRegistry instruments;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher publisher;
+    private final Counter canceled;
+
+    public MassCancelServiceImpl(JdbcTemplate jdbc, ShardRouter router, InstrumentRegistry instruments,
+                                 PlatformTransactionManager txManager,
+                                 ApplicationEventPublisher publisher, MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.router = router;
+        this.instruments = instruments;
+        this.tx = new TransactionTemplate(txManager);
+        this.publisher = publisher;
+        this.canceled = Counter.builder("orders.mass_canceled")
+                .description("Orders canceled by admin mass-cancel").register(registry);
+    }
+
+    private record Refund(UUID customerId, int instrumentId, BigDecimal amount, long orders) {}
+
+    private record ShardResult(long orders, long balances) {}
+
+    /**
+     * One transaction per shard: a customer's orders and assets live on a single shard, so each
+     * customer is canceled all-or-nothing, but an asset-wide cancel is not atomic across shards.
+     */
+    @Override
+    public Result cancelPending(UUID customerId, String assetName) {
+        String asset = (assetName == null || assetName.isBlank()) ? null : assetName.trim();
+        if (customerId == null && asset == null) {
+            throw new IllegalArgumentException("customerId or assetName is required");
+        }
+        long started = System.nanoTime();
+
+        List<Object> args = new ArrayList<>(2);
+        List<String> predicates = new ArrayList<>(2);
+        if (customerId != null) {
+            predicates.add("customer_id = ?");
+            args.add(customerId);
+        }
+        if (asset != null) {
+            predicates.add("instrument_id = ?");
+            args.add(instruments.idOf(asset));
+        }
+        String sql = CANCEL_SQL.formatted(instruments.idOf(TRY), String.join(" and ", predicates));
+
+        List<ShardResult> results = customerId != null
+                ? List.of(router.onCustomerShard(customerId, () -> cancelOnShard(sql, args.toArray())))
+                : router.onAllShards(() -> cancelOnShard(sql, args.toArray()));
+
+        long orders = results.stream().mapToLong(ShardResult::orders).sum();
+        long balances = results.stream().mapToLong(ShardResult::balances).sum();
+        canceled.increment(orders);
+        Result result = new Result(customerId, asset, orders, balances,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        log.info("Mass-canceled {} orders (customer={}, asset={}), {} balances refunded in {} ms",
+                orders, customerId, asset, balances, result.millis());
+        return result;
+    }
+
+    private ShardResult cancelOnShard(String sql, Object[] args) {
+        return tx.execute(status -> {
+            List<Refund> refunds = jdbc.query(sql, (rs, i) -> new Refund(rs.getObject("customer_id", UUID.class),
+                    rs.getInt("reserved_instrument"), rs.getBigDecimal("refund"), rs.getLong("orders")), args);
+            if (refunds.isEmpty()) {
+                return new ShardResult(0, 0);
+            }
+
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            int[] inserted = jdbc.batchUpdate(REFUND_SQL, refunds.stream()
+                    .map(r -> new Object[] { UuidV7Generator.next(), r.amount(), now, r.customerId(), r.instrumentId() })
+                    .toList());
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i] == 0) {
+                    // the reservation was taken from this row, so it has to exist
+                    Refund r = refunds.get(i);
+                    throw new IllegalStateException("No " + instruments.symbolOf(r.instrumentId()) + " balance of customer "
+                            + r.customerId() + " to refund " + r.amount() + " to");
+                }
+            }
+
+            Set<UUID> customers = new HashSet<>();
+            refunds.forEach(r -> customers.add(r.customerId()));
+            customers.forEach(c -> publisher.publishEvent(new AccountChangedEvent(c)));
+            return new ShardResult(refunds.stream().mapToLong(Refund::orders).sum(), refunds.size());
+        });
+    }
+}
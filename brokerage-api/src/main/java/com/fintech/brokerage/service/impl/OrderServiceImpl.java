@@ -1,6 +1,7 @@
 package com.fintech.brokerage.service.impl;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -11,39 +12,95 @@ import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fintech.brokerage.entity.Asset;
 import com.fintech.brokerage.entity.Customer;
 import com.fintech.brokerage.entity.Order;
 import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.MovementReason;
 import com.fintech.brokerage.enums.OrderSide;
 import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.event.AccountChangedEvent;
+import com.fintech.brokerage.exception.InsufficientBalanceException;
+import com.fintech.brokerage.exception.InvalidOrderException;
+import com.fintech.brokerage.exception.OrderStateException;
+import com.fintech.brokerage.exception.RejectedException;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.ledger.BalanceLedger;
 import com.fintech.brokerage.repo.OrderRepository;
-import com.fintech.brokerage.service.AssetService;
 import com.fintech.brokerage.service.OrderService;
+import com.fintech.brokerage.shard.ShardRouted;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
+/**
+ * Balances move through the {@link BalanceLedger}: every reservation, refund and settlement is
+ * an inserted movement. Only reservations lock the balance they check; refunds and
+ * settlements only add rows, so they never wait on or conflict with each other.
+ */
 @Service
 public class OrderServiceImpl implements OrderService {
     private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
 
     private final OrderRepository orderRepo;
-    private final AssetService assetService;
-
-    public OrderServiceImpl(OrderRepository orderRepo, AssetService assetService) {
+    private final BalanceLedger ledger;
+    private final ApplicationEventPublisher publisher;
+    private final InstrumentRegistry instruments;
+
+    private final Counter insufficientTry;
+    private final Counter insufficientAsset;
+    private final Counter cancelRaceLost;
+    private final Counter matchRaceLost;
+    private final Counter amendRaceLost;
+
+    public OrderServiceImpl(OrderRepository orderRepo, BalanceLedger ledger, ApplicationEventPublisher publisher,
+                            InstrumentRegistry instruments, MeterRegistry registry) {
         this.orderRepo = orderRepo;
-        this.assetService = assetService;
+        this.ledger = ledger;
+        this.publisher = publisher;
+        this.instruments = instruments;
+
+        this.insufficientTry = Counter.builder("orders.rejected.insufficient_balance").tag("side", "buy")
+                .description("Orders rejected because the usable balance did not cover them").register(registry);
+        this.insufficientAsset = Counter.builder("orders.rejected.insufficient_balance").tag("side", "sell")
+                .description("Orders rejected because the usable balance did not cover them").register(registry);
+        this.cancelRaceLost = Counter.builder("orders.transition.lost").tag("op", "cancel")
+                .description("Conditional PENDING transitions that found the order already moved").register(registry);
+        this.matchRaceLost = Counter.builder("orders.transition.lost").tag("op", "match")
+                .description("Conditional PENDING transitions that found the order already moved").register(registry);
+        this.amendRaceLost = Counter.builder("orders.transition.lost").tag("op", "amend")
+                .description("Conditional PENDING transitions that found the order already moved").register(registry);
     }
 
     private static final int MAX_RANGE_DAYS = 365;
     private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MONEY_SCALE = 4;
+    private static final String TRY = AssetType.TRY.getSymbol();
+
+    // rejections with a fixed message are stackless, so one instance each serves every request
+    private static final RejectedException INSUFFICIENT_TRY = new InsufficientBalanceException("Insufficient TRY usable balance");
+    private static final RejectedException INSUFFICIENT_ASSET = new InsufficientBalanceException("Insufficient asset usable size");
+    private static final RejectedException ASSET_REQUIRED = new InvalidOrderException("assetName is required");
+    private static final RejectedException SIDE_REQUIRED = new InvalidOrderException("side is required");
+    private static final RejectedException SIZE_INVALID = new InvalidOrderException("size must be > 0");
+    private static final RejectedException PRICE_INVALID = new InvalidOrderException("price must be > 0");
+    private static final RejectedException AMENDMENT_EMPTY = new InvalidOrderException("size or price is required");
+    private static final RejectedException NOT_CANCELABLE = new OrderStateException("Only PENDING orders can be canceled");
+    private static final RejectedException NOT_MATCHABLE = new OrderStateException("Only PENDING orders can be matched");
+    private static final RejectedException NOT_AMENDABLE = new OrderStateException("Only PENDING orders can be amended");
+    private static final RejectedException AMEND_RACE_LOST =
+            new OrderStateException("Order was changed concurrently, only PENDING orders can be amended");
 
     @Override
     @Transactional
+    @Timed(value = "orders.service", extraTags = { "op", "create" }, histogram = true)
+    @ShardRouted
     public Order create(Customer customer, String assetName, OrderSide side, BigDecimal size, BigDecimal price) {
         // --- Validate inputs early (defensive programming) ---
         validateNewOrder(assetName, side, size, price);
@@ -51,25 +108,28 @@ public class OrderServiceImpl implements OrderService {
         log.info("Creating order: customer={}, asset={}, side={}, size={}, price={}",
                  customer.getId(), assetName, side, size, price);
 
+        String reserved;
+        BigDecimal amount;
         if (side == OrderSide.BUY) {
-            BigDecimal totalCost = price.multiply(size); // consider global scale policy
-            Asset tryAsset = assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol());
-            ensureEnough(tryAsset.getUsableSize(), totalCost, "Insufficient TRY usable balance");
-            tryAsset.subFromUsable(totalCost);
-            assetService.createOrUpdateAsset(tryAsset);
+            reserved = TRY;
+            amount = notional(price, size);
+            ensureEnough(ledger.lockBalance(customer, TRY).usableSize(), amount, INSUFFICIENT_TRY, insufficientTry);
         } else {
-            Asset asset = assetService.getOrCreateAsset(customer, assetName);
-            ensureEnough(asset.getUsableSize(), size, "Insufficient asset usable size");
-            asset.subFromUsable(size);
-            assetService.createOrUpdateAsset(asset);
+            reserved = assetName;
+            amount = size;
+            ensureEnough(ledger.lockBalance(customer, assetName).usableSize(), amount, INSUFFICIENT_ASSET,
+                    insufficientAsset);
         }
 
-        Order order = new Order(customer, assetName, side, size, price, OrderStatus.PENDING);
-        return orderRepo.save(order);
+        Order order = orderRepo.save(new Order(customer, assetName, side, size, price, OrderStatus.PENDING));
+        ledger.record(customer, reserved, BigDecimal.ZERO, amount.negate(), MovementReason.ORDER_PLACED, order.getId());
+        return order;
     }
 
     @Override
     @Transactional
+    @Timed(value = "orders.service", extraTags = { "op", "cancel" }, histogram = true)
+    @ShardRouted(ShardRouted.Key.ORDER)
     public void cancel(UUID orderId) {
         Order o = orderRepo.findById(orderId)
                 .orElseThrow(() -> new NoSuchElementException("Order not found"));
@@ -79,19 +139,17 @@ public class OrderServiceImpl implements OrderService {
 
         if (changed == 1) {
             if (o.getOrderSide() == OrderSide.BUY) {
-                BigDecimal total = o.getPrice().multiply(o.getSize());
-                Asset tryAsset = assetService.getOrCreateAsset(o.getCustomerId(), AssetType.TRY.getSymbol());
-                tryAsset.addToUsable(total);
-                assetService.createOrUpdateAsset(tryAsset);
+                ledger.record(o.getCustomerId(), TRY, BigDecimal.ZERO, notional(o.getPrice(), o.getSize()),
+                        MovementReason.ORDER_CANCELED, orderId);
             } else {
-                Asset asset = assetService.getOrCreateAsset(o.getCustomerId(), o.getAssetName());
-                asset.addToUsable(o.getSize());
-                assetService.createOrUpdateAsset(asset);
+                ledger.record(o.getCustomerId(), o.getAssetName(), BigDecimal.ZERO, o.getSize(),
+                        MovementReason.ORDER_CANCELED, orderId);
             }
             log.info("Canceled order {}", orderId);
             return; // idempotent success
         }
 
+        cancelRaceLost.increment();
         OrderStatus cur = orderRepo.findById(orderId)
                 .map(Order::getStatus)
                 .orElseThrow(() -> new NoSuchElementException("Order not found"));
@@ -101,11 +159,71 @@ public class OrderServiceImpl implements OrderService {
             return; // safe no-op
         }
 
-        throw new IllegalStateException("Only PENDING orders can be canceled");
+        throw NOT_CANCELABLE;
     }
 
     @Override
     @Transactional
+    @Timed(value = "orders.service", extraTags = { "op", "amend" }, histogram = true)
+    @ShardRouted
+    public Order amend(Customer customer, UUID orderId, BigDecimal size, BigDecimal price) {
+        if (size == null && price == null) {
+            throw AMENDMENT_EMPTY;
+        }
+        if (size != null && size.signum() <= 0) {
+            throw SIZE_INVALID;
+        }
+        if (price != null && price.signum() <= 0) {
+            throw PRICE_INVALID;
+        }
+
+        Order o = orderRepo.findById(orderId)
+                .filter(found -> found.getCustomerId().getId().equals(customer.getId()))
+                .orElseThrow(() -> new NoSuchElementException("Order not found"));
+        if (o.getStatus() != OrderStatus.PENDING) {
+            throw NOT_AMENDABLE;
+        }
+        BigDecimal newSize = size == null ? o.getSize() : size;
+        BigDecimal newPrice = price == null ? o.getPrice() : price;
+
+        // Compare-and-set on the values the delta below is computed from; a concurrent
+        // cancel, match or amend in between turns this into 0 and nothing is reserved twice.
+        if (orderRepo.amendIfPending(orderId, o.getSize(), o.getPrice(), newSize, newPrice) == 0) {
+            amendRaceLost.increment();
+            throw AMEND_RACE_LOST;
+        }
+
+        // Only the difference to the current reservation moves; an unchanged reservation
+        // (e.g. a new price on a SELL) does not touch the asset at all.
+        if (o.getOrderSide() == OrderSide.BUY) {
+            BigDecimal delta = notional(newPrice, newSize).subtract(notional(o.getPrice(), o.getSize()));
+            reserveDelta(customer, TRY, delta, orderId, INSUFFICIENT_TRY, insufficientTry);
+        } else {
+            BigDecimal delta = newSize.subtract(o.getSize());
+            reserveDelta(customer, o.getAssetName(), delta, orderId, INSUFFICIENT_ASSET, insufficientAsset);
+        }
+        publisher.publishEvent(new AccountChangedEvent(customer.getId()));
+
+        log.info("Amended order {}: size {} -> {}, price {} -> {}", orderId, o.getSize(), newSize, o.getPrice(), newPrice);
+        o.applyAmendment(newSize, newPrice);
+        return o;
+    }
+
+    private void reserveDelta(Customer customer, String assetName, BigDecimal delta, UUID orderId,
+                              RejectedException rejection, Counter rejections) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        if (delta.signum() > 0) {
+            ensureEnough(ledger.lockBalance(customer, assetName).usableSize(), delta, rejection, rejections);
+        }
+        ledger.record(customer, assetName, BigDecimal.ZERO, delta.negate(), MovementReason.ORDER_AMENDED, orderId);
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = "orders.service", extraTags = { "op", "match" }, histogram = true)
+    @ShardRouted(ShardRouted.Key.ORDER)
     public void match(UUID orderId) {
         Order o = orderRepo.findById(orderId)
                 .orElseThrow(() -> new NoSuchElementException("Order not found"));
@@ -113,6 +231,7 @@ public class OrderServiceImpl implements OrderService {
         int changed = orderRepo.matchIfPending(orderId);
         if (changed == 0) {
             // Someone else canceled/matched already
+            matchRaceLost.increment();
             OrderStatus cur = orderRepo.findById(orderId)
                     .map(Order::getStatus)
                     .orElseThrow(() -> new NoSuchElementException("Order not found"));
@@ -121,32 +240,19 @@ public class OrderServiceImpl implements OrderService {
                 log.info("Match no-op; order {} already MATCHED", orderId);
                 return;
             }
-            throw new IllegalStateException("Only PENDING orders can be matched");
+            throw NOT_MATCHABLE;
         }
 
         Customer customer = o.getCustomerId();
+        BigDecimal total = notional(o.getPrice(), o.getSize());
+        MovementReason reason = MovementReason.ORDER_MATCHED;
         if (o.getOrderSide() == OrderSide.BUY) {
-            BigDecimal total = o.getPrice().multiply(o.getSize());
-
-            Asset tryAsset = assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol());
-            tryAsset.subFromTotal(total); // money leaves total TRY balance
-            assetService.createOrUpdateAsset(tryAsset);
-
-            Asset asset = assetService.getOrCreateAsset(customer, o.getAssetName());
-            asset.addToTotal(o.getSize());
-            asset.addToUsable(o.getSize()); // newly acquired shares are usable
-            assetService.createOrUpdateAsset(asset);
+            // the reserved money leaves the total; newly acquired shares are usable
+            ledger.record(customer, TRY, total.negate(), BigDecimal.ZERO, reason, orderId);
+            ledger.record(customer, o.getAssetName(), o.getSize(), o.getSize(), reason, orderId);
         } else {
-            BigDecimal total = o.getPrice().multiply(o.getSize());
-
-            Asset asset = assetService.getOrCreateAsset(customer, o.getAssetName());
-            asset.subFromTotal(o.getSize());
-            assetService.createOrUpdateAsset(asset);
-
-            Asset tryAsset = assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol());
-            tryAsset.addToTotal(total);
-            tryAsset.addToUsable(total);
-            assetService.createOrUpdateAsset(tryAsset);
+            ledger.record(customer, o.getAssetName(), o.getSize().negate(), BigDecimal.ZERO, reason, orderId);
+            ledger.record(customer, TRY, total, total, reason, orderId);
         }
 
         log.info("Matched order: customer={}, asset={}, side={}, size={}, price={}",
@@ -155,6 +261,8 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "orders.service", extraTags = { "op", "list" }, histogram = true)
+    @ShardRouted
     public List<Order> list(Customer customer,
                             Instant from,
                             Instant to,
@@ -180,12 +288,17 @@ public class OrderServiceImpl implements OrderService {
         }
 
         String safeAsset = (assetName == null || assetName.isBlank()) ? null : assetName.trim();
+        if (safeAsset != null && !instruments.isListed(safeAsset)) {
+            return List.of(); // nothing can have been ordered in an unknown symbol
+        }
 
         return orderRepo.search(customer, safeFrom, safeTo, status, safeAsset);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "orders.service", extraTags = { "op", "list_paged" }, histogram = true)
+    @ShardRouted
     public Page<Order> list(Customer customer,
                             Instant from,
                             Instant to,
@@ -197,6 +310,9 @@ public class OrderServiceImpl implements OrderService {
 
         Range r = normalizeRange(from, to);
         String safeAsset = normalizeAsset(assetName);
+        if (safeAsset != null && !instruments.isListed(safeAsset)) {
+            return Page.empty(pageable);
+        }
         return orderRepo.search(customer, r.from(), r.to(), status, safeAsset, pageable);
     }
 
@@ -224,25 +340,38 @@ public class OrderServiceImpl implements OrderService {
         return (assetName == null || assetName.isBlank()) ? null : assetName.trim();
     }
 
-    private static void ensureEnough(BigDecimal available, BigDecimal required, String msg) {
+    /**
+     * Order value in TRY, at the scale of the money columns so reservations and refunds of the
+     * same order always add up.
+     */
+    private static BigDecimal notional(BigDecimal price, BigDecimal size) {
+        return price.multiply(size).setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static void ensureEnough(BigDecimal available, BigDecimal required, RejectedException rejection,
+                                     Counter rejections) {
         if (available == null || required == null || available.compareTo(required) < 0) {
-            throw new IllegalStateException(msg);
+            rejections.increment();
+            throw rejection;
         }
     }
 
-    private static void validateNewOrder(String assetName, OrderSide side, BigDecimal size, BigDecimal price) {
+    private void validateNewOrder(String assetName, OrderSide side, BigDecimal size, BigDecimal price) {
         
         if (assetName == null || assetName.isBlank()) {
-            throw new IllegalArgumentException("assetName is required");
+            throw ASSET_REQUIRED;
+        }
+        if (!instruments.isListed(assetName)) {
+            throw new InvalidOrderException("Unknown asset: " + assetName);
         }
         if (side == null) {
-            throw new IllegalArgumentException("side is required");
+            throw SIDE_REQUIRED;
         }
         if (size == null || size.signum() <= 0) {
-            throw new IllegalArgumentException("size must be > 0");
+            throw SIZE_INVALID;
         }
         if (price == null || price.signum() <= 0) {
-            throw new IllegalArgumentException("price must be > 0");
+            throw PRICE_INVALID;
         }
     }
 }
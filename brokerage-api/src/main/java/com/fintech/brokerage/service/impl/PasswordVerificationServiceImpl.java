@@ -0,0 +1,128 @@
+package com.fintech.brokerage.service.impl;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.exception.TooManyRequestsException;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.service.PasswordVerificationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt verification on a dedicated, size-capped pool so a login storm cannot occupy
+ * every servlet thread. When both the workers and the queue are full, callers are rejected
+ * immediately instead of waiting.
+ */
+@Service
+public class PasswordVerificationServiceImpl implements PasswordVerificationService {
+
+	private static final Logger log = LoggerFactory.getLogger(PasswordVerificationServiceImpl.class);
+
+	private final CustomerRepository customerRepo;
+	private final PasswordEncoder encoder;
+	private final ThreadPoolExecutor executor;
+
+	private final Timer verifySuccess;
+	private final Timer verifyFailure;
+	private final Counter rejected;
+	private final Counter rehashed;
+
+	public PasswordVerificationServiceImpl(CustomerRepository customerRepo, PasswordEncoder encoder,
+			MeterRegistry registry,
+			@Value("${app.security.login-pool.threads:4}") int threads,
+			@Value("${app.security.login-pool.queue-capacity:100}") int queueCapacity) {
+		this.customerRepo = customerRepo;
+		this.encoder = encoder;
+
+		BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity)
+				: new SynchronousQueue<>();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+				namedDaemonThreads("bcrypt-"), new ThreadPoolExecutor.AbortPolicy());
+
+		this.verifySuccess = Timer.builder("auth.password.verify").tag("outcome", "success")
+				.publishPercentileHistogram().register(registry);
+		this.verifyFailure = Timer.builder("auth.password.verify").tag("outcome", "failure")
+				.publishPercentileHistogram().register(registry);
+		this.rejected = Counter.builder("auth.password.rejected")
+				.description("Logins rejected because the verification pool was saturated").register(registry);
+		this.rehashed = Counter.builder("auth.password.rehashed").register(registry);
+		Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+		Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+
+		log.info("Password verification pool initialized: threads={}, queueCapacity={}", threads, queueCapacity);
+	}
+
+	@Override
+	public CompletableFuture<Optional<Customer>> verify(String username, String rawPassword) {
+		try {
+			return CompletableFuture.supplyAsync(() -> doVerify(username, rawPassword), executor);
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			log.warn("Login rejected, verification pool saturated (queue={})", executor.getQueue().size());
+			throw new TooManyRequestsException("Too many concurrent logins, retry later", 1);
+		}
+	}
+
+	private Optional<Customer> doVerify(String username, String rawPassword) {
+		long start = System.nanoTime();
+		Optional<Customer> result = customerRepo.findByUsername(username)
+				.filter(c -> encoder.matches(rawPassword, c.getPasswordHash()));
+		(result.isPresent() ? verifySuccess : verifyFailure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		result.ifPresent(c -> rehashIfNeeded(c, rawPassword));
+		return result;
+	}
+
+	/**
+	 * Re-encodes the password with the configured cost factor when the stored hash is weaker.
+	 * Only possible here, right after a successful match, while the raw password is at hand.
+	 */
+	private void rehashIfNeeded(Customer c, String rawPassword) {
+		if (!encoder.upgradeEncoding(c.getPasswordHash())) {
+			return;
+		}
+		try {
+			c.setPasswordHash(encoder.encode(rawPassword));
+			customerRepo.save(c);
+			rehashed.increment();
+			log.info("Password hash upgraded for username: {}", c.getUsername());
+		} catch (RuntimeException e) {
+			// The login itself succeeded; the upgrade is retried on the next one.
+			log.warn("Password hash upgrade failed for username: {}", c.getUsername(), e);
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdown();
+	}
+
+	private static ThreadFactory namedDaemonThreads(String prefix) {
+		AtomicInteger seq = new AtomicInteger();
+		return r -> {
+			Thread t = new Thread(r, prefix + seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		};
+	}
+}
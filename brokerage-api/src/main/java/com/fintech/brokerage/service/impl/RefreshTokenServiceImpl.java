@@ -0,0 +1,130 @@
+package com.fintech.brokerage.service.impl;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.RevokedToken;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.exception.InvalidTokenException;
+import com.fintech.brokerage.repo.RevokedTokenRepository;
+import com.fintech.brokerage.security.CustomerPrincipal;
+import com.fintech.brokerage.security.PrincipalDirectory;
+import com.fintech.brokerage.service.JwtService;
+import com.fintech.brokerage.service.JwtService.RefreshClaims;
+import com.fintech.brokerage.service.RefreshTokenService;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Rotating refresh tokens. Tokens are self-contained signed JWTs, so the only server-side
+ * state is the set of revoked token and family ids: kept in memory for the hot path and
+ * written through to {@code revoked_token} so revocations survive a restart.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+	private static final Logger log = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+	private final JwtService jwt;
+	private final RevokedTokenRepository revokedRepo;
+	private final PrincipalDirectory directory;
+	private final long refreshTtlSeconds;
+
+	/** Revoked id (token or family) -> epoch millis after which it can be forgotten. */
+	private final ConcurrentHashMap<UUID, Long> revoked = new ConcurrentHashMap<>();
+
+	public RefreshTokenServiceImpl(JwtService jwt, RevokedTokenRepository revokedRepo, PrincipalDirectory directory,
+			@Value("${app.jwt.refresh-ttl-seconds:604800}") long refreshTtlSeconds) {
+		this.jwt = jwt;
+		this.revokedRepo = revokedRepo;
+		this.directory = directory;
+		this.refreshTtlSeconds = refreshTtlSeconds;
+
+		revokedRepo.findAllByExpiresAtAfter(Instant.now())
+				.forEach(r -> revoked.put(r.getId(), r.getExpiresAt().toEpochMilli()));
+		log.info("RefreshTokenService initialized with TTL: {} seconds, {} revoked ids loaded",
+				refreshTtlSeconds, revoked.size());
+	}
+
+	@Override
+	public IssuedTokens issue(Customer customer) {
+		return issue(customer.getId(), customer.getUsername(), customer.getRole(), UUID.randomUUID());
+	}
+
+	@Override
+	public IssuedTokens refresh(String refreshToken) {
+		RefreshClaims claims = parse(refreshToken);
+
+		if (revoked.containsKey(claims.familyId())) {
+			throw new InvalidTokenException("Refresh token revoked");
+		}
+		// Only one caller can win the rotation of a given token id.
+		if (revoked.putIfAbsent(claims.tokenId(), claims.expiresAt().toEpochMilli()) != null) {
+			log.warn("Refresh token reuse detected, revoking family {} of username: {}",
+					claims.familyId(), claims.username());
+			revokeId(claims.familyId(), familyExpiry());
+			throw new InvalidTokenException("Refresh token revoked");
+		}
+		revokedRepo.save(new RevokedToken(claims.tokenId(), claims.expiresAt()));
+
+		CustomerPrincipal p = directory.findByUsername(claims.username())
+				.filter(CustomerPrincipal::enabled)
+				.filter(c -> c.customerId().equals(claims.customerId()))
+				.orElseThrow(() -> new InvalidTokenException("Customer is not active"));
+
+		return issue(p.customerId(), p.username(), p.role(), claims.familyId());
+	}
+
+	@Override
+	public void revoke(String refreshToken) {
+		RefreshClaims claims = parse(refreshToken);
+		revokeId(claims.familyId(), familyExpiry());
+		log.info("Refresh token family {} revoked for username: {}", claims.familyId(), claims.username());
+	}
+
+	/**
+	 * Forgets revocations whose tokens have expired on their own.
+	 */
+	@Scheduled(fixedDelayString = "${app.jwt.revocation.prune-interval-ms:3600000}")
+	public void pruneExpired() {
+		long now = System.currentTimeMillis();
+		revoked.values().removeIf(exp -> exp <= now);
+		int deleted = revokedRepo.deleteExpired(Instant.ofEpochMilli(now));
+		log.debug("Pruned {} expired revocations", deleted);
+	}
+
+	private IssuedTokens issue(UUID customerId, String username, Role role, UUID familyId) {
+		String access = jwt.issueToken(customerId, username, role);
+		String refresh = jwt.issueRefreshToken(new RefreshClaims(UUID.randomUUID(), familyId, customerId, username,
+				Instant.now().plusSeconds(refreshTtlSeconds)));
+		return new IssuedTokens(access, refresh);
+	}
+
+	private RefreshClaims parse(String refreshToken) {
+		try {
+			return jwt.parseRefreshToken(refreshToken);
+		} catch (JwtException | IllegalArgumentException e) {
+			log.warn("Invalid refresh token: {}", e.getMessage());
+			throw new InvalidTokenException("Invalid refresh token");
+		}
+	}
+
+	private void revokeId(UUID id, Instant expiresAt) {
+		if (revoked.put(id, expiresAt.toEpochMilli()) == null) {
+			revokedRepo.save(new RevokedToken(id, expiresAt));
+		}
+	}
+
+	/** Every token of a family expires at most one refresh TTL from now. */
+	private Instant familyExpiry() {
+		return Instant.now().plusSeconds(refreshTtlSeconds);
+	}
+}
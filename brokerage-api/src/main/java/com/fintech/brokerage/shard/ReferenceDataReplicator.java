@@ -0,0 +1,82 @@
+package com.fintech.brokerage.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fintech.brokerage.event.CustomerChangedEvent;
+import com.fintech.brokerage.event.InstrumentListedEvent;
+
+/**
+ * Keeps a copy of the customer and instrument tables on every shard, so the foreign keys of
+ * assets and orders hold on each of them. Shard 0 is the source of truth; logins and the
+ * principal directory only ever read there.
+ * <p>
+ * Works on the shard pools directly instead of the routing data source, because the commit
+ * callbacks still have the writing transaction's shard 0 connection bound.
+ */
+public class ReferenceDataReplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataReplicator.class);
+
+    private final List<JdbcTemplate> shardJdbc;
+
+    public ReferenceDataReplicator(List<JdbcTemplate> shardJdbc) {
+        this.shardJdbc = shardJdbc;
+    }
+
+    /**
+     * Copies every instrument and customer of shard 0 to {@code shard}; used at startup, e.g.
+     * for a new shard.
+     */
+    public void syncAll(int shard) {
+        int instruments = copy("instrument", shardJdbc.get(0).queryForList("select * from instrument"), shard);
+        int customers = copy("customer", shardJdbc.get(0).queryForList("select * from customer"), shard);
+        log.info("Synced {} instruments and {} customers to shard {}", instruments, customers, shard);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent e) {
+        for (int shard = 1; shard < shardJdbc.size(); shard++) {
+            if (e.type() == CustomerChangedEvent.ChangeType.DELETED) {
+                shardJdbc.get(shard).update("delete from customer where id = ?", e.customerId());
+            } else {
+                copy("customer", shardJdbc.get(0).queryForList("select * from customer where id = ?", e.customerId()),
+                        shard);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInstrumentListed(InstrumentListedEvent e) {
+        List<Map<String, Object>> rows = shardJdbc.get(0).queryForList("select * from instrument where id = ?",
+                e.instrumentId());
+        for (int shard = 1; shard < shardJdbc.size(); shard++) {
+            copy("instrument", rows, shard);
+        }
+    }
+
+    private int copy(String table, List<Map<String, Object>> rows, int shard) {
+        merge(shardJdbc.get(shard), table, rows);
+        return rows.size();
+    }
+
+    /**
+     * Inserts or overwrites {@code rows} of {@code table} by id, with the columns they were read with.
+     */
+    static void merge(JdbcTemplate jdbc, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "merge into " + table + " (" + String.join(", ", columns) + ") key (id) values ("
+                + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+        List<Object[]> args = rows.stream().map(r -> columns.stream().map(r::get).toArray()).toList();
+        jdbc.batchUpdate(sql, args);
+    }
+}
@@ -0,0 +1,25 @@
+package com.fintech.brokerage.shard;
+
+/**
+ * Shard the current thread works on, read by {@link ShardRoutingDataSource} when a connection
+ * is opened. Set and restored only through {@link ShardRouter}.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    /** Current shard, or null when none was chosen (the default shard 0). */
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
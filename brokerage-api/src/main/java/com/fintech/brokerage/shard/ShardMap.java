@@ -0,0 +1,62 @@
+package com.fintech.brokerage.shard;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps customers to database shards. Shard 0 is {@code spring.datasource}, shards 1..n are the
+ * databases listed in {@code app.sharding.urls}; with no extra urls everything is on shard 0.
+ * <p>
+ * Customers are placed with jump consistent hashing on their id, so growing from n to n + 1
+ * shards moves only about 1/(n + 1) of the customers, all of them onto the new shard.
+ */
+@Component
+public class ShardMap {
+
+    private final List<String> urls;
+
+    public ShardMap(@Value("${app.sharding.urls:}") List<String> urls) {
+        this.urls = urls.stream().map(String::trim).filter(u -> !u.isEmpty()).toList();
+    }
+
+    public int shardCount() {
+        return urls.size() + 1;
+    }
+
+    public boolean isSharded() {
+        return shardCount() > 1;
+    }
+
+    /**
+     * JDBC url of shard {@code shard} for shards 1..n; shard 0 is configured by
+     * {@code spring.datasource}.
+     */
+    public String url(int shard) {
+        if (shard < 1 || shard > urls.size()) {
+            throw new IllegalArgumentException("No extra shard " + shard);
+        }
+        return urls.get(shard - 1);
+    }
+
+    public int shardOf(UUID customerId) {
+        return jumpHash(customerId.getMostSignificantBits() ^ customerId.getLeastSignificantBits(), shardCount());
+    }
+
+    /**
+     * Jump consistent hash (Lamping and Veach): bucket in [0, buckets) for {@code key}. A key
+     * only ever changes bucket by moving to the newly added one.
+     */
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
@@ -0,0 +1,163 @@
+package com.fintech.brokerage.shard;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves customers whose rows sit on another shard than {@link ShardMap#shardOf} places them,
+ * which is what growing the shard list leaves behind, and refuses to start while any are left.
+ * <p>
+ * A customer is moved table by table: its rows are merged into the target shard by id in one
+ * transaction, then deleted from the source in another. The two databases cannot commit
+ * together, so a crash in between leaves the rows on both; the next run merges them again
+ * without effect and finishes the delete. A snapshot row that the target already has for the
+ * same instrument (written there after the resize) is combined with the moved one, and takes
+ * over its id so that a repeated run recognizes it.
+ * <p>
+ * Runs at startup, before any request, runner or scheduled job can touch a shard. Start one
+ * instance with {@code app.sharding.rebalance=true} after changing {@code app.sharding.urls}.
+ */
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    /** Tables holding a customer's data on its shard; they only reference the replicated tables. */
+    static final List<String> CUSTOMER_TABLES = List.of("asset", "orders", "balance_movement", "cash_posting");
+
+    private static final int LOGGED_EVERY = 10_000;
+
+    private static final String CUSTOMERS_SQL = """
+            select customer_id from asset
+            union select customer_id from orders
+            union select customer_id from balance_movement
+            union select customer_id from cash_posting
+            """;
+    private static final String COMBINE_ASSET_SQL = """
+            update asset set id = ?, size = size + ?, usable_size = usable_size + ?, version = version + 1,
+                   updated_at = ?
+             where customer_id = ? and instrument_id = ? and id <> ?
+            """;
+
+    private final ShardMap shards;
+    private final List<JdbcTemplate> shardJdbc;
+    private final List<TransactionTemplate> shardTx;
+
+    public ShardRebalancer(ShardMap shards, List<JdbcTemplate> shardJdbc) {
+        this.shards = shards;
+        this.shardJdbc = shardJdbc;
+        this.shardTx = shardJdbc.stream()
+                .map(jdbc -> new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource())))
+                .toList();
+    }
+
+    /**
+     * Customers per shard that the shard map places elsewhere. Every customer with data has a
+     * snapshot row, so the asset table alone is checked, on its unique index.
+     */
+    public Map<Integer, Long> misplacedCustomers() {
+        Map<Integer, Long> misplaced = new LinkedHashMap<>();
+        for (int shard = 0; shard < shardJdbc.size(); shard++) {
+            long[] count = { 0 };
+            int home = shard;
+            shardJdbc.get(shard).query("select distinct customer_id from asset", rs -> {
+                if (shards.shardOf(rs.getObject(1, UUID.class)) != home) {
+                    count[0]++;
+                }
+            });
+            if (count[0] > 0) {
+                misplaced.put(shard, count[0]);
+            }
+        }
+        return misplaced;
+    }
+
+    /**
+     * Fails startup while any shard holds customers of another one: their balances would read
+     * as zero on their new shard, and new movements would split the account over two databases.
+     */
+    public void checkPlacement() {
+        Map<Integer, Long> misplaced = misplacedCustomers();
+        if (!misplaced.isEmpty()) {
+            throw new IllegalStateException("Customers on the wrong shard for app.sharding.urls (shard=customers): "
+                    + misplaced + ". Start once with app.sharding.rebalance=true to move them.");
+        }
+    }
+
+    /**
+     * Moves every misplaced customer to its shard and returns how many were moved.
+     */
+    public long rebalance() {
+        long moved = 0;
+        for (int source = 0; source < shardJdbc.size(); source++) {
+            List<UUID> customers = new ArrayList<>();
+            int home = source;
+            shardJdbc.get(source).query(CUSTOMERS_SQL, rs -> {
+                UUID id = rs.getObject(1, UUID.class);
+                if (shards.shardOf(id) != home) {
+                    customers.add(id);
+                }
+            });
+            for (UUID customerId : customers) {
+                move(customerId, source, shards.shardOf(customerId));
+                if (++moved % LOGGED_EVERY == 0) {
+                    log.info("Rebalanced {} customers", moved);
+                }
+            }
+            if (!customers.isEmpty()) {
+                log.info("Moved {} customers off shard {}", customers.size(), source);
+            }
+        }
+        log.info("Shard rebalance done: {} customers moved", moved);
+        return moved;
+    }
+
+    void move(UUID customerId, int source, int target) {
+        Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        for (String table : CUSTOMER_TABLES) {
+            rows.put(table, shardJdbc.get(source).queryForList("select * from " + table + " where customer_id = ?",
+                    customerId));
+        }
+        JdbcTemplate to = shardJdbc.get(target);
+        shardTx.get(target).executeWithoutResult(s -> rows.forEach((table, tableRows) -> {
+            if (table.equals("asset")) {
+                tableRows = combineAssets(to, tableRows);
+            }
+            ReferenceDataReplicator.merge(to, table, tableRows);
+        }));
+        shardTx.get(source).executeWithoutResult(s -> CUSTOMER_TABLES.forEach(table ->
+                shardJdbc.get(source).update("delete from " + table + " where customer_id = ?", customerId)));
+    }
+
+    /**
+     * Adds moved snapshots to the rows the target already has for the same instrument under
+     * another id, and returns the moved snapshots that still need to be inserted. A snapshot
+     * whose id is already there was moved by an earlier, interrupted run and is left as it is.
+     */
+    private static List<Map<String, Object>> combineAssets(JdbcTemplate to, List<Map<String, Object>> assets) {
+        List<Map<String, Object>> remaining = new ArrayList<>(assets.size());
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (Map<String, Object> a : assets) {
+            Integer present = to.queryForObject("select count(*) from asset where id = ?", Integer.class, a.get("id"));
+            if (present != null && present > 0) {
+                continue;
+            }
+            int combined = to.update(COMBINE_ASSET_SQL, a.get("id"), a.get("size"), a.get("usable_size"), now,
+                    a.get("customer_id"), a.get("instrument_id"), a.get("id"));
+            if (combined == 0) {
+                remaining.add(a);
+            }
+        }
+        return remaining;
+    }
+}
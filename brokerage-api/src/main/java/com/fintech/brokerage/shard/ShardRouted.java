@@ -0,0 +1,27 @@
+package com.fintech.brokerage.shard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated service method, including its transaction, on the shard of the customer
+ * it works for. The shard is taken from the first {@code Customer} or {@code Asset} argument,
+ * or from the first {@code UUID} argument: a customer id for {@link Key#CUSTOMER}, an order id for
+ * {@link Key#ORDER}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ShardRouted {
+
+    Key value() default Key.CUSTOMER;
+
+    enum Key {
+        CUSTOMER,
+        /** The owner is not known up front; the order is looked up on the shards. */
+        ORDER
+    }
+}
@@ -0,0 +1,71 @@
+package com.fintech.brokerage.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs work on a chosen shard. Everything run outside of it goes to shard 0, which also holds
+ * the customer and token tables. With a single database every call simply runs in place.
+ */
+@Component
+public class ShardRouter {
+
+    private final ShardMap shards;
+
+    public ShardRouter(ShardMap shards) {
+        this.shards = shards;
+    }
+
+    public int shardOf(UUID customerId) {
+        return shards.shardOf(customerId);
+    }
+
+    public int shardCount() {
+        return shards.shardCount();
+    }
+
+    /**
+     * Runs {@code body} with connections of {@code shard}. A transaction that is already open
+     * keeps its connection, so switching to another shard inside one is rejected rather than
+     * silently writing to the wrong database.
+     */
+    public <T> T onShard(int shard, Supplier<T> body) {
+        Integer previous = ShardContext.current();
+        int effective = previous == null ? 0 : previous;
+        if (effective == shard) {
+            return body.get();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Transaction on shard " + effective + " cannot switch to shard " + shard);
+        }
+        ShardContext.set(shard);
+        try {
+            return body.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public <T> T onCustomerShard(UUID customerId, Supplier<T> body) {
+        Objects.requireNonNull(customerId, "customerId must not be null");
+        return onShard(shards.shardOf(customerId), body);
+    }
+
+    /**
+     * Scatter-gather: runs {@code body} once per shard, in shard order, and returns the results
+     * in the same order.
+     */
+    public <T> List<T> onAllShards(Supplier<T> body) {
+        List<T> results = new ArrayList<>(shards.shardCount());
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            results.add(onShard(shard, body));
+        }
+        return results;
+    }
+}
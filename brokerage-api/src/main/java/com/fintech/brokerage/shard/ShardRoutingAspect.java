@@ -0,0 +1,120 @@
+package com.fintech.brokerage.shard;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.security.util.SecurityUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Binds {@link ShardRouted} methods to their customer's shard. Ordered ahead of the
+ * transaction interceptor, so the transaction opens its connection on that shard.
+ * <p>
+ * Calls by order id probe the caller's own shard first, which is where a customer's own orders
+ * live, and only then the others.
+ */
+@Aspect
+@Order(ShardRoutingAspect.ORDER)
+public class ShardRoutingAspect {
+
+    /**
+     * Ahead of the transaction interceptor (lowest precedence), but behind Spring's own
+     * highest-precedence interceptor that exposes the invocation for argument binding.
+     */
+    static final int ORDER = 0;
+
+    private final ShardRouter router;
+    private final List<JdbcTemplate> shardJdbc;
+
+    private final Counter homeHits;
+    private final Counter scatterHits;
+    private final Counter misses;
+
+    public ShardRoutingAspect(ShardRouter router, List<JdbcTemplate> shardJdbc, MeterRegistry registry) {
+        this.router = router;
+        this.shardJdbc = shardJdbc;
+        this.homeHits = lookups(registry, "home");
+        this.scatterHits = lookups(registry, "scatter");
+        this.misses = lookups(registry, "missing");
+    }
+
+    private static Counter lookups(MeterRegistry registry, String probe) {
+        return Counter.builder("shards.order_lookups").tag("probe", probe)
+                .description("Order id lookups by the probe that found the order").register(registry);
+    }
+
+    @Around("@annotation(routed)")
+    public Object route(ProceedingJoinPoint pjp, ShardRouted routed) throws Throwable {
+        int shard = routed.value() == ShardRouted.Key.ORDER
+                ? locateOrder(firstUuid(pjp.getArgs()))
+                : router.shardOf(customerIdOf(pjp.getArgs()));
+        return router.onShard(shard, () -> proceed(pjp));
+    }
+
+    int locateOrder(UUID orderId) {
+        Optional<Integer> home = SecurityUtil.currentCustomerId().map(router::shardOf);
+        if (home.isPresent() && exists(home.get(), orderId)) {
+            homeHits.increment();
+            return home.get();
+        }
+        for (int shard = 0; shard < shardJdbc.size(); shard++) {
+            if (home.isPresent() && home.get() == shard) {
+                continue;
+            }
+            if (exists(shard, orderId)) {
+                scatterHits.increment();
+                return shard;
+            }
+        }
+        misses.increment();
+        throw new NoSuchElementException("Order not found");
+    }
+
+    private boolean exists(int shard, UUID orderId) {
+        Integer n = shardJdbc.get(shard).queryForObject("select count(*) from orders where id = ?", Integer.class, orderId);
+        return n != null && n > 0;
+    }
+
+    private static UUID customerIdOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Customer c) {
+                return c.getId();
+            }
+            if (arg instanceof Asset a) {
+                return a.getCustomerId().getId();
+            }
+        }
+        return firstUuid(args);
+    }
+
+    private static UUID firstUuid(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof UUID id) {
+                return id;
+            }
+        }
+        throw new IllegalArgumentException("No shard key among the arguments");
+    }
+
+    private static Object proceed(ProceedingJoinPoint pjp) {
+        try {
+            return pjp.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
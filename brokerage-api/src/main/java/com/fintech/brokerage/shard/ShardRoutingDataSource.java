@@ -0,0 +1,16 @@
+package com.fintech.brokerage.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard chosen for the current thread, shard 0 otherwise. The
+ * shard is fixed when a transaction opens its connection, so it has to be chosen before the
+ * transaction starts; {@link ShardRoutingAspect} does that for the services.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,59 @@
+package com.fintech.brokerage.shard;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+/**
+ * Applies the configured schema action ({@code spring.jpa.hibernate.ddl-auto}) to shards 1..n
+ * and copies the customers and instruments over once the session factory is built; Hibernate
+ * itself only manages the schema of the default shard. Then moves misplaced customers if
+ * {@code app.sharding.rebalance} is set, and fails if any are left. Runs before the first
+ * request or runner can touch a shard.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final ShardRouter router;
+    private final ReferenceDataReplicator replicator;
+    private final ShardRebalancer rebalancer;
+    private final boolean rebalance;
+
+    public ShardSchemaIntegrator(ShardRouter router, ReferenceDataReplicator replicator, ShardRebalancer rebalancer,
+                                 boolean rebalance) {
+        this.router = router;
+        this.replicator = replicator;
+        this.rebalancer = rebalancer;
+        this.rebalance = rebalance;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        sessionFactory.addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryCreated(SessionFactory factory) {
+                for (int shard = 1; shard < router.shardCount(); shard++) {
+                    router.onShard(shard, () -> {
+                        // a create-drop drop on close is not registered; extra shards keep their tables
+                        SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                                sessionFactory.getProperties(), action -> {});
+                        return null;
+                    });
+                    replicator.syncAll(shard);
+                }
+                if (rebalance) {
+                    rebalancer.rebalance();
+                }
+                rebalancer.checkPlacement();
+            }
+        });
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
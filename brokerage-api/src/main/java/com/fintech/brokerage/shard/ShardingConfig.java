@@ -0,0 +1,98 @@
+package com.fintech.brokerage.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sharded setup, active when {@code app.sharding.urls} lists extra databases: a routing data
+ * source over one pool per shard, service routing, the customer and instrument copies on
+ * every shard, and the placement check (and optional rebalance) after the shard list changed.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.sharding.urls:}'.isBlank()")
+public class ShardingConfig {
+
+    /**
+     * {@code spring.datasource.hikari.*} (pool size, timeouts, ...), which the pool of the
+     * unsharded setup gets from the auto-configuration. Copied into every shard pool.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariConfig shardPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    @Primary
+    ShardRoutingDataSource dataSource(DataSourceProperties properties, HikariConfig shardPoolConfig, ShardMap shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            HikariConfig config = new HikariConfig();
+            shardPoolConfig.copyStateTo(config);
+            config.setJdbcUrl(shard == 0 ? properties.determineUrl() : shards.url(shard));
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setPoolName("shard-" + shard);
+            targets.put(shard, new HikariDataSource(config));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    @Bean
+    ShardRoutingAspect shardRoutingAspect(ShardRouter router, ShardRoutingDataSource dataSource, MeterRegistry registry) {
+        return new ShardRoutingAspect(router, shardJdbc(dataSource), registry);
+    }
+
+    @Bean
+    ReferenceDataReplicator referenceDataReplicator(ShardRoutingDataSource dataSource) {
+        return new ReferenceDataReplicator(shardJdbc(dataSource));
+    }
+
+    @Bean
+    ShardRebalancer shardRebalancer(ShardMap shards, ShardRoutingDataSource dataSource) {
+        return new ShardRebalancer(shards, shardJdbc(dataSource));
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer shardSchemaIntegrator(ShardRouter router, ReferenceDataReplicator replicator,
+                                                        ShardRebalancer rebalancer,
+                                                        @Value("${app.sharding.rebalance:false}") boolean rebalance) {
+        ShardSchemaIntegrator integrator = new ShardSchemaIntegrator(router, replicator, rebalancer, rebalance);
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+
+    /** One template per shard pool, bypassing routing and any transaction bound to it. */
+    private static List<JdbcTemplate> shardJdbc(ShardRoutingDataSource routing) {
+        Map<Object, DataSource> pools = routing.getResolvedDataSources();
+        return IntStream.range(0, pools.size())
+                .mapToObj(shard -> new JdbcTemplate(pools.get(shard)))
+                .toList();
+    }
+}
@@ -0,0 +1,43 @@
+package com.fintech.brokerage.statement;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.PostingType;
+
+/**
+ * End-of-day statement of one customer, written as one JSON file per customer and day.
+ */
+@JsonPropertyOrder({ "customerId", "date", "assets", "activity", "orders", "postings" })
+public record CustomerStatement(UUID customerId, LocalDate date, List<AssetBalance> assets, Activity activity,
+                                List<OrderLine> orders, List<PostingLine> postings) {
+
+    /**
+     * Balance of one asset at the start ({@code opening}) and at the end ({@code closing},
+     * {@code usableClosing}) of the day, derived from the balance movements recorded since.
+     */
+    @JsonPropertyOrder({ "assetName", "opening", "closing", "usableClosing" })
+    public record AssetBalance(String assetName, BigDecimal opening, BigDecimal closing, BigDecimal usableClosing) {}
+
+    /**
+     * Orders placed during the day, by their status when the job ran, and the TRY deposited and
+     * withdrawn during the day.
+     */
+    @JsonPropertyOrder({ "placed", "matched", "canceled", "pending", "deposited", "withdrawn" })
+    public record Activity(int placed, int matched, int canceled, int pending, BigDecimal deposited,
+                           BigDecimal withdrawn) {}
+
+    @JsonPropertyOrder({ "id", "assetName", "side", "size", "price", "status", "createDate" })
+    public record OrderLine(UUID id, String assetName, OrderSide side, BigDecimal size, BigDecimal price,
+                            OrderStatus status, Instant createDate) {}
+
+    /** Deposit or withdrawal applied during the day, single or from a bulk funding run. */
+    @JsonPropertyOrder({ "id", "type", "amount", "createdAt" })
+    public record PostingLine(UUID id, PostingType type, BigDecimal amount, Instant createdAt) {}
+}
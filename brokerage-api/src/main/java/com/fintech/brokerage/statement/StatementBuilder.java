@@ -0,0 +1,68 @@
+package com.fintech.brokerage.statement;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.PostingType;
+import com.fintech.brokerage.statement.CustomerStatement.AssetBalance;
+import com.fintech.brokerage.statement.CustomerStatement.OrderLine;
+import com.fintech.brokerage.statement.CustomerStatement.PostingLine;
+
+/**
+ * Turns the raw asset and order rows of one customer into a {@link CustomerStatement}.
+ */
+final class StatementBuilder {
+
+    /**
+     * Asset row as read from the database: the balance when the job reads it, and the sums of the
+     * balance movements recorded since the start and since the end of the statement day.
+     */
+    record AssetRow(String assetName, BigDecimal size, BigDecimal usableSize, BigDecimal movedSinceOpening,
+                    BigDecimal movedSinceClosing, BigDecimal usableMovedSinceClosing) {}
+
+    private StatementBuilder() {}
+
+    static CustomerStatement build(UUID customerId, LocalDate date, List<AssetRow> assets, List<OrderLine> orders,
+                                   List<PostingLine> postings) {
+        int matched = 0;
+        int canceled = 0;
+        int pending = 0;
+        for (OrderLine o : orders) {
+            if (o.status() == OrderStatus.MATCHED) {
+                matched++;
+            } else if (o.status() == OrderStatus.CANCELED) {
+                canceled++;
+            } else {
+                pending++;
+            }
+        }
+
+        BigDecimal deposited = BigDecimal.ZERO;
+        BigDecimal withdrawn = BigDecimal.ZERO;
+        for (PostingLine p : postings) {
+            if (p.type() == PostingType.DEPOSIT) {
+                deposited = deposited.add(p.amount());
+            } else {
+                withdrawn = withdrawn.add(p.amount());
+            }
+        }
+
+        // every balance change, cash postings included, is a movement, so taking the later ones
+        // back out gives the balance at a day boundary
+        Map<String, AssetBalance> balances = new TreeMap<>();
+        for (AssetRow a : assets) {
+            balances.put(a.assetName(), new AssetBalance(a.assetName(), a.size().subtract(a.movedSinceOpening()),
+                    a.size().subtract(a.movedSinceClosing()), a.usableSize().subtract(a.usableMovedSinceClosing())));
+        }
+
+        return new CustomerStatement(customerId, date, new ArrayList<>(balances.values()),
+                new CustomerStatement.Activity(orders.size(), matched, canceled, pending, deposited, withdrawn), orders,
+                postings);
+    }
+}
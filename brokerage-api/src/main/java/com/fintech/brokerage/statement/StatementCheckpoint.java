@@ -0,0 +1,86 @@
+package com.fintech.brokerage.statement;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Restart point of a statement run: the last customer id up to which every statement has been
+ * written, with the number of customers and orders written up to it. Chunks finish out of order
+ * on the pool, so the checkpoint only advances over an unbroken run of finished chunks;
+ * statements past it may be written again after a restart, which replaces them with the same
+ * content and counts them once.
+ */
+final class StatementCheckpoint {
+
+    private final Path file;
+    private final Map<Long, Chunk> finished = new HashMap<>();
+    private long nextSequence;
+    private UUID watermark;
+    private long customers;
+    private long orders;
+
+    private record Chunk(UUID lastCustomerId, long customers, long orders) {}
+
+    private StatementCheckpoint(Path file, UUID watermark, long customers, long orders) {
+        this.file = file;
+        this.watermark = watermark;
+        this.customers = customers;
+        this.orders = orders;
+    }
+
+    static StatementCheckpoint open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new StatementCheckpoint(file, null, 0, 0);
+        }
+        String content = Files.readString(file, StandardCharsets.UTF_8).trim();
+        if (content.isEmpty()) {
+            return new StatementCheckpoint(file, null, 0, 0);
+        }
+        String[] fields = content.split("\\s+");
+        return new StatementCheckpoint(file, UUID.fromString(fields[0]),
+                fields.length > 1 ? Long.parseLong(fields[1]) : 0, fields.length > 2 ? Long.parseLong(fields[2]) : 0);
+    }
+
+    /** Customer id to continue after, or null to start from the first customer. */
+    synchronized UUID resumeAfter() {
+        return watermark;
+    }
+
+    /** Customers written up to the checkpoint, by this run and the runs it continues. */
+    synchronized long customers() {
+        return customers;
+    }
+
+    /** Orders listed in the statements up to the checkpoint. */
+    synchronized long orders() {
+        return orders;
+    }
+
+    /**
+     * Records that chunk {@code sequence} (numbered from 0 in reading order) ending at customer
+     * {@code lastCustomerId} is written, and persists the checkpoint if it moved.
+     */
+    synchronized void completed(long sequence, UUID lastCustomerId, long chunkCustomers, long chunkOrders)
+            throws IOException {
+        finished.put(sequence, new Chunk(lastCustomerId, chunkCustomers, chunkOrders));
+        boolean advanced = false;
+        while (finished.containsKey(nextSequence)) {
+            Chunk chunk = finished.remove(nextSequence++);
+            watermark = chunk.lastCustomerId();
+            customers += chunk.customers();
+            orders += chunk.orders();
+            advanced = true;
+        }
+        if (advanced) {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, watermark + " " + customers + " " + orders, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
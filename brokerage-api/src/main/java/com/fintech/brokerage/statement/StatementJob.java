@@ -0,0 +1,343 @@
+package com.fintech.brokerage.statement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.PostingType;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.shard.ShardRouter;
+import com.fintech.brokerage.statement.CustomerStatement.OrderLine;
+import com.fintech.brokerage.statement.CustomerStatement.PostingLine;
+import com.fintech.brokerage.statement.StatementBuilder.AssetRow;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * End-of-day statements for every customer, one JSON file per customer under
+ * {@code app.statements.output-dir/<date>/}.
+ * <p>
+ * The calling thread reads customers in id order, one chunk at a time, with the chunk's assets
+ * and the day's orders and cash postings fetched by customer id range on every shard. A fork-join pool builds
+ * and writes the statements of a chunk while the next one is read. At most
+ * {@code max-chunks-in-flight} chunks are held at once, so memory stays bounded regardless of
+ * the number of customers. A checkpoint file lets an interrupted run continue where it
+ * stopped, and a {@code _done} file marks a finished day, which is not generated again.
+ */
+@Component
+public class StatementJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementJob.class);
+
+    private static final String CHECKPOINT_FILE = "_checkpoint";
+    private static final String DONE_FILE = "_done";
+    /** Customers per leaf task of the fork-join split. */
+    private static final int LEAF_SIZE = 64;
+
+    /*
+     * Balances as of the run (the snapshot plus ledger movements not compacted into it yet), and
+     * the movements recorded since the start and since the end of the day, which the builder
+     * takes back out. Compacted movements stay in the table, so days in the past work as well.
+     */
+    private static final String ASSETS_SQL = """
+            select a.customer_id, a.instrument_id,
+                   a.size + coalesce(m.size_tail, 0) as size,
+                   a.usable_size + coalesce(m.usable_tail, 0) as usable_size,
+                   coalesce(m.size_since_opening, 0) as size_since_opening,
+                   coalesce(m.size_since_closing, 0) as size_since_closing,
+                   coalesce(m.usable_since_closing, 0) as usable_since_closing
+              from asset a
+              left join (select customer_id, instrument_id,
+                                sum(case when compacted = false then size_delta else 0 end) as size_tail,
+                                sum(case when compacted = false then usable_delta else 0 end) as usable_tail,
+                                sum(case when created_at >= ? then size_delta else 0 end) as size_since_opening,
+                                sum(case when created_at >= ? then size_delta else 0 end) as size_since_closing,
+                                sum(case when created_at >= ? then usable_delta else 0 end) as usable_since_closing
+                           from balance_movement
+                          where customer_id between ? and ? and (compacted = false or created_at >= ?)
+                          group by customer_id, instrument_id) m
+                on m.customer_id = a.customer_id and m.instrument_id = a.instrument_id
+             where a.customer_id between ? and ?
+            """;
+    private static final String ORDERS_SQL = """
+            select id, customer_id, instrument_id, order_side, size, price, status, create_date
+              from orders
+             where customer_id between ? and ?
+               and create_date >= ? and create_date < ?
+             order by customer_id, create_date
+            """;
+    private static final String POSTINGS_SQL = """
+            select id, customer_id, type, amount, created_at
+              from cash_posting
+             where customer_id between ? and ?
+               and created_at >= ? and created_at < ?
+             order by customer_id, created_at
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ShardRouter router;
+    private final InstrumentRegistry instruments;
+    private final ObjectMapper mapper;
+    private final Path outputDir;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxChunksInFlight;
+    private final ZoneId zone;
+    private final Counter written;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StatementJob(JdbcTemplate jdbc, ShardRouter router, InstrumentRegistry instruments, ObjectMapper mapper,
+                        MeterRegistry registry,
+                        @Value("${app.statements.output-dir:statements}") String outputDir,
+                        @Value("${app.statements.chunk-size:1000}") int chunkSize,
+                        @Value("${app.statements.parallelism:0}") int parallelism,
+                        @Value("${app.statements.max-chunks-in-flight:0}") int maxChunksInFlight,
+                        @Value("${app.statements.zone:UTC}") ZoneId zone) {
+        this.jdbc = jdbc;
+        this.router = router;
+        this.instruments = instruments;
+        this.mapper = mapper;
+        this.outputDir = Paths.get(outputDir);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxChunksInFlight = maxChunksInFlight > 0 ? maxChunksInFlight : 2 * this.parallelism;
+        this.zone = zone;
+        this.written = Counter.builder("statements.written")
+                .description("Customer statements written by the end-of-day job").register(registry);
+    }
+
+    @JsonPropertyOrder({ "date", "customers", "orders", "resumed", "alreadyComplete", "millis" })
+    public record Result(LocalDate date, long customers, long orders, boolean resumed, boolean alreadyComplete,
+                         long millis) {}
+
+    /**
+     * Statements of the day before, when {@code app.statements.cron} is set.
+     */
+    @Scheduled(cron = "${app.statements.cron:-}", zone = "${app.statements.zone:UTC}")
+    public void runForPreviousDay() {
+        run(LocalDate.now(zone).minusDays(1));
+    }
+
+    /**
+     * Writes the statements of {@code date}, which must have ended in {@code app.statements.zone}.
+     */
+    public Result run(LocalDate date) {
+        if (!date.isBefore(LocalDate.now(zone))) {
+            throw new IllegalArgumentException("Statements can only be generated for days that have ended");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Statement job is already running");
+        }
+        try {
+            return generate(date);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Statement job interrupted", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Result generate(LocalDate date) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        Path dayDir = outputDir.resolve(date.toString());
+        Path done = dayDir.resolve(DONE_FILE);
+        if (Files.exists(done)) {
+            log.info("Statements for {} already complete", date);
+            Result previous = mapper.readValue(done.toFile(), Result.class);
+            return new Result(date, previous.customers(), previous.orders(), false, true, 0);
+        }
+        Files.createDirectories(dayDir);
+
+        StatementCheckpoint checkpoint = StatementCheckpoint.open(dayDir.resolve(CHECKPOINT_FILE));
+        UUID after = checkpoint.resumeAfter();
+        boolean resumed = after != null;
+        if (resumed) {
+            log.info("Resuming statements for {} after customer {}", date, after);
+        }
+
+        OffsetDateTime from = date.atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime to = date.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+        StatementWriter writer = new StatementWriter(mapper, dayDir);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(maxChunksInFlight);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long sequence = 0;
+            while (true) {
+                inFlight.acquire();
+                // a chunk may have failed while this thread waited for a slot
+                List<UUID> ids = failure.get() == null ? nextCustomers(after) : List.of();
+                if (ids.isEmpty()) {
+                    inFlight.release();
+                    break;
+                }
+                after = ids.get(ids.size() - 1);
+                List<CustomerRows> chunk = readChunk(ids, from, to);
+
+                long seq = sequence++;
+                UUID last = after;
+                long chunkOrders = chunk.stream().mapToLong(rows -> rows.orders.size()).sum();
+                pool.execute(() -> {
+                    try {
+                        new WriteTask(chunk, 0, chunk.size(), date, writer).invoke();
+                        written.increment(chunk.size());
+                        checkpoint.completed(seq, last, chunk.size(), chunkOrders);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(maxChunksInFlight);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Statement job for " + date + " failed; rerun to resume", failure.get());
+        }
+
+        Result result = new Result(date, checkpoint.customers(), checkpoint.orders(), resumed, false,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        mapper.writeValue(done.toFile(), result);
+        log.info("Statements for {} written: {} customers, {} orders in {} ms{}", date, result.customers(),
+                result.orders(), result.millis(), resumed ? " (resumed)" : "");
+        return result;
+    }
+
+    /** Next chunk of customer ids in id order; customers live on shard 0. */
+    private List<UUID> nextCustomers(UUID after) {
+        return after == null
+                ? jdbc.queryForList("select id from customer order by id limit ?", UUID.class, chunkSize)
+                : jdbc.queryForList("select id from customer where id > ? order by id limit ?", UUID.class, after,
+                        chunkSize);
+    }
+
+    /**
+     * Assets, the day's orders and the day's cash postings of a chunk. Chunks are consecutive in id order, so an id range
+     * selects exactly their rows; each shard only returns the customers it holds.
+     */
+    private List<CustomerRows> readChunk(List<UUID> ids, OffsetDateTime from, OffsetDateTime to) {
+        Map<UUID, CustomerRows> byId = new HashMap<>(ids.size() * 2);
+        List<CustomerRows> chunk = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            CustomerRows rows = new CustomerRows(id);
+            byId.put(id, rows);
+            chunk.add(rows);
+        }
+        UUID lo = ids.get(0);
+        UUID hi = ids.get(ids.size() - 1);
+        OffsetDateTime utcFrom = from.withOffsetSameInstant(ZoneOffset.UTC);
+        OffsetDateTime utcTo = to.withOffsetSameInstant(ZoneOffset.UTC);
+        router.onAllShards(() -> {
+            jdbc.query(ASSETS_SQL, rs -> {
+                CustomerRows rows = byId.get(rs.getObject("customer_id", UUID.class));
+                if (rows != null) {
+                    rows.assets.add(new AssetRow(instruments.symbolOf(rs.getInt("instrument_id")),
+                            rs.getBigDecimal("size"), rs.getBigDecimal("usable_size"),
+                            rs.getBigDecimal("size_since_opening"), rs.getBigDecimal("size_since_closing"),
+                            rs.getBigDecimal("usable_since_closing")));
+                }
+            }, utcFrom, utcTo, utcTo, lo, hi, utcFrom, lo, hi);
+            jdbc.query(ORDERS_SQL, rs -> {
+                CustomerRows rows = byId.get(rs.getObject("customer_id", UUID.class));
+                if (rows != null) {
+                    rows.orders.add(new OrderLine(rs.getObject("id", UUID.class),
+                            instruments.symbolOf(rs.getInt("instrument_id")),
+                            OrderSide.valueOf(rs.getString("order_side")), rs.getBigDecimal("size"),
+                            rs.getBigDecimal("price"), OrderStatus.valueOf(rs.getString("status")),
+                            rs.getObject("create_date", OffsetDateTime.class).toInstant()));
+                }
+            }, lo, hi, utcFrom, utcTo);
+            jdbc.query(POSTINGS_SQL, rs -> {
+                CustomerRows rows = byId.get(rs.getObject("customer_id", UUID.class));
+                if (rows != null) {
+                    rows.postings.add(new PostingLine(rs.getObject("id", UUID.class),
+                            PostingType.valueOf(rs.getString("type")), rs.getBigDecimal("amount"),
+                            rs.getObject("created_at", OffsetDateTime.class).toInstant()));
+                }
+            }, lo, hi, utcFrom, utcTo);
+            return null;
+        });
+        return chunk;
+    }
+
+    private static final class CustomerRows {
+        final UUID customerId;
+        final List<AssetRow> assets = new ArrayList<>();
+        final List<OrderLine> orders = new ArrayList<>();
+        final List<PostingLine> postings = new ArrayList<>();
+
+        CustomerRows(UUID customerId) {
+            this.customerId = customerId;
+        }
+    }
+
+    /** Splits a chunk in halves down to {@link #LEAF_SIZE} customers, then builds and writes. */
+    private static final class WriteTask extends RecursiveAction {
+        private final List<CustomerRows> chunk;
+        private final int from;
+        private final int to;
+        private final LocalDate date;
+        private final StatementWriter writer;
+
+        WriteTask(List<CustomerRows> chunk, int from, int to, LocalDate date, StatementWriter writer) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.date = date;
+            this.writer = writer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new WriteTask(chunk, from, mid, date, writer),
+                        new WriteTask(chunk, mid, to, date, writer));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                CustomerRows rows = chunk.get(i);
+                try {
+                    writer.write(StatementBuilder.build(rows.customerId, date, rows.assets, rows.orders,
+                            rows.postings));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.fintech.brokerage.statement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes statements to {@code <day dir>/<first two hex digits of the id>/<customer id>.json}.
+ * Each file is written through a channel to a temporary name and then moved into place, so a
+ * statement file is either complete or absent, also after a crash.
+ */
+final class StatementWriter {
+
+    private final ObjectMapper mapper;
+    private final Path dayDir;
+    private final Set<Path> createdDirs = ConcurrentHashMap.newKeySet();
+
+    StatementWriter(ObjectMapper mapper, Path dayDir) {
+        this.mapper = mapper;
+        this.dayDir = dayDir;
+    }
+
+    void write(CustomerStatement statement) throws IOException {
+        String id = statement.customerId().toString();
+        Path dir = dayDir.resolve(id.substring(0, 2));
+        if (createdDirs.add(dir)) {
+            Files.createDirectories(dir);
+        }
+        Path target = dir.resolve(id + ".json");
+        Path tmp = dir.resolve(id + ".json.tmp");
+
+        ByteBuffer buffer = ByteBuffer.wrap(mapper.writeValueAsBytes(statement));
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,106 @@
+package com.fintech.brokerage.coalesce;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    @DisplayName("execute: concurrent callers of one key share a single load")
+    void concurrent_callers_share_one_load() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>(0, now::get);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flight.execute("k", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "value";
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> flight.execute("k", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                }, o -> {
+                    if (o == SingleFlight.Outcome.JOINED) {
+                        joined.incrementAndGet();
+                    }
+                })));
+            }
+            while (joined.get() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<String> r : results) {
+                assertEquals("value", r.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.size(), "no linger: nothing kept after completion");
+    }
+
+    @Test
+    @DisplayName("execute: result lingers for the window, then is loaded again; invalidate drops it early")
+    void linger_and_invalidate() {
+        SingleFlight<String> flight = new SingleFlight<>(50, now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, flight.execute("k", loads::incrementAndGet));
+        now.addAndGet(49);
+        assertEquals(1, flight.execute("k", loads::incrementAndGet));
+        assertEquals(12, flight.execute("other", () -> 10 + loads.incrementAndGet()));
+
+        now.addAndGet(1);
+        assertEquals(3, flight.execute("k", loads::incrementAndGet));
+
+        flight.invalidate("k"::equals);
+        assertEquals(4, flight.execute("k", loads::incrementAndGet));
+
+        now.addAndGet(100);
+        flight.evictExpired();
+        assertEquals(0, flight.size());
+    }
+
+    @Test
+    @DisplayName("execute: a failed load is rethrown to its caller and not kept")
+    void failures_are_not_lingered() {
+        SingleFlight<String> flight = new SingleFlight<>(50, now::get);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> flight.execute("k", () -> { throw new IllegalArgumentException("bad range"); }));
+        assertEquals("bad range", e.getMessage());
+        assertEquals(0, flight.size());
+        assertEquals("ok", flight.execute("k", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.fintech.brokerage.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fintech.brokerage.controller.dto.OrderResponse;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.Order;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.Role;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecConfigTest {
+
+    private static List<OrderResponse> orders(int n) {
+        Customer customer = new Customer("alice", "hash", Role.USER);
+        UUID customerId = UUID.randomUUID();
+        ReflectionTestUtils.setField(customer, "id", customerId);
+        List<OrderResponse> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Order o = new Order(customer, "AAPL", OrderSide.BUY, new BigDecimal("2.0000"), new BigDecimal("10.5000"),
+                    OrderStatus.PENDING);
+            ReflectionTestUtils.setField(o, "id", UUID.randomUUID());
+            list.add(new OrderResponse(o));
+        }
+        return list;
+    }
+
+    @Test
+    @DisplayName("cbor: order responses are positional arrays with raw UUIDs, decimals and repeated strings shared")
+    void cbor_orders_as_arrays() throws Exception {
+        List<OrderResponse> orders = orders(50);
+        ObjectMapper cbor = BinaryCodecConfig.binaryMapper(new Jackson2ObjectMapperBuilder(),
+                CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build());
+
+        byte[] bytes = cbor.writeValueAsBytes(orders);
+        JsonNode first = new CBORMapper().readTree(bytes).get(0);
+
+        assertTrue(first.isArray());
+        assertEquals(8, first.size());
+        assertEquals(orders.get(0).getId(), uuid(first.get(0).binaryValue()));
+        assertEquals("AAPL", first.get(2).asText());
+        assertEquals("BUY", first.get(3).asText());
+        assertEquals(0, new BigDecimal("10.5").compareTo(first.get(5).decimalValue()));
+        assertEquals("PENDING", first.get(6).asText());
+        assertTrue(first.get(7).isNumber());
+
+        byte[] json = new Jackson2ObjectMapperBuilder().build().writeValueAsBytes(orders);
+        assertTrue(bytes.length * 2 < json.length, "cbor " + bytes.length + " bytes, json " + json.length);
+    }
+
+    @Test
+    @DisplayName("smile: order responses round-trip as arrays in property order")
+    void smile_orders_as_arrays() throws Exception {
+        List<OrderResponse> orders = orders(3);
+        ObjectMapper smile = BinaryCodecConfig.binaryMapper(new Jackson2ObjectMapperBuilder(), new SmileFactory());
+
+        JsonNode tree = new SmileMapper().readTree(smile.writeValueAsBytes(orders));
+
+        assertEquals(3, tree.size());
+        assertEquals("AAPL", tree.get(2).get(2).asText());
+        assertEquals(orders.get(2).getId(), uuid(tree.get(2).get(0).binaryValue()));
+    }
+
+    private static UUID uuid(byte[] b) {
+        ByteBuffer buf = ByteBuffer.wrap(b);
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+}
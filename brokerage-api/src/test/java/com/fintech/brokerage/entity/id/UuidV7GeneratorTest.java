@@ -0,0 +1,103 @@
+package com.fintech.brokerage.entity.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @Test
+    @DisplayName("next: version 7, RFC variant and the current millisecond in the top 48 bits")
+    void layout() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1, "timestamp " + millis);
+    }
+
+    @Test
+    @DisplayName("next: strictly increasing within one millisecond, including sequence overflow")
+    void monotonic_within_millisecond() {
+        AtomicLong state = new AtomicLong();
+        long now = System.currentTimeMillis();
+        UUID prev = UuidV7Generator.next(state, now);
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UuidV7Generator.next(state, now);
+            assertTrue(compareUnsigned(prev, id) < 0, prev + " !< " + id);
+            prev = id;
+        }
+    }
+
+    @Test
+    @DisplayName("next: a clock moving backwards never produces a smaller id")
+    void clock_going_backwards() {
+        AtomicLong state = new AtomicLong();
+        long now = System.currentTimeMillis();
+        UUID a = UuidV7Generator.next(state, now);
+        UUID b = UuidV7Generator.next(state, now - 5_000);
+
+        assertTrue(compareUnsigned(a, b) < 0);
+    }
+
+    @Test
+    @DisplayName("next: unique and per-thread ordered under concurrent generation")
+    void concurrent_unique() throws Exception {
+        int threads = 8, perThread = 20_000;
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    List<UUID> mine = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        mine.add(UuidV7Generator.next());
+                    }
+                    all.addAll(mine);
+                    List<UUID> sorted = new ArrayList<>(mine);
+                    Collections.sort(sorted, UuidV7GeneratorTest::compareUnsigned);
+                    return sorted.equals(mine);
+                }));
+            }
+            for (Future<Boolean> r : results) {
+                assertTrue(r.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    @DisplayName("lowerBound: below every id of that millisecond, above every id of the one before")
+    void lower_bound() {
+        long now = System.currentTimeMillis();
+        UUID bound = UuidV7Generator.lowerBound(Instant.ofEpochMilli(now));
+
+        assertTrue(compareUnsigned(bound, UuidV7Generator.next(new AtomicLong(), now)) < 0);
+        assertTrue(compareUnsigned(UuidV7Generator.next(new AtomicLong(), now - 1), bound) < 0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fintech.brokerage.exception.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fintech.brokerage.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorResponseSerializerTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 10, 19, 10, 0, 0);
+
+    private final ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("serialize: writes the same JSON fields as the record, in declaration order")
+    void json_shape() throws Exception {
+        ErrorResponse error = new ErrorResponse("insufficient_balance", "Insufficient TRY usable balance",
+                "uri=/api/orders", AT, 400);
+
+        assertEquals("{\"error\":\"insufficient_balance\",\"message\":\"Insufficient TRY usable balance\","
+                + "\"path\":\"uri=/api/orders\",\"timestamp\":\"2026-10-19T10:00:00\",\"status\":400}",
+                json.writeValueAsString(error));
+    }
+
+    @Test
+    @DisplayName("serialize: non-string messages and numeric dates go through the mapper")
+    void generic_fields() throws Exception {
+        ErrorResponse error = new ErrorResponse("validation_error", List.of("size: must be > 0"), "uri=/api/orders",
+                AT, 400);
+        assertEquals("size: must be > 0", json.readTree(json.writeValueAsString(error)).get("message").get(0).asText());
+
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule())
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        JsonNode tree = cbor.readTree(cbor.writeValueAsBytes(error));
+        assertTrue(tree.get("timestamp").isArray(), "dates follow the mapper's timestamp setting");
+        assertEquals(400, tree.get("status").asInt());
+    }
+}
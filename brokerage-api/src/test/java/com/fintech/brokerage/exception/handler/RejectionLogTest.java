@@ -0,0 +1,81 @@
+package com.fintech.brokerage.exception.handler;
+
+import com.fintech.brokerage.exception.InsufficientBalanceException;
+import com.fintech.brokerage.exception.InvalidOrderException;
+import com.fintech.brokerage.exception.RejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RejectionLogTest {
+
+    private static final Instant T0 = Instant.parse("2026-10-19T10:00:00Z");
+
+    private final Logger log = mock(Logger.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("log: logs up to the limit per code and second, then reports how many were skipped")
+    void limits_per_code_and_second() {
+        RejectionLog rejections = new RejectionLog(log, Clock.fixed(T0, ZoneOffset.UTC), registry, 2);
+        RejectedException insufficient = new InsufficientBalanceException("Insufficient TRY usable balance");
+
+        assertTrue(rejections.log(insufficient, "uri=/api/orders"));
+        assertTrue(rejections.log(insufficient, "uri=/api/orders"));
+        assertFalse(rejections.log(insufficient, "uri=/api/orders"));
+        assertFalse(rejections.log(insufficient, "uri=/api/orders"));
+        assertTrue(rejections.log(new InvalidOrderException("size must be > 0"), "uri=/api/orders"), "codes have their own budget");
+
+        verify(log, times(3)).info(eq("Rejected {} ({}): {}"), any(), any(), any());
+        assertEquals(4.0, registry.counter("errors.rejected", "code", "insufficient_balance").count());
+        assertEquals(1.0, registry.counter("errors.rejected", "code", "invalid_order").count());
+    }
+
+    @Test
+    @DisplayName("log: the first rejection of a new second logs the skipped count and resets the budget")
+    void reports_suppressed_on_rollover() {
+        MutableClock clock = new MutableClock(T0);
+        RejectionLog rejections = new RejectionLog(log, clock, registry, 1);
+        RejectedException insufficient = new InsufficientBalanceException("Insufficient TRY usable balance");
+
+        rejections.log(insufficient, "uri=/api/orders");
+        rejections.log(insufficient, "uri=/api/orders");
+        rejections.log(insufficient, "uri=/api/orders");
+
+        clock.now = T0.plusSeconds(1);
+        assertTrue(rejections.log(insufficient, "uri=/api/orders"));
+        verify(log).info("{} more {} rejections were not logged", 2, "insufficient_balance");
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
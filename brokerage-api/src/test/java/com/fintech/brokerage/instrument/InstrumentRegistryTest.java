@@ -0,0 +1,87 @@
+package com.fintech.brokerage.instrument;
+
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.event.InstrumentListedEvent;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InstrumentRegistryTest {
+
+    private JdbcTemplate jdbc;
+    private ApplicationEventPublisher publisher;
+    private InstrumentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("""
+                create table instrument (id integer generated by default as identity primary key,
+                    symbol varchar(16) not null unique, name varchar(255), listed_at timestamp(6) with time zone)""");
+        publisher = mock(ApplicationEventPublisher.class);
+        registry = new InstrumentRegistry(jdbc, new ShardRouter(new ShardMap(List.of())), publisher);
+        registry.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("startup: the AssetType symbols are listed once, and ids map back to symbols")
+    void seeds_defaults() {
+        for (AssetType t : AssetType.values()) {
+            assertEquals(t.getSymbol(), registry.symbolOf(registry.idOf(t.getSymbol())));
+        }
+        new InstrumentRegistry(jdbc, new ShardRouter(new ShardMap(List.of())), publisher).afterSingletonsInstantiated();
+        assertEquals(AssetType.values().length, jdbc.queryForObject("select count(*) from instrument", Integer.class));
+    }
+
+    @Test
+    @DisplayName("list: a new symbol is tradable at once and announced for the shard copies")
+    void lists_new_symbol() {
+        assertFalse(registry.isListed("NVDA"));
+
+        int id = registry.list("NVDA", "NVIDIA").getId();
+
+        assertTrue(registry.isListed("NVDA"));
+        assertEquals(id, registry.idOf("NVDA"));
+        verify(publisher).publishEvent(new InstrumentListedEvent(id, "NVDA"));
+        assertThrows(IllegalStateException.class, () -> registry.list("NVDA", null));
+        assertThrows(IllegalArgumentException.class, () -> registry.list("nvda ", null));
+    }
+
+    @Test
+    @DisplayName("list: a symbol listed concurrently elsewhere is reported as already listed, not as a key violation")
+    void concurrent_listing() {
+        clearInvocations(publisher);
+        jdbc.update("insert into instrument (symbol, listed_at) values ('NVDA', current_timestamp)");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> registry.list("NVDA", "NVIDIA"));
+
+        assertEquals("Instrument NVDA is already listed", e.getMessage());
+        assertTrue(registry.isListed("NVDA"), "the registry reloads on the conflict");
+        verify(publisher, never()).publishEvent(any(InstrumentListedEvent.class));
+    }
+
+    @Test
+    @DisplayName("symbolOf: an id listed by another instance is picked up with one reload")
+    void reloads_for_unknown_id() {
+        jdbc.update("insert into instrument (symbol, listed_at) values ('AMZN', current_timestamp)");
+        int id = jdbc.queryForObject("select id from instrument where symbol = 'AMZN'", Integer.class);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.idOf("AMZN"), "symbols do not trigger a reload");
+        assertEquals("AMZN", registry.symbolOf(id));
+        assertEquals(id, registry.idOf("AMZN"));
+        assertThrows(IllegalStateException.class, () -> registry.symbolOf(999));
+    }
+}
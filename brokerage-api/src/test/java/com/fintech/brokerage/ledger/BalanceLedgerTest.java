@@ -0,0 +1,145 @@
+package com.fintech.brokerage.ledger;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.repo.AssetRepository;
+import com.fintech.brokerage.repo.BalanceMovementRepository;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Creates snapshot rows against an embedded H2 database with the asset columns; movements go
+ * to a mocked repository.
+ */
+class BalanceLedgerTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private BalanceMovementRepository movementRepo;
+    private BalanceLedger ledger;
+    private Customer alice;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = spy(new JdbcTemplate(ds));
+        tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        jdbc.execute("""
+                create table instrument (id integer generated by default as identity primary key,
+                    symbol varchar(16) not null unique, name varchar(255), listed_at timestamp(6) with time zone)""");
+        jdbc.execute("""
+                create table asset (id uuid primary key, customer_id uuid, instrument_id int, size numeric(19,4),
+                    usable_size numeric(19,4), version bigint, updated_at timestamp(6) with time zone,
+                    unique (customer_id, instrument_id))""");
+        InstrumentRegistry instruments = new InstrumentRegistry(jdbc, new ShardRouter(new ShardMap(List.of())),
+                mock(ApplicationEventPublisher.class));
+        instruments.afterSingletonsInstantiated();
+        movementRepo = mock(BalanceMovementRepository.class);
+        ledger = new BalanceLedger(mock(AssetRepository.class), movementRepo, jdbc, instruments, 100);
+        alice = new Customer("alice", "n/a", Role.USER);
+        alice.setId(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("record: two concurrent first credits of an instrument both succeed and leave one snapshot row")
+    void concurrent_first_credit() throws Exception {
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        AtomicReference<Thread> second = new AtomicReference<>();
+        // the first transaction holds its uncommitted row until the second one waits on it
+        when(movementRepo.save(any())).thenAnswer(inv -> {
+            if (firstInserted.getCount() == 1) {
+                firstInserted.countDown();
+                awaitBlocked(second);
+            }
+            return inv.getArgument(0);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> deposit = pool.submit(() -> tx.executeWithoutResult(s ->
+                    ledger.record(alice, "TRY", BigDecimal.TEN, BigDecimal.TEN, MovementReason.DEPOSIT, null)));
+            assertTrue(firstInserted.await(5, TimeUnit.SECONDS));
+            Future<?> settlement = pool.submit(() -> {
+                second.set(Thread.currentThread());
+                tx.executeWithoutResult(s -> ledger.record(alice, "TRY", BigDecimal.ONE, BigDecimal.ONE,
+                        MovementReason.ORDER_MATCHED, null));
+            });
+
+            deposit.get(10, TimeUnit.SECONDS);
+            settlement.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, jdbc.queryForObject("select count(*) from asset where customer_id = ?", Integer.class,
+                alice.getId()));
+        verify(movementRepo, times(2)).save(any());
+        // the settlement ran into the uncommitted row at least once before it saw the committed one
+        verify(jdbc, atLeast(3)).update(startsWith("insert into asset"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("record: once a snapshot row is committed, later movements skip creating it")
+    void known_snapshot_skips_insert() {
+        for (int i = 0; i < 3; i++) {
+            tx.executeWithoutResult(s ->
+                    ledger.record(alice, "TRY", BigDecimal.ONE, BigDecimal.ONE, MovementReason.DEPOSIT, null));
+        }
+
+        verify(jdbc, times(1)).update(startsWith("insert into asset"), any(Object[].class));
+        verify(movementRepo, times(3)).save(any());
+    }
+
+    @Test
+    @DisplayName("record: a snapshot row created by a rolled back transaction is created again next time")
+    void rollback_forgets_snapshot() {
+        tx.executeWithoutResult(s -> {
+            ledger.record(alice, "TRY", BigDecimal.ONE, BigDecimal.ONE, MovementReason.DEPOSIT, null);
+            s.setRollbackOnly();
+        });
+        assertEquals(0, jdbc.queryForObject("select count(*) from asset", Integer.class));
+
+        tx.executeWithoutResult(s ->
+                ledger.record(alice, "TRY", BigDecimal.ONE, BigDecimal.ONE, MovementReason.DEPOSIT, null));
+
+        assertEquals(1, jdbc.queryForObject("select count(*) from asset", Integer.class));
+    }
+
+    /** Waits until the thread is parked, i.e. waiting for the row lock of the other transaction. */
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread t = thread.get();
+            if (t != null && (t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING
+                    || t.getState() == Thread.State.BLOCKED)) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("second transaction never waited for the first one's row");
+    }
+}
@@ -0,0 +1,107 @@
+package com.fintech.brokerage.ledger;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the compaction statements against an embedded H2 database with the columns they touch.
+ */
+class LedgerCompactorTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final int TRY = 1;
+    private static final int AAPL = 2;
+
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("""
+                create table asset (id uuid primary key, customer_id uuid, instrument_id int, size numeric(19,4),
+                    usable_size numeric(19,4), version bigint, updated_at timestamp(6) with time zone,
+                    unique (customer_id, instrument_id))""");
+        jdbc.execute("""
+                create table balance_movement (id uuid primary key, customer_id uuid, instrument_id int,
+                    size_delta numeric(19,4), usable_delta numeric(19,4), reason varchar(16), reference_id uuid,
+                    compacted boolean, created_at timestamp(6) with time zone)""");
+        registry = new SimpleMeterRegistry();
+    }
+
+    private LedgerCompactor compactor(int batchSize) {
+        DriverManagerDataSource ds = (DriverManagerDataSource) jdbc.getDataSource();
+        return new LedgerCompactor(jdbc, new ShardRouter(new ShardMap(List.of())), new DataSourceTransactionManager(ds),
+                registry, true, batchSize, 100);
+    }
+
+    @Test
+    @DisplayName("compact: folds every movement into its snapshot in batches and keeps the rows as history")
+    void folds_movements() {
+        asset(ALICE, TRY, "1000", "1000");
+        asset(ALICE, AAPL, "0", "0");
+        asset(BOB, TRY, "50", "50");
+        movement(ALICE, TRY, "0", "-100");     // BUY reserved
+        movement(ALICE, TRY, "-100", "0");     // ... and matched
+        movement(ALICE, AAPL, "10", "10");
+        movement(BOB, TRY, "0", "-20");
+        movement(BOB, TRY, "0", "20");         // canceled
+
+        assertEquals(5, compactor(2).compact());
+
+        assertBalance(ALICE, TRY, "900", "900");
+        assertBalance(ALICE, AAPL, "10", "10");
+        assertBalance(BOB, TRY, "50", "50");
+        assertEquals(0, jdbc.queryForObject("select count(*) from balance_movement where not compacted", Integer.class));
+        assertEquals(5, jdbc.queryForObject("select count(*) from balance_movement", Integer.class));
+        assertEquals(5.0, registry.counter("ledger.movements.compacted").count());
+        assertEquals(0, compactor(2).compact(), "nothing left to fold");
+    }
+
+    @Test
+    @DisplayName("compact: a movement without a snapshot row starts one instead of stalling the ledger")
+    void creates_missing_snapshot() {
+        movement(BOB, AAPL, "3", "3");
+
+        assertEquals(1, compactor(10).compact());
+
+        assertBalance(BOB, AAPL, "3", "3");
+    }
+
+    private void asset(UUID customer, int instrument, String size, String usable) {
+        jdbc.update("insert into asset values (?, ?, ?, ?, ?, 0, null)", UuidV7Generator.next(), customer, instrument,
+                new BigDecimal(size), new BigDecimal(usable));
+    }
+
+    private void movement(UUID customer, int instrument, String size, String usable) {
+        jdbc.update("insert into balance_movement values (?, ?, ?, ?, ?, 'ORDER_MATCHED', null, false, current_timestamp)",
+                UuidV7Generator.next(), customer, instrument, new BigDecimal(size), new BigDecimal(usable));
+    }
+
+    private void assertBalance(UUID customer, int instrument, String size, String usable) {
+        BigDecimal[] row = jdbc.queryForObject(
+                "select size, usable_size from asset where customer_id = ? and instrument_id = ?",
+                (rs, i) -> new BigDecimal[] { rs.getBigDecimal(1), rs.getBigDecimal(2) }, customer, instrument);
+        assertEquals(0, new BigDecimal(size).compareTo(row[0]), "size");
+        assertEquals(0, new BigDecimal(usable).compareTo(row[1]), "usable");
+    }
+}
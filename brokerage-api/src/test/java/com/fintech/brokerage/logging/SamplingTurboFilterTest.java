@@ -0,0 +1,52 @@
+package com.fintech.brokerage.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger sampled = context.getLogger("com.fintech.brokerage.service.impl.OrderServiceImpl");
+    private final Logger other = context.getLogger("com.fintech.brokerage.service.impl.AssetServiceImpl");
+
+    private SamplingTurboFilter filter(int keepOneIn) {
+        SamplingTurboFilter f = new SamplingTurboFilter();
+        f.setLoggers(" com.fintech.brokerage.controller.OrderController, com.fintech.brokerage.service.impl.OrderServiceImpl ");
+        f.setKeepOneIn(keepOneIn);
+        return f;
+    }
+
+    @Test
+    @DisplayName("decide: INFO of sampled loggers kept about one in N, other loggers untouched")
+    void samples_info_of_configured_loggers() {
+        SamplingTurboFilter f = filter(10);
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (f.decide(null, sampled, Level.INFO, "Created {}", new Object[] { i }, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+            assertEquals(FilterReply.NEUTRAL, f.decide(null, other, Level.INFO, "Listed {}", new Object[] { i }, null));
+        }
+        assertTrue(kept > 800 && kept < 1200, "kept " + kept);
+    }
+
+    @Test
+    @DisplayName("decide: WARN, ERROR and isEnabled checks always pass, keepOneIn=1 keeps everything")
+    void never_drops_warnings_or_enabled_checks() {
+        SamplingTurboFilter f = filter(1_000_000);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(FilterReply.NEUTRAL, f.decide(null, sampled, Level.WARN, "Lost {}", null, null));
+            assertEquals(FilterReply.NEUTRAL, f.decide(null, sampled, Level.ERROR, "Failed", null, null));
+            assertEquals(FilterReply.NEUTRAL, f.decide(null, sampled, Level.INFO, null, null, null));
+        }
+        SamplingTurboFilter keepAll = filter(1);
+        assertEquals(FilterReply.NEUTRAL, keepAll.decide(null, sampled, Level.INFO, "Created {}", null, null));
+    }
+}
@@ -0,0 +1,118 @@
+package com.fintech.brokerage.reconcile;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.Order;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.ledger.BalanceLedger;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.repo.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceRepairerTest {
+
+    private static final String TRY = AssetType.TRY.getSymbol();
+    private static final String AAPL = AssetType.AAPL.getSymbol();
+
+    @Mock private BalanceLedger ledger;
+    @Mock private OrderRepository orderRepo;
+    @Mock private CustomerRepository customerRepo;
+
+    @InjectMocks private BalanceRepairer repairer;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer("alice", "{bcrypt}hash", Role.USER);
+        customer.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        when(customerRepo.getReferenceById(customer.getId())).thenReturn(customer);
+    }
+
+    @Test
+    @DisplayName("repair(TRY): usable = size - rounded notional of pending BUY orders, as a REPAIR movement")
+    void repairs_cash_from_pending_buys() {
+        Balance cash = balance(TRY, "1000.0000", "1000.0000");
+        when(ledger.balance(customer, TRY)).thenReturn(Optional.of(cash));
+        when(ledger.lockBalance(customer, TRY)).thenReturn(cash);
+        when(orderRepo.findByCustomerIdAndStatus(customer, OrderStatus.PENDING)).thenReturn(List.of(
+                new Order(customer, AAPL, OrderSide.BUY, bd("3"), bd("10.00005"), OrderStatus.PENDING),
+                new Order(customer, AAPL, OrderSide.SELL, bd("1"), bd("20"), OrderStatus.PENDING)));
+
+        assertEquals(Drift.Repair.REPAIRED, repairer.repair(customer.getId(), TRY));
+
+        verify(ledger).record(eq(customer), eq(TRY), eq(BigDecimal.ZERO),
+                argThat(delta -> delta.compareTo(bd("-30.0002")) == 0), eq(MovementReason.REPAIR), isNull());
+    }
+
+    @Test
+    @DisplayName("repair(asset): usable = size - pending SELL size; nothing is written when already right")
+    void leaves_correct_balance_alone() {
+        Balance aapl = balance(AAPL, "5", "3");
+        when(ledger.balance(customer, AAPL)).thenReturn(Optional.of(aapl));
+        when(ledger.lockBalance(customer, AAPL)).thenReturn(aapl);
+        when(orderRepo.findByCustomerIdAndStatus(customer, OrderStatus.PENDING)).thenReturn(List.of(
+                new Order(customer, AAPL, OrderSide.SELL, bd("2"), bd("20"), OrderStatus.PENDING),
+                new Order(customer, AAPL, OrderSide.BUY, bd("4"), bd("20"), OrderStatus.PENDING)));
+
+        assertEquals(Drift.Repair.REPAIRED, repairer.repair(customer.getId(), AAPL));
+
+        verify(ledger, never()).record(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("repair: a holding smaller than its pending SELL orders is left for manual review")
+    void unrepairable_when_oversold() {
+        Balance aapl = balance(AAPL, "1", "0");
+        when(ledger.balance(customer, AAPL)).thenReturn(Optional.of(aapl));
+        when(ledger.lockBalance(customer, AAPL)).thenReturn(aapl);
+        when(orderRepo.findByCustomerIdAndStatus(customer, OrderStatus.PENDING)).thenReturn(List.of(
+                new Order(customer, AAPL, OrderSide.SELL, bd("2"), bd("20"), OrderStatus.PENDING)));
+
+        assertEquals(Drift.Repair.UNREPAIRABLE, repairer.repair(customer.getId(), AAPL));
+
+        verify(ledger, never()).record(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("repair: a refund committed between the balance and order reads skips the repair")
+    void skips_when_balance_moved() {
+        when(ledger.balance(customer, TRY)).thenReturn(
+                Optional.of(balance(TRY, "100", "70")), Optional.of(balance(TRY, "100", "100")));
+        when(ledger.lockBalance(customer, TRY)).thenReturn(balance(TRY, "100", "70"));
+        when(orderRepo.findByCustomerIdAndStatus(customer, OrderStatus.PENDING)).thenReturn(List.of());
+
+        assertEquals(Drift.Repair.CHANGED_CONCURRENTLY, repairer.repair(customer.getId(), TRY));
+
+        verify(ledger, never()).record(any(), any(), any(), any(), any(), any());
+    }
+
+    private Balance balance(String assetName, String size, String usable) {
+        return new Balance(UUID.randomUUID(), customer.getId(), assetName, bd(size), bd(usable));
+    }
+
+    private static BigDecimal bd(String v) {
+        return new BigDecimal(v);
+    }
+}
@@ -0,0 +1,59 @@
+package com.fintech.brokerage.reconcile;
+
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.ledger.BalanceLedger;
+import com.fintech.brokerage.repo.AssetRepository;
+import com.fintech.brokerage.repo.CustomerRepository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repairs a drifted balance through the real {@link BalanceRepairer} and ledger, against the
+ * embedded database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconcile;DB_CLOSE_DELAY=-1",
+        "app.reconcile.enabled=false"
+})
+class ReconcilerRepairTest {
+
+    private static final String TRY = AssetType.TRY.getSymbol();
+
+    @Autowired private Reconciler reconciler;
+    @Autowired private BalanceLedger ledger;
+    @Autowired private CustomerRepository customerRepo;
+    @Autowired private AssetRepository assetRepo;
+
+    @Test
+    @DisplayName("run(full, repair): resets the drifted usable balance, and the next full run finds nothing")
+    void repair_fixes_the_row() {
+        Customer customer = customerRepo.save(new Customer("reconcile-repair", "n/a", Role.USER));
+        assetRepo.save(new Asset(customer, TRY, new BigDecimal("1000"), new BigDecimal("900")));
+
+        ReconciliationReport report = reconciler.run(true, true);
+
+        List<Drift> drifts = report.drifts().stream().filter(d -> d.customerId().equals(customer.getId())).toList();
+        assertEquals(1, drifts.size());
+        assertEquals(TRY, drifts.get(0).assetName());
+        assertEquals(0, drifts.get(0).actualReserved().compareTo(new BigDecimal("100")));
+        assertEquals(Drift.Repair.REPAIRED, drifts.get(0).repair());
+
+        Balance balance = ledger.balance(customer, TRY).orElseThrow();
+        assertEquals(0, balance.usableSize().compareTo(new BigDecimal("1000")));
+        assertEquals(0, balance.size().compareTo(new BigDecimal("1000")));
+
+        assertTrue(reconciler.run(true, false).drifts().stream().noneMatch(d -> d.customerId().equals(customer.getId())));
+    }
+}
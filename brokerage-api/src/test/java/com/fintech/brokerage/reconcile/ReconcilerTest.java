@@ -0,0 +1,210 @@
+package com.fintech.brokerage.reconcile;
+
+import com.fintech.brokerage.entity.id.UuidV7Generator;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the reconciliation queries against an embedded H2 database with the columns they read;
+ * repairs go to a mocked {@link BalanceRepairer}.
+ */
+class ReconcilerTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("80000000-0000-0000-0000-000000000002");
+    private static final OffsetDateTime LONG_AGO = OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private JdbcTemplate jdbc;
+    private InstrumentRegistry instruments;
+    private BalanceRepairer repairer;
+    /** Runs once right after the next read of the reserved balances, to fake a concurrent order. */
+    private Runnable afterReservedRead;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch, Object... args) {
+                super.query(sql, rch, args);
+                Runnable hook = afterReservedRead;
+                if (hook != null && sql.contains("from asset a")) {
+                    afterReservedRead = null;
+                    hook.run();
+                }
+            }
+        };
+        jdbc.execute("""
+                create table instrument (id integer generated by default as identity primary key,
+                    symbol varchar(16) not null unique, name varchar(255), listed_at timestamp(6) with time zone)""");
+        jdbc.execute("""
+                create table asset (customer_id uuid, instrument_id int, size numeric(19,4),
+                    usable_size numeric(19,4), updated_at timestamp(6) with time zone,
+                    primary key (customer_id, instrument_id))""");
+        jdbc.execute("""
+                create table balance_movement (id uuid primary key, customer_id uuid, instrument_id int,
+                    size_delta numeric(19,4), usable_delta numeric(19,4), compacted boolean)""");
+        jdbc.execute("""
+                create table orders (id uuid primary key, customer_id uuid, instrument_id int,
+                    order_side varchar(4), size numeric(19,4), price numeric(19,4), status varchar(10))""");
+        ShardRouter router = new ShardRouter(new ShardMap(List.of()));
+        instruments = new InstrumentRegistry(jdbc, router, mock(ApplicationEventPublisher.class));
+        instruments.afterSingletonsInstantiated();
+        repairer = mock(BalanceRepairer.class);
+    }
+
+    private Reconciler reconciler() {
+        return new Reconciler(jdbc, router(), repairer, instruments, new SimpleMeterRegistry(),
+                false, 4, 2, 0, false, true, 100);
+    }
+
+    private static ShardRouter router() {
+        return new ShardRouter(new ShardMap(List.of()));
+    }
+
+    @Test
+    @DisplayName("run(full): reports a usable balance that disagrees with the pending orders, counting every customer once")
+    void full_run_reports_drift() {
+        asset(ALICE, "TRY", "1000", "970");      // 30 reserved
+        order(ALICE, "AAPL", "BUY", "2", "10");  // 20 expected
+        asset(ALICE, "AAPL", "5", "2");
+        order(ALICE, "AAPL", "SELL", "3", "11");
+        asset(BOB, "TRY", "500", "500");
+
+        ReconciliationReport report = reconciler().run(true, false);
+
+        assertEquals(ReconciliationReport.Mode.FULL, report.mode());
+        assertEquals(2, report.customersChecked());
+        assertEquals(List.of(new Drift(ALICE, "TRY", bd("20"), bd("30"), Drift.Repair.NONE)), normalized(report));
+        verifyNoInteractions(repairer);
+    }
+
+    @Test
+    @DisplayName("run: uncompacted ledger movements count towards the reserved balance")
+    void includes_ledger_tail() {
+        asset(ALICE, "TRY", "1000", "1000");
+        order(ALICE, "AAPL", "BUY", "2", "10");
+        jdbc.update("insert into balance_movement values (?, ?, ?, 0, -20, false)", UuidV7Generator.next(), ALICE,
+                instruments.idOf("TRY"));
+
+        assertEquals(0, reconciler().run(true, false).driftCount());
+    }
+
+    @Test
+    @DisplayName("run: a drift that is gone on the second check is not reported")
+    void recheck_drops_transient_drift() {
+        asset(ALICE, "TRY", "1000", "980");
+        order(ALICE, "AAPL", "BUY", "2", "10");
+        // an order placed between the two queries of the first pass: reservation read before, order after
+        afterReservedRead = () -> {
+            jdbc.update("update asset set usable_size = 970 where customer_id = ?", ALICE);
+            order(ALICE, "AAPL", "BUY", "1", "10");
+        };
+
+        ReconciliationReport report = reconciler().run(true, false);
+
+        assertNull(afterReservedRead, "the hook ran");
+        assertEquals(0, report.driftCount());
+    }
+
+    @Test
+    @DisplayName("run(incremental): only checks customers whose balances changed since the previous run")
+    void incremental_skips_unchanged_customers() {
+        asset(ALICE, "TRY", "1000", "1000");
+        asset(BOB, "TRY", "500", "500");
+        Reconciler reconciler = reconciler();
+        assertEquals(2, reconciler.run(true, false).customersChecked());
+
+        // Alice drifts without a trace in updated_at or the ledger; Bob gets a new movement
+        jdbc.update("update asset set usable_size = 990 where customer_id = ?", ALICE);
+        jdbc.update("insert into balance_movement values (?, ?, ?, 5, 5, false)", UuidV7Generator.next(), BOB,
+                instruments.idOf("TRY"));
+
+        ReconciliationReport incremental = reconciler.run(false, false);
+        assertEquals(ReconciliationReport.Mode.INCREMENTAL, incremental.mode());
+        assertEquals(1, incremental.customersChecked());
+        assertEquals(0, incremental.driftCount());
+
+        assertEquals(1, reconciler.run(true, false).driftCount(), "a full run still finds it");
+    }
+
+    @Test
+    @DisplayName("run(repair): hands confirmed drifts to the repairer and reports each outcome")
+    void repair_confirmed_drifts() {
+        asset(ALICE, "TRY", "1000", "990");
+        asset(BOB, "TRY", "500", "490");
+        when(repairer.repair(ALICE, "TRY")).thenReturn(Drift.Repair.REPAIRED);
+        when(repairer.repair(BOB, "TRY")).thenThrow(new PessimisticLockingFailureException("locked"));
+
+        ReconciliationReport report = reconciler().run(true, true);
+
+        assertEquals(2, report.driftCount());
+        assertEquals(1, report.repaired());
+        assertEquals(Map.of(ALICE, Drift.Repair.REPAIRED, BOB, Drift.Repair.CHANGED_CONCURRENTLY),
+                report.drifts().stream().collect(Collectors.toMap(Drift::customerId, Drift::repair)));
+    }
+
+    @Test
+    @DisplayName("partitionBounds: ranges are contiguous and cover the whole UUID space in unsigned order")
+    void partitions_cover_uuid_space() {
+        for (int partitions : new int[] { 1, 3, 16 }) {
+            List<UUID[]> bounds = Reconciler.partitionBounds(partitions);
+
+            assertEquals(partitions, bounds.size());
+            assertEquals(new UUID(0L, 0L), bounds.get(0)[0]);
+            assertEquals(new UUID(-1L, -1L), bounds.get(partitions - 1)[1]);
+            for (int i = 0; i < partitions; i++) {
+                UUID lo = bounds.get(i)[0];
+                UUID hi = bounds.get(i)[1];
+                assertTrue(Long.compareUnsigned(lo.getMostSignificantBits(), hi.getMostSignificantBits()) < 0);
+                if (i > 0) {
+                    assertEquals(bounds.get(i - 1)[1].getMostSignificantBits() + 1, lo.getMostSignificantBits());
+                }
+            }
+        }
+    }
+
+    /** Drifts with amounts at scale 0, for comparing with literals. */
+    private static List<Drift> normalized(ReconciliationReport report) {
+        return report.drifts().stream().map(d -> new Drift(d.customerId(), d.assetName(),
+                d.expectedReserved().setScale(0), d.actualReserved().setScale(0), d.repair())).toList();
+    }
+
+    private void asset(UUID customerId, String symbol, String size, String usable) {
+        jdbc.update("insert into asset values (?, ?, ?, ?, ?)", customerId, instruments.idOf(symbol),
+                new BigDecimal(size), new BigDecimal(usable), LONG_AGO);
+    }
+
+    private void order(UUID customerId, String symbol, String side, String size, String price) {
+        jdbc.update("insert into orders values (?, ?, ?, ?, ?, ?, 'PENDING')", UUID.randomUUID(), customerId,
+                instruments.idOf(symbol), side, new BigDecimal(size), new BigDecimal(price));
+    }
+
+    private static BigDecimal bd(String v) {
+        return new BigDecimal(v);
+    }
+}
@@ -0,0 +1,103 @@
+package com.fintech.brokerage.security;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.event.CustomerChangedEvent;
+import com.fintech.brokerage.event.CustomerChangedEvent.ChangeType;
+import com.fintech.brokerage.repo.CustomerRepository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalDirectoryTest {
+
+    @Mock private CustomerRepository customerRepo;
+
+    private final UUID aliceId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Test
+    @DisplayName("preload: lookups by username and id are served from memory")
+    void preload_serves_from_memory() {
+        when(customerRepo.findAllPrincipals())
+                .thenReturn(List.of(new CustomerPrincipal(aliceId, "alice", Role.USER, true)));
+
+        PrincipalDirectory directory = new PrincipalDirectory(customerRepo, true, 60_000, 100);
+
+        assertEquals(aliceId, directory.findByUsername("alice").orElseThrow().customerId());
+        assertEquals("alice", directory.findById(aliceId).orElseThrow().username());
+        verify(customerRepo, never()).findByUsername(any());
+        verify(customerRepo, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("miss: reads through to the repository once and remembers the result")
+    void miss_reads_through() {
+        Customer bob = new Customer("bob", "{bcrypt}hash", Role.USER);
+        bob.setId(UUID.randomUUID());
+        when(customerRepo.findByUsername("bob")).thenReturn(Optional.of(bob));
+
+        PrincipalDirectory directory = new PrincipalDirectory(customerRepo, false, 60_000, 100);
+
+        assertTrue(directory.findByUsername("bob").isPresent());
+        assertTrue(directory.findByUsername("bob").isPresent());
+        assertTrue(directory.findById(bob.getId()).isPresent());
+        verify(customerRepo, times(1)).findByUsername("bob");
+        verify(customerRepo, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("change event: replaces the principal so cached ones are no longer current")
+    void change_event_replaces_principal() {
+        CustomerPrincipal alice = new CustomerPrincipal(aliceId, "alice", Role.USER, true);
+        when(customerRepo.findAllPrincipals()).thenReturn(List.of(alice));
+        PrincipalDirectory directory = new PrincipalDirectory(customerRepo, true, 60_000, 100);
+        assertTrue(directory.isCurrent(alice));
+
+        directory.onCustomerChanged(new CustomerChangedEvent(aliceId, "alice", Role.USER, false, ChangeType.UPDATED));
+
+        assertFalse(directory.isCurrent(alice));
+        assertFalse(directory.findByUsername("alice").orElseThrow().enabled());
+
+        directory.onCustomerChanged(new CustomerChangedEvent(aliceId, "alice", Role.USER, false, ChangeType.DELETED));
+        assertTrue(directory.findByUsername("alice").isEmpty());
+        assertTrue(directory.findById(aliceId).isEmpty());
+        verify(customerRepo, never()).findByUsername(any());
+        verify(customerRepo, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("miss: an unknown customer is looked up once until the ttl passes or it is created")
+    void miss_is_remembered() throws InterruptedException {
+        UUID ghostId = UUID.randomUUID();
+        when(customerRepo.findByUsername("ghost")).thenReturn(Optional.empty());
+        when(customerRepo.findById(ghostId)).thenReturn(Optional.empty());
+        PrincipalDirectory directory = new PrincipalDirectory(customerRepo, false, 60_000, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(directory.findByUsername("ghost").isEmpty());
+            assertTrue(directory.findById(ghostId).isEmpty());
+        }
+        verify(customerRepo, times(1)).findByUsername("ghost");
+        verify(customerRepo, times(1)).findById(ghostId);
+
+        directory.onCustomerChanged(new CustomerChangedEvent(ghostId, "ghost", Role.USER, true, ChangeType.CREATED));
+        assertEquals(ghostId, directory.findByUsername("ghost").orElseThrow().customerId());
+
+        PrincipalDirectory shortTtl = new PrincipalDirectory(customerRepo, false, 20, 100);
+        assertTrue(shortTtl.findByUsername("ghost").isEmpty());
+        Thread.sleep(40);
+        assertTrue(shortTtl.findByUsername("ghost").isEmpty());
+        verify(customerRepo, times(3)).findByUsername("ghost");
+    }
+}
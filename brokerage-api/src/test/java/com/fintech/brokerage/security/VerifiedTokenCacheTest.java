@@ -0,0 +1,78 @@
+package com.fintech.brokerage.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static Authentication auth(String username) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of());
+    }
+
+    @Test
+    @DisplayName("get: returns the cached authentication until the token expires")
+    void hit_until_expiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Authentication a = auth("alice");
+
+        cache.put("token-a", a, Instant.now().plusSeconds(60));
+
+        assertSame(a, cache.get("token-a"));
+        assertNull(cache.get("token-b"), "unknown token must miss");
+    }
+
+    @Test
+    @DisplayName("put: already expired tokens are never cached")
+    void expired_not_cached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        cache.put("token-a", auth("alice"), Instant.now().minusSeconds(1));
+        cache.put("token-b", auth("bob"), null);
+
+        assertNull(cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("put: a full cache evicts to admit new live tokens and never grows past maxEntries")
+    void bounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        Instant exp = Instant.now().plusSeconds(60);
+
+        cache.put("t1", auth("u1"), exp);
+        cache.put("t2", auth("u2"), exp);
+        cache.put("t3", auth("u3"), exp);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("t3"), "a full cache must still admit new tokens");
+        assertTrue(cache.get("t1") == null ^ cache.get("t2") == null, "exactly one older token is evicted");
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("n" + i, auth("n" + i), exp);
+            assertNotNull(cache.get("n" + i));
+        }
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("put: a full cache drops expired tokens before evicting live ones")
+    void evicts_expired_first() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+
+        cache.put("short", auth("u1"), Instant.now().plusMillis(50));
+        cache.put("live", auth("u2"), Instant.now().plusSeconds(60));
+        Thread.sleep(100);
+        cache.put("new", auth("u3"), Instant.now().plusSeconds(60));
+
+        assertNotNull(cache.get("live"));
+        assertNotNull(cache.get("new"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.fintech.brokerage.security.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW = 1_000_000_000L;
+    private static final long MS = 1_000_000L;
+
+    private long now;
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        now = 0;
+        return new AdaptiveConcurrencyLimiter(initial, min, max, WINDOW, 1, 1.5, 0.5, now);
+    }
+
+    /** Fills every slot, completes them all with the given latency and closes the window. */
+    private void saturatedWindow(AdaptiveConcurrencyLimiter l, long rttNanos) {
+        int n = l.getLimit();
+        for (int i = 0; i < n; i++) {
+            assertTrue(l.tryAcquire());
+        }
+        now += WINDOW;
+        for (int i = 0; i < n; i++) {
+            l.release(rttNanos, now);
+        }
+    }
+
+    @Test
+    @DisplayName("tryAcquire: rejects once in-flight reaches the limit and frees slots on release")
+    void rejects_above_limit() {
+        AdaptiveConcurrencyLimiter l = limiter(2, 1, 10);
+
+        assertTrue(l.tryAcquire());
+        assertTrue(l.tryAcquire());
+        assertFalse(l.tryAcquire());
+        assertEquals(2, l.getInFlight());
+
+        l.releaseWithoutSample();
+        assertTrue(l.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("limit grows while latency stays at its baseline and demand fills the limit")
+    void grows_when_latency_stable() {
+        AdaptiveConcurrencyLimiter l = limiter(10, 1, 100);
+
+        for (int i = 0; i < 10; i++) {
+            saturatedWindow(l, 5 * MS);
+        }
+
+        assertTrue(l.getLimit() > 10, "limit was " + l.getLimit());
+        assertTrue(l.getLimit() <= 100);
+    }
+
+    @Test
+    @DisplayName("limit shrinks toward the minimum when latency climbs far above its baseline")
+    void shrinks_when_latency_rises() {
+        AdaptiveConcurrencyLimiter l = limiter(50, 5, 100);
+        saturatedWindow(l, 5 * MS);
+        int before = l.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            saturatedWindow(l, 100 * MS);
+        }
+
+        assertTrue(l.getLimit() < before, "limit " + l.getLimit() + " should drop below " + before);
+        assertTrue(l.getLimit() >= 5);
+    }
+
+    @Test
+    @DisplayName("limit is left alone when demand stays well below it")
+    void unchanged_when_app_limited() {
+        AdaptiveConcurrencyLimiter l = limiter(40, 1, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(l.tryAcquire());
+            now += WINDOW;
+            l.release(5 * MS, now);
+        }
+
+        assertEquals(40, l.getLimit());
+    }
+}
@@ -0,0 +1,102 @@
+package com.fintech.brokerage.security.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long T0 = 1_750_000_000_000L;
+
+    @Test
+    @DisplayName("tryAcquire: drains capacity, then reports the wait until the next token")
+    void drains_then_rejects() {
+        TokenBucket bucket = new TokenBucket(3, 10, T0);
+
+        assertEquals(2, bucket.tryAcquire(T0));
+        assertEquals(1, bucket.tryAcquire(T0));
+        assertEquals(0, bucket.tryAcquire(T0));
+
+        // 10 tokens/s -> one token every 100 ms
+        assertEquals(-100, bucket.tryAcquire(T0));
+        assertEquals(-40, bucket.tryAcquire(T0 + 60));
+    }
+
+    @Test
+    @DisplayName("tryAcquire: partial refills accumulate across calls without losing fractions")
+    void refill_is_exact() {
+        TokenBucket bucket = new TokenBucket(1, 10, T0);
+        assertEquals(0, bucket.tryAcquire(T0));
+
+        assertTrue(bucket.tryAcquire(T0 + 50) < 0);
+        assertTrue(bucket.tryAcquire(T0 + 99) < 0);
+        assertEquals(0, bucket.tryAcquire(T0 + 100));
+    }
+
+    @Test
+    @DisplayName("tryAcquire: refill is capped at capacity after a long idle period")
+    void refill_capped() {
+        TokenBucket bucket = new TokenBucket(2, 5, T0);
+        bucket.tryAcquire(T0);
+        bucket.tryAcquire(T0);
+
+        assertTrue(bucket.isFull(T0 + TimeUnit.DAYS.toMillis(365)));
+        assertEquals(1, bucket.tryAcquire(T0 + TimeUnit.DAYS.toMillis(365)));
+    }
+
+    @Test
+    @DisplayName("tryAcquire: a clock going backwards does not mint tokens")
+    void clock_skew() {
+        TokenBucket bucket = new TokenBucket(1, 1, T0);
+        assertEquals(0, bucket.tryAcquire(T0));
+
+        assertTrue(bucket.tryAcquire(T0 - 5_000) < 0);
+        assertTrue(bucket.tryAcquire(T0 + 500) < 0);
+        assertEquals(0, bucket.tryAcquire(T0 + 1_000));
+    }
+
+    @Test
+    @DisplayName("tryAcquire: concurrent callers never get more than capacity")
+    void concurrent_never_oversubscribes() throws Exception {
+        int capacity = 1_000;
+        TokenBucket bucket = new TokenBucket(capacity, 1, T0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < 8; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(T0) >= 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(capacity, granted.get());
+    }
+
+    @Test
+    @DisplayName("constructor: rejects capacities that do not fit the packed state")
+    void invalid_config() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, T0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(TokenBucket.MAX_CAPACITY + 1, 1, T0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0, T0));
+    }
+}
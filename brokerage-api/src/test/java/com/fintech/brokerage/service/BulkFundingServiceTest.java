@@ -0,0 +1,185 @@
+package com.fintech.brokerage.service;
+
+import com.fintech.brokerage.event.AccountsChangedEvent;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.service.impl.BulkFundingServiceImpl;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the funding batches against an embedded H2 database with the columns they touch.
+ */
+class BulkFundingServiceTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID CAROL = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    private JdbcTemplate jdbc;
+    private ApplicationEventPublisher publisher;
+    private InstrumentRegistry instruments;
+    private BulkFundingService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("""
+                create table instrument (id integer generated by default as identity primary key,
+                    symbol varchar(16) not null unique, name varchar(255), listed_at timestamp(6) with time zone)""");
+        jdbc.execute("create table customer (id uuid primary key)");
+        jdbc.execute("""
+                create table asset (id uuid primary key, customer_id uuid references customer, instrument_id int,
+                    size numeric(19,4), usable_size numeric(19,4), version bigint,
+                    updated_at timestamp(6) with time zone, unique (customer_id, instrument_id))""");
+        jdbc.execute("""
+                create table cash_posting (id uuid primary key, customer_id uuid references customer,
+                    idempotency_key varchar(80), type varchar(16), amount numeric(19,4),
+                    created_at timestamp(6) with time zone, unique (customer_id, idempotency_key))""");
+        jdbc.execute("""
+                create table balance_movement (id uuid primary key, customer_id uuid, instrument_id int,
+                    size_delta numeric(19,4), usable_delta numeric(19,4), reason varchar(16), reference_id uuid,
+                    compacted boolean, created_at timestamp(6) with time zone)""");
+        for (UUID c : List.of(ALICE, BOB, CAROL)) {
+            jdbc.update("insert into customer values (?)", c);
+        }
+        publisher = mock(ApplicationEventPublisher.class);
+        ShardRouter router = new ShardRouter(new ShardMap(List.of()));
+        instruments = new InstrumentRegistry(jdbc, router, publisher);
+        instruments.afterSingletonsInstantiated();
+        service = new BulkFundingServiceImpl(jdbc, router, instruments, new DataSourceTransactionManager(ds), publisher,
+                new SimpleMeterRegistry(), 2, 100, 10);
+    }
+
+    @Test
+    @DisplayName("fund: nets postings per customer, creates missing balances and rejects uncovered withdrawals")
+    void nets_and_applies() {
+        tryBalance(ALICE, "100", "40");
+        tryBalance(BOB, "10", "10");
+
+        BulkFundingService.Result result = service.fund(new StringReader("""
+                customerId,amount
+                %1$s,50
+                %2$s,-30
+                # payroll
+                %1$s,-20.5
+                %3$s,1000.0001
+                %2$s,5
+                """.formatted(ALICE, BOB, CAROL)), "run-1");
+
+        assertEquals(5, result.postings());
+        assertEquals(3, result.customers());
+        assertEquals(2, result.applied());
+        assertEquals(List.of(BOB), result.rejectedCustomers());
+        assertEquals(0, result.netAmount().compareTo(new BigDecimal("1029.5001")));
+
+        assertBalance(ALICE, "129.5", "69.5");
+        assertBalance(BOB, "10", "10");
+        assertBalance(CAROL, "1000.0001", "1000.0001");
+        assertEquals(1L, jdbc.queryForObject("select version from asset where customer_id = ?", Long.class, ALICE));
+        assertEquals(List.of("DEPOSIT", "DEPOSIT"),
+                jdbc.queryForList("select type from cash_posting order by customer_id", String.class));
+        // one movement per posting, already part of the snapshot row
+        assertEquals(List.of("DEPOSIT:29.5000:TRUE", "DEPOSIT:1000.0001:TRUE"), jdbc.queryForList("""
+                select m.reason || ':' || m.usable_delta || ':' || m.compacted from balance_movement m
+                  join cash_posting p on p.id = m.reference_id and p.customer_id = m.customer_id
+                 where m.size_delta = m.usable_delta
+                 order by m.customer_id""", String.class));
+        // batches of two: Alice and Bob, then Carol
+        verify(publisher).publishEvent(new AccountsChangedEvent(Set.of(ALICE)));
+        verify(publisher).publishEvent(new AccountsChangedEvent(Set.of(CAROL)));
+        verify(publisher, times(2)).publishEvent(any(AccountsChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("fund: a rerun with the same key only applies what the first run rejected")
+    void rerun_is_idempotent() {
+        String file = "%s,25\n%s,-5\n".formatted(ALICE, BOB);
+        assertEquals(1, service.fund(new StringReader(file), "run-1").applied());
+
+        tryBalance(BOB, "5", "5");
+        BulkFundingService.Result rerun = service.fund(new StringReader(file), "run-1");
+
+        assertEquals(1, rerun.alreadyApplied());
+        assertEquals(1, rerun.applied());
+        assertBalance(ALICE, "25", "25");
+        assertBalance(BOB, "0", "0");
+        assertEquals(List.of("DEPOSIT", "WITHDRAWAL"),
+                jdbc.queryForList("select reason from balance_movement order by customer_id", String.class),
+                "the rerun records only the posting it applied");
+    }
+
+    @Test
+    @DisplayName("fund: a bad line rejects the whole file before anything is applied")
+    void validates_whole_file() {
+        IllegalArgumentException bad = assertThrows(IllegalArgumentException.class,
+                () -> service.fund(new StringReader("%s,10\n%s,1.00001\n".formatted(ALICE, BOB)), "run-1"));
+        assertEquals("Line 2: amount has more than 4 decimal places", bad.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> service.fund(new StringReader("%s,10".formatted(ALICE)), " "));
+
+        assertEquals(0, jdbc.queryForObject("select count(*) from asset", Integer.class));
+        assertEquals(0, jdbc.queryForObject("select count(*) from cash_posting", Integer.class));
+    }
+
+    @Test
+    @DisplayName("fund: an unknown customer is rejected, the rest of the file is applied")
+    void rejects_unknown_customer() {
+        UUID stranger = UUID.fromString("00000000-0000-0000-0000-000000000009");
+
+        BulkFundingService.Result result = service.fund(
+                new StringReader("%s,10\n%s,10\n%s,10\n".formatted(ALICE, stranger, BOB)), "run-1");
+
+        assertEquals(2, result.applied());
+        assertEquals(List.of(stranger), result.rejectedCustomers());
+        assertBalance(ALICE, "10", "10");
+        assertBalance(BOB, "10", "10");
+    }
+
+    @Test
+    @DisplayName("fund: a withdrawal is checked against the balance including uncompacted ledger movements")
+    void withdrawal_sees_ledger_tail() {
+        tryBalance(ALICE, "100", "100");
+        tryBalance(BOB, "100", "100");
+        // an order reservation of 80 that is not compacted into Alice's row yet
+        jdbc.update("insert into balance_movement values (?, ?, ?, 0, -80, 'ORDER_PLACED', null, false, current_timestamp)",
+                UUID.randomUUID(), ALICE, instruments.idOf("TRY"));
+
+        BulkFundingService.Result result = service.fund(
+                new StringReader("%s,-50\n%s,-50\n".formatted(ALICE, BOB)), "run-1");
+
+        assertEquals(List.of(ALICE), result.rejectedCustomers());
+        assertBalance(ALICE, "100", "100");
+        assertBalance(BOB, "50", "50");
+    }
+
+    private void tryBalance(UUID customer, String size, String usable) {
+        jdbc.update("insert into asset values (?, ?, ?, ?, ?, 0, null)", UUID.randomUUID(), customer,
+                instruments.idOf("TRY"), new BigDecimal(size), new BigDecimal(usable));
+    }
+
+    private void assertBalance(UUID customer, String size, String usable) {
+        var row = jdbc.queryForMap("select size, usable_size from asset where customer_id = ?", customer);
+        assertEquals(0, ((BigDecimal) row.get("SIZE")).compareTo(new BigDecimal(size)), "size of " + customer);
+        assertEquals(0, ((BigDecimal) row.get("USABLE_SIZE")).compareTo(new BigDecimal(usable)), "usable of " + customer);
+    }
+}
@@ -0,0 +1,106 @@
+package com.fintech.brokerage.service;
+
+import com.fintech.brokerage.entity.CashPosting;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.MovementReason;
+import com.fintech.brokerage.enums.PostingType;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.exception.InsufficientBalanceException;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.ledger.BalanceLedger;
+import com.fintech.brokerage.repo.CashPostingRepository;
+import com.fintech.brokerage.service.impl.CashServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CashServiceTest {
+
+    @Mock private CashPostingRepository postingRepo;
+    @Mock private BalanceLedger ledger;
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks private CashServiceImpl service;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer("alice", "{bcrypt}hash", Role.USER);
+        customer.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        lenient().when(postingRepo.saveAndFlush(any(CashPosting.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("deposit: records the posting and credits TRY with one movement, without a lock")
+    void deposit_credits() {
+        CashService.Result result = service.deposit(customer, new BigDecimal("250"), "k-1");
+
+        assertFalse(result.replayed());
+        assertEquals(PostingType.DEPOSIT, result.posting().getType());
+        verify(ledger).record(customer, "TRY", new BigDecimal("250"), new BigDecimal("250"), MovementReason.DEPOSIT,
+                result.posting().getId());
+        verify(ledger, never()).lockBalance(any(), any());
+    }
+
+    @Test
+    @DisplayName("withdraw: debits TRY when the locked usable balance covers it")
+    void withdraw_debits() {
+        when(ledger.lockBalance(customer, "TRY")).thenReturn(balance("100", "60"));
+
+        service.withdraw(customer, new BigDecimal("60"), "k-1");
+
+        verify(ledger).record(eq(customer), eq("TRY"), eq(new BigDecimal("-60")), eq(new BigDecimal("-60")),
+                eq(MovementReason.WITHDRAWAL), any());
+    }
+
+    @Test
+    @DisplayName("withdraw: rejects an amount the usable balance does not cover")
+    void withdraw_insufficient() {
+        when(ledger.lockBalance(customer, "TRY")).thenReturn(balance("100", "49.9999"));
+
+        assertThrows(InsufficientBalanceException.class, () -> service.withdraw(customer, new BigDecimal("50"), "k-1"));
+        verify(ledger, never()).record(any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("cash.withdrawals.rejected").count());
+    }
+
+    @Test
+    @DisplayName("deposit: a reused key replays the first posting, or fails if the request differs")
+    void key_replay() {
+        CashPosting first = new CashPosting(customer, "k-1", PostingType.DEPOSIT, new BigDecimal("250.0000"));
+        when(postingRepo.findByCustomerIdAndIdempotencyKey(customer, "k-1")).thenReturn(Optional.of(first));
+
+        CashService.Result replay = service.deposit(customer, new BigDecimal("250"), "k-1");
+        assertTrue(replay.replayed());
+        assertSame(first, replay.posting());
+
+        assertThrows(IllegalStateException.class, () -> service.withdraw(customer, new BigDecimal("250"), "k-1"));
+        assertThrows(IllegalStateException.class, () -> service.deposit(customer, new BigDecimal("25"), "k-1"));
+        verifyNoInteractions(ledger);
+    }
+
+    @Test
+    @DisplayName("deposit: rejects amounts below 0.0001 precision")
+    void rejects_fractions() {
+        assertThrows(IllegalArgumentException.class, () -> service.deposit(customer, new BigDecimal("1.00001"), "k-1"));
+    }
+
+    private Balance balance(String size, String usable) {
+        return new Balance(UUID.randomUUID(), customer.getId(), "TRY", new BigDecimal(size), new BigDecimal(usable));
+    }
+}
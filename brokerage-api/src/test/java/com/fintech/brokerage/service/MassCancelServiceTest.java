@@ -0,0 +1,142 @@
+package com.fintech.brokerage.service;
+
+import com.fintech.brokerage.event.AccountChangedEvent;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.service.impl.MassCancelServiceImpl;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the set-based statements against an embedded H2 database with the columns they touch.
+ */
+class MassCancelServiceTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private JdbcTemplate jdbc;
+    private ApplicationEventPublisher publisher;
+    private InstrumentRegistry instruments;
+    private MassCancelService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("""
+                create table instrument (id integer generated by default as identity primary key,
+                    symbol varchar(16) not null unique, name varchar(255), listed_at timestamp(6) with time zone)""");
+        jdbc.execute("""
+                create table orders (id int primary key, customer_id uuid, instrument_id int,
+                    order_side varchar(4), size numeric(19,4), price numeric(19,4), status varchar(10))""");
+        jdbc.execute("""
+                create table asset (customer_id uuid, instrument_id int, size numeric(19,4),
+                    usable_size numeric(19,4), version bigint, updated_at timestamp(6) with time zone,
+                    primary key (customer_id, instrument_id))""");
+        jdbc.execute("""
+                create table balance_movement (id uuid primary key, customer_id uuid, instrument_id int,
+                    size_delta numeric(19,4), usable_delta numeric(19,4), reason varchar(16), reference_id uuid,
+                    compacted boolean, created_at timestamp(6) with time zone)""");
+        publisher = mock(ApplicationEventPublisher.class);
+        ShardRouter router = new ShardRouter(new ShardMap(List.of()));
+        instruments = new InstrumentRegistry(jdbc, router, publisher);
+        instruments.afterSingletonsInstantiated();
+        service = new MassCancelServiceImpl(jdbc, router, instruments, new DataSourceTransactionManager(ds), publisher,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("cancelPending(asset): flips only PENDING orders of the asset and refunds with one movement per balance")
+    void cancels_by_asset() {
+        asset(ALICE, "TRY", "1000", "969.9998");
+        asset(ALICE, "AAPL", "5", "2");
+        asset(BOB, "AAPL", "1", "0");
+        order(1, ALICE, "AAPL", "BUY", "2", "10.0001", "PENDING");   // 20.0002
+        order(2, ALICE, "AAPL", "BUY", "1", "10", "PENDING");        // 10
+        order(3, ALICE, "AAPL", "SELL", "3", "12", "PENDING");
+        order(4, BOB, "AAPL", "SELL", "1", "12", "PENDING");
+        order(5, ALICE, "GOOGL", "BUY", "1", "5", "PENDING");
+        order(6, ALICE, "AAPL", "BUY", "1", "10", "MATCHED");
+
+        MassCancelService.Result result = service.cancelPending(null, " AAPL ");
+
+        assertEquals(4, result.canceledOrders());
+        assertEquals(3, result.refundedBalances());
+        assertEquals(0, usable(ALICE, "TRY").compareTo(new BigDecimal("1000")));
+        assertEquals(0, usable(ALICE, "AAPL").compareTo(new BigDecimal("5")));
+        assertEquals(0, usable(BOB, "AAPL").compareTo(new BigDecimal("1")));
+        assertEquals(List.of("CANCELED", "CANCELED", "CANCELED", "CANCELED", "PENDING", "MATCHED"),
+                jdbc.queryForList("select status from orders order by id", String.class));
+        assertEquals(3, jdbc.queryForObject(
+                "select count(*) from balance_movement where reason = 'ORDER_CANCELED' and not compacted", Integer.class));
+        assertEquals(0L, jdbc.queryForObject("select version from asset where customer_id = ? and instrument_id = ?",
+                Long.class, ALICE, instruments.idOf("TRY")), "refunds leave the snapshot row alone");
+        verify(publisher).publishEvent(new AccountChangedEvent(ALICE));
+        verify(publisher).publishEvent(new AccountChangedEvent(BOB));
+    }
+
+    @Test
+    @DisplayName("cancelPending(customer, asset): narrows to both; a second call finds nothing left")
+    void cancels_by_customer_and_asset() {
+        asset(ALICE, "AAPL", "5", "2");
+        asset(BOB, "AAPL", "1", "0");
+        order(1, ALICE, "AAPL", "SELL", "3", "12", "PENDING");
+        order(2, BOB, "AAPL", "SELL", "1", "12", "PENDING");
+
+        assertEquals(1, service.cancelPending(ALICE, "AAPL").canceledOrders());
+        assertEquals(0, service.cancelPending(ALICE, "AAPL").canceledOrders());
+        assertEquals(0, usable(BOB, "AAPL").compareTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("cancelPending: a refund without its balance row rolls the whole cancel back")
+    void missing_balance_rolls_back() {
+        order(1, ALICE, "AAPL", "BUY", "1", "10", "PENDING");
+
+        assertThrows(IllegalStateException.class, () -> service.cancelPending(ALICE, null));
+        assertEquals("PENDING", jdbc.queryForObject("select status from orders where id = 1", String.class));
+    }
+
+    @Test
+    @DisplayName("cancelPending: refuses to run without customer or asset, or for an unlisted asset")
+    void requires_filter() {
+        assertThrows(IllegalArgumentException.class, () -> service.cancelPending(null, " "));
+        assertThrows(IllegalArgumentException.class, () -> service.cancelPending(null, "DOGE"));
+    }
+
+    private void asset(UUID customer, String name, String size, String usable) {
+        jdbc.update("insert into asset values (?, ?, ?, ?, 0, null)", customer, instruments.idOf(name),
+                new BigDecimal(size), new BigDecimal(usable));
+    }
+
+    private void order(int id, UUID customer, String asset, String side, String size, String price, String status) {
+        jdbc.update("insert into orders values (?, ?, ?, ?, ?, ?, ?)", id, customer, instruments.idOf(asset), side,
+                new BigDecimal(size), new BigDecimal(price), status);
+    }
+
+    private BigDecimal usable(UUID customer, String asset) {
+        return jdbc.queryForObject("""
+                select a.usable_size + coalesce((select sum(m.usable_delta) from balance_movement m
+                        where m.customer_id = a.customer_id and m.instrument_id = a.instrument_id), 0)
+                  from asset a where a.customer_id = ? and a.instrument_id = ?""",
+                BigDecimal.class, customer, instruments.idOf(asset));
+    }
+}
@@ -1,16 +1,25 @@
 package com.fintech.brokerage.service;
 
-import com.fintech.brokerage.entity.Asset;
 import com.fintech.brokerage.entity.Customer;
 import com.fintech.brokerage.entity.Order;
 import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.MovementReason;
 import com.fintech.brokerage.enums.OrderSide;
 import com.fintech.brokerage.enums.OrderStatus;
 import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.event.AccountChangedEvent;
+import com.fintech.brokerage.exception.ErrorCode;
+import com.fintech.brokerage.exception.InsufficientBalanceException;
+import com.fintech.brokerage.exception.InvalidOrderException;
+import com.fintech.brokerage.exception.OrderStateException;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.ledger.BalanceLedger;
 import com.fintech.brokerage.repo.OrderRepository;
-import com.fintech.brokerage.service.AssetService;
 import com.fintech.brokerage.service.impl.OrderServiceImpl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
@@ -31,7 +41,10 @@ import static org.mockito.Mockito.*;
 class OrderServiceTest {
 
     @Mock private OrderRepository orderRepo;
-    @Mock private AssetService assetService;
+    @Mock private BalanceLedger ledger;
+    @Mock private ApplicationEventPublisher publisher;
+    @Mock private InstrumentRegistry instruments;
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks private OrderServiceImpl service;
 
@@ -46,17 +59,20 @@ class OrderServiceTest {
 
         // @PrePersist won’t run in unit tests (no JPA), set explicitly if needed
         customer.setCreateDate(Instant.parse("2024-01-01T00:00:00Z"));
+
+        lenient().when(instruments.isListed(anyString()))
+                .thenAnswer(inv -> !"DOGE".equals(inv.getArgument(0)));
     }
 
     // --------------------------- CREATE ---------------------------
 
     @Test
-    @DisplayName("create(BUY): reserves usable TRY and stores PENDING order")
+    @DisplayName("create(BUY): checks locked usable TRY, records the reservation and stores PENDING order")
     void create_buy_success() {
         BigDecimal price = convertStringToBigDecimal("10.00");
         BigDecimal size  = convertStringToBigDecimal("10.0000"); // total = 100.0000
-        Asset tryAsset = new Asset(customer, AssetType.TRY.getSymbol(), convertStringToBigDecimal("1000.0000"), convertStringToBigDecimal("1000.0000"));
-        when(assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol())).thenReturn(tryAsset);
+        when(ledger.lockBalance(customer, AssetType.TRY.getSymbol()))
+                .thenReturn(balance(AssetType.TRY.getSymbol(), "1000.0000", "1000.0000"));
 
         Order saved = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, size, price, OrderStatus.PENDING);
         when(orderRepo.save(any(Order.class))).thenReturn(saved);
@@ -64,8 +80,8 @@ class OrderServiceTest {
         Order result = service.create(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, size, price);
 
         assertSame(saved, result, "should return repository-saved order");
-        assertEquals(convertStringToBigDecimal("900.0000"), tryAsset.getUsableSize(), "usable TRY should decrease by total cost");
-        verify(assetService).createOrUpdateAsset(tryAsset);
+        verify(ledger).record(customer, AssetType.TRY.getSymbol(), BigDecimal.ZERO, convertStringToBigDecimal("-100.0000"),
+                MovementReason.ORDER_PLACED, saved.getId());
         verify(orderRepo).save(argThat(o ->
                 o.getCustomerId() == customer &&
                 o.getAssetName().equals(AssetType.AAPL.getSymbol()) &&
@@ -79,8 +95,8 @@ class OrderServiceTest {
     void create_sell_success() {
         BigDecimal price = convertStringToBigDecimal("50.00");
         BigDecimal size  = convertStringToBigDecimal("3.0000");
-        Asset asset = new Asset(customer, AssetType.AAPL.getSymbol(), convertStringToBigDecimal("10.0000"), convertStringToBigDecimal("5.0000"));
-        when(assetService.getOrCreateAsset(customer, AssetType.AAPL.getSymbol())).thenReturn(asset);
+        when(ledger.lockBalance(customer, AssetType.AAPL.getSymbol()))
+                .thenReturn(balance(AssetType.AAPL.getSymbol(), "10.0000", "5.0000"));
 
         Order saved = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.SELL, size, price, OrderStatus.PENDING);
         when(orderRepo.save(any(Order.class))).thenReturn(saved);
@@ -88,8 +104,8 @@ class OrderServiceTest {
         Order result = service.create(customer, AssetType.AAPL.getSymbol(), OrderSide.SELL, size, price);
 
         assertSame(saved, result);
-        assertEquals(convertStringToBigDecimal("2.0000"), asset.getUsableSize(), "usable asset should decrease by size");
-        verify(assetService).createOrUpdateAsset(asset);
+        verify(ledger).record(customer, AssetType.AAPL.getSymbol(), BigDecimal.ZERO, convertStringToBigDecimal("-3.0000"),
+                MovementReason.ORDER_PLACED, saved.getId());
     }
 
     @Test
@@ -97,26 +113,31 @@ class OrderServiceTest {
     void create_buy_insufficient() {
         BigDecimal price = convertStringToBigDecimal("10.00");
         BigDecimal size  = convertStringToBigDecimal("10.0000"); // need 100
-        Asset tryAsset = new Asset(customer, AssetType.TRY.getSymbol(), convertStringToBigDecimal("50.0000"), convertStringToBigDecimal("50.0000"));
-        when(assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol())).thenReturn(tryAsset);
+        when(ledger.lockBalance(customer, AssetType.TRY.getSymbol()))
+                .thenReturn(balance(AssetType.TRY.getSymbol(), "50.0000", "50.0000"));
 
-        assertThrows(IllegalStateException.class,
+        InsufficientBalanceException ex = assertThrows(InsufficientBalanceException.class,
                 () -> service.create(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, size, price));
+        assertEquals(ErrorCode.INSUFFICIENT_BALANCE, ex.getCode());
+        assertEquals(0, ex.getStackTrace().length, "rejections are stackless");
         verify(orderRepo, never()).save(any());
-        verify(assetService, never()).createOrUpdateAsset(any());
+        verify(ledger, never()).record(any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("orders.rejected.insufficient_balance", "side", "buy").count());
     }
 
     @Test
     @DisplayName("create: input validation (assetName/side/size/price)")
     void create_validation() {
         assertAll(
-            () -> assertThrows(IllegalArgumentException.class,
+            () -> assertThrows(InvalidOrderException.class,
                     () -> service.create(customer, " ", OrderSide.BUY, convertStringToBigDecimal("1"), convertStringToBigDecimal("1"))),
-            () -> assertThrows(IllegalArgumentException.class,
+            () -> assertThrows(InvalidOrderException.class,
+                    () -> service.create(customer, "DOGE", OrderSide.BUY, convertStringToBigDecimal("1"), convertStringToBigDecimal("1"))),
+            () -> assertThrows(InvalidOrderException.class,
                     () -> service.create(customer, AssetType.AAPL.getSymbol(), null, convertStringToBigDecimal("1"), convertStringToBigDecimal("1"))),
-            () -> assertThrows(IllegalArgumentException.class,
+            () -> assertThrows(InvalidOrderException.class,
                     () -> service.create(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("0"), convertStringToBigDecimal("1"))),
-            () -> assertThrows(IllegalArgumentException.class,
+            () -> assertThrows(InvalidOrderException.class,
                     () -> service.create(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("1"), convertStringToBigDecimal("-5")))
         );
     }
@@ -124,21 +145,19 @@ class OrderServiceTest {
     // --------------------------- CANCEL ---------------------------
 
     @Test
-    @DisplayName("cancel(BUY): atomic flip wins → refund exactly once")
+    @DisplayName("cancel(BUY): atomic flip wins → refund recorded exactly once, without a lock")
     void cancel_buy_wins() {
         UUID id = UUID.randomUUID();
         Order pendingBuy = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("10.0000"), OrderStatus.PENDING);
         when(orderRepo.findById(id)).thenReturn(Optional.of(pendingBuy)); // first read
         when(orderRepo.cancelIfPending(id)).thenReturn(1);                // we win flip
 
-        Asset tryAsset = new Asset(customer, AssetType.TRY.getSymbol(), convertStringToBigDecimal("0.0000"), convertStringToBigDecimal("0.0000"));
-        when(assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol())).thenReturn(tryAsset);
-
         service.cancel(id);
 
         // refund 2 * 10 = 20 usable TRY
-        assertEquals(convertStringToBigDecimal("20.0000"), tryAsset.getUsableSize());
-        verify(assetService).createOrUpdateAsset(tryAsset);
+        verify(ledger).record(customer, AssetType.TRY.getSymbol(), BigDecimal.ZERO, convertStringToBigDecimal("20.0000"),
+                MovementReason.ORDER_CANCELED, id);
+        verify(ledger, never()).lockBalance(any(), any());
         verify(orderRepo, times(1)).cancelIfPending(id);
         // No second branch (already canceled) executed
     }
@@ -151,13 +170,10 @@ class OrderServiceTest {
         when(orderRepo.findById(id)).thenReturn(Optional.of(pendingSell)); // first read
         when(orderRepo.cancelIfPending(id)).thenReturn(1);
 
-        Asset asset = new Asset(customer, AssetType.AAPL.getSymbol(), convertStringToBigDecimal("10.0000"), convertStringToBigDecimal("0.0000"));
-        when(assetService.getOrCreateAsset(customer, AssetType.AAPL.getSymbol())).thenReturn(asset);
-
         service.cancel(id);
 
-        assertEquals(convertStringToBigDecimal("5.0000"), asset.getUsableSize());
-        verify(assetService).createOrUpdateAsset(asset);
+        verify(ledger).record(customer, AssetType.AAPL.getSymbol(), BigDecimal.ZERO, convertStringToBigDecimal("5.0000"),
+                MovementReason.ORDER_CANCELED, id);
     }
 
     @Test
@@ -173,7 +189,7 @@ class OrderServiceTest {
 
         assertDoesNotThrow(() -> service.cancel(id));
         // No refunds, no exceptions
-        verify(assetService, never()).createOrUpdateAsset(any());
+        verifyNoInteractions(ledger);
     }
 
     @Test
@@ -187,8 +203,91 @@ class OrderServiceTest {
         Order matched = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("1.0"), convertStringToBigDecimal("1.0"), OrderStatus.MATCHED);
         when(orderRepo.findById(id)).thenReturn(Optional.of(anyOrder), Optional.of(matched));
 
-        assertThrows(IllegalStateException.class, () -> service.cancel(id));
-        verify(assetService, never()).createOrUpdateAsset(any());
+        assertThrows(OrderStateException.class, () -> service.cancel(id));
+        verifyNoInteractions(ledger);
+    }
+
+    // --------------------------- AMEND ---------------------------
+
+    @Test
+    @DisplayName("amend(BUY): higher price reserves only the notional delta and keeps the row")
+    void amend_buy_reserves_delta() {
+        UUID id = UUID.randomUUID();
+        Order pendingBuy = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("10.0000"), OrderStatus.PENDING);
+        when(orderRepo.findById(id)).thenReturn(Optional.of(pendingBuy));
+        when(orderRepo.amendIfPending(id, convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("10.0000"),
+                convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("12.0000"))).thenReturn(1);
+        when(ledger.lockBalance(customer, AssetType.TRY.getSymbol()))
+                .thenReturn(balance(AssetType.TRY.getSymbol(), "120.0000", "100.0000"));
+
+        Order result = service.amend(customer, id, null, convertStringToBigDecimal("12.0000"));
+
+        // 2 * 12 - 2 * 10 = 4 more reserved
+        verify(ledger).record(customer, AssetType.TRY.getSymbol(), BigDecimal.ZERO, convertStringToBigDecimal("-4.0000"),
+                MovementReason.ORDER_AMENDED, id);
+        assertEquals(convertStringToBigDecimal("12.0000"), result.getPrice());
+        verify(orderRepo, never()).save(any());
+        verify(publisher).publishEvent(new AccountChangedEvent(customer.getId()));
+    }
+
+    @Test
+    @DisplayName("amend(SELL): smaller size releases the difference; a new price alone leaves the asset untouched")
+    void amend_sell_size_and_price() {
+        UUID id = UUID.randomUUID();
+        Order pendingSell = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.SELL, convertStringToBigDecimal("5.0000"), convertStringToBigDecimal("3.0000"), OrderStatus.PENDING);
+        when(orderRepo.findById(id)).thenReturn(Optional.of(pendingSell));
+        when(orderRepo.amendIfPending(eq(id), any(), any(), any(), any())).thenReturn(1);
+        service.amend(customer, id, convertStringToBigDecimal("3.0000"), null);
+        verify(ledger).record(customer, AssetType.AAPL.getSymbol(), BigDecimal.ZERO, convertStringToBigDecimal("2.0000"),
+                MovementReason.ORDER_AMENDED, id);
+
+        service.amend(customer, id, null, convertStringToBigDecimal("4.0000"));
+        verify(ledger, times(1)).record(any(), any(), any(), any(), any(), any());
+        verify(ledger, never()).lockBalance(any(), any()); // releasing needs no lock
+    }
+
+    @Test
+    @DisplayName("amend(BUY): throws when the extra reservation exceeds usable TRY")
+    void amend_buy_insufficient() {
+        UUID id = UUID.randomUUID();
+        Order pendingBuy = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("10.0000"), OrderStatus.PENDING);
+        when(orderRepo.findById(id)).thenReturn(Optional.of(pendingBuy));
+        when(orderRepo.amendIfPending(eq(id), any(), any(), any(), any())).thenReturn(1);
+        when(ledger.lockBalance(customer, AssetType.TRY.getSymbol()))
+                .thenReturn(balance(AssetType.TRY.getSymbol(), "25.0000", "5.0000"));
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> service.amend(customer, id, convertStringToBigDecimal("3.0000"), null));
+        verify(ledger, never()).record(any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("orders.rejected.insufficient_balance", "side", "buy").count());
+    }
+
+    @Test
+    @DisplayName("amend: lost compare-and-set (concurrent cancel/match/amend) reserves nothing")
+    void amend_lost_race() {
+        UUID id = UUID.randomUUID();
+        Order pendingBuy = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("10.0000"), OrderStatus.PENDING);
+        when(orderRepo.findById(id)).thenReturn(Optional.of(pendingBuy));
+        when(orderRepo.amendIfPending(eq(id), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(OrderStateException.class,
+                () -> service.amend(customer, id, convertStringToBigDecimal("3.0000"), null));
+        verifyNoInteractions(ledger);
+        assertEquals(1.0, meterRegistry.counter("orders.transition.lost", "op", "amend").count());
+    }
+
+    @Test
+    @DisplayName("amend: order of another customer is reported as not found")
+    void amend_other_customer() {
+        UUID id = UUID.randomUUID();
+        Customer other = new Customer("bob", "{bcrypt}hash", Role.USER);
+        other.setId(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        Order foreign = new Order(other, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("2.0000"), convertStringToBigDecimal("10.0000"), OrderStatus.PENDING);
+        when(orderRepo.findById(id)).thenReturn(Optional.of(foreign));
+
+        assertThrows(NoSuchElementException.class,
+                () -> service.amend(customer, id, convertStringToBigDecimal("3.0000"), null));
+        verify(orderRepo, never()).amendIfPending(any(), any(), any(), any(), any());
     }
 
     // --------------------------- MATCH ---------------------------
@@ -210,31 +309,17 @@ class OrderServiceTest {
         when(orderRepo.findById(id)).thenReturn(Optional.of(pendingBuy));
         when(orderRepo.matchIfPending(id)).thenReturn(1);
 
-        Asset tryAsset = new Asset(
-                customer,
-                AssetType.TRY.getSymbol(),
-                new BigDecimal("100.0000"),
-                new BigDecimal("100.0000")
-        );
-        Asset aaplAsset = new Asset(
-                customer,
-                AssetType.AAPL.getSymbol(),
-                convertStringToBigDecimal("0.0000"),
-                convertStringToBigDecimal("0.0000")
-        );
-
-        when(assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol())).thenReturn(tryAsset);
-        when(assetService.getOrCreateAsset(customer, AssetType.AAPL.getSymbol())).thenReturn(aaplAsset);
-
         // Act
         service.match(id);
 
-        assertEquals(new BigDecimal("70.0000"), tryAsset.getSize(), "TRY total should decrease by 30");
-        assertEquals(new BigDecimal("3.0000"),  aaplAsset.getSize(), "AAPL total should increase by 3");
-        assertEquals(new BigDecimal("3.0000"),  aaplAsset.getUsableSize(), "AAPL usable should increase by 3");
+        // TRY total -= 30 (usable was reserved at create); AAPL total and usable += 3
+        verify(ledger).record(customer, AssetType.TRY.getSymbol(), new BigDecimal("-30.0000"), BigDecimal.ZERO,
+                MovementReason.ORDER_MATCHED, id);
+        verify(ledger).record(customer, AssetType.AAPL.getSymbol(), new BigDecimal("3.0000"), new BigDecimal("3.0000"),
+                MovementReason.ORDER_MATCHED, id);
 
         verify(orderRepo, times(1)).matchIfPending(id);
-        verify(assetService, times(2)).createOrUpdateAsset(any());
+        verify(ledger, never()).lockBalance(any(), any());
         verify(orderRepo, never()).save(any(Order.class));
     }
 
@@ -247,18 +332,13 @@ class OrderServiceTest {
         when(orderRepo.findById(id)).thenReturn(Optional.of(pendingSell)); // first read
         when(orderRepo.matchIfPending(id)).thenReturn(1);
 
-        Asset asset    = new Asset(customer, AssetType.AAPL.getSymbol(), convertStringToBigDecimal("10.0000"), convertStringToBigDecimal("5.0000"));
-        Asset tryAsset = new Asset(customer, AssetType.TRY.getSymbol(), convertStringToBigDecimal("0.0000"), convertStringToBigDecimal("0.0000"));
-        when(assetService.getOrCreateAsset(customer, AssetType.AAPL.getSymbol())).thenReturn(asset);
-        when(assetService.getOrCreateAsset(customer, AssetType.TRY.getSymbol())).thenReturn(tryAsset);
-
         service.match(id);
 
         // SELL match: Asset total -= 2; TRY total += 50; TRY usable += 50
-        assertEquals(convertStringToBigDecimal("8.0000"), asset.getSize());
-        assertEquals(convertStringToBigDecimal("50.0000"), tryAsset.getSize());
-        assertEquals(convertStringToBigDecimal("50.0000"), tryAsset.getUsableSize());
-        verify(assetService, times(3)).createOrUpdateAsset(any());
+        verify(ledger).record(customer, AssetType.AAPL.getSymbol(), convertStringToBigDecimal("-2.0000"), BigDecimal.ZERO,
+                MovementReason.ORDER_MATCHED, id);
+        verify(ledger).record(customer, AssetType.TRY.getSymbol(), convertStringToBigDecimal("50.0000"),
+                convertStringToBigDecimal("50.0000"), MovementReason.ORDER_MATCHED, id);
     }
 
     @Test
@@ -272,7 +352,7 @@ class OrderServiceTest {
         when(orderRepo.findById(id)).thenReturn(Optional.of(any), Optional.of(matched));
 
         assertDoesNotThrow(() -> service.match(id));
-        verify(assetService, never()).createOrUpdateAsset(any());
+        verifyNoInteractions(ledger);
     }
 
     @Test
@@ -285,7 +365,7 @@ class OrderServiceTest {
         Order canceled = new Order(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, convertStringToBigDecimal("1"), convertStringToBigDecimal("1"), OrderStatus.CANCELED);
         when(orderRepo.findById(id)).thenReturn(Optional.of(any), Optional.of(canceled));
 
-        assertThrows(IllegalStateException.class, () -> service.match(id));
+        assertThrows(OrderStateException.class, () -> service.match(id));
     }
 
     // --------------------------- LIST ---------------------------
@@ -336,6 +416,20 @@ class OrderServiceTest {
         verify(orderRepo).search(eq(customer), any(), any(), isNull(), eq(AssetType.AAPL.getSymbol()), eq(pageable));
     }
 
+    @Test
+    @DisplayName("list: an unlisted symbol matches nothing and never reaches the repo")
+    void list_unknown_asset() {
+        Pageable pageable = PageRequest.of(0, 20);
+
+        assertTrue(service.list(customer, null, null, null, "DOGE").isEmpty());
+        assertTrue(service.list(customer, null, null, null, "DOGE", pageable).isEmpty());
+        verifyNoInteractions(orderRepo);
+    }
+
+    private Balance balance(String assetName, String size, String usable) {
+        return new Balance(UUID.randomUUID(), customer.getId(), assetName, new BigDecimal(size), new BigDecimal(usable));
+    }
+
     private static BigDecimal convertStringToBigDecimal(String s) {
         return new BigDecimal(s);
     }
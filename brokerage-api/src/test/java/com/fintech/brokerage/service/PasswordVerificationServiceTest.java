@@ -0,0 +1,91 @@
+package com.fintech.brokerage.service;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.exception.TooManyRequestsException;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.service.impl.PasswordVerificationServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordVerificationServiceTest {
+
+    @Mock private CustomerRepository customerRepo;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("verify: matching password completes with the customer, wrong password with empty")
+    void verify_match_and_mismatch() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        Customer alice = new Customer("alice", encoder.encode("alice123"), Role.USER);
+        when(customerRepo.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        PasswordVerificationService service = new PasswordVerificationServiceImpl(customerRepo, encoder, registry, 1, 10);
+
+        assertSame(alice, service.verify("alice", "alice123").join().orElseThrow());
+        assertTrue(service.verify("alice", "wrong").join().isEmpty());
+        verify(customerRepo, never()).save(any());
+        assertEquals(2, registry.get("auth.password.verify").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    @DisplayName("verify: stored hash weaker than the configured cost is re-encoded after a match")
+    void verify_rehashes_weaker_hash() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("alice123");
+        Customer alice = new Customer("alice", weakHash, Role.USER);
+        when(customerRepo.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        BCryptPasswordEncoder stronger = new BCryptPasswordEncoder(5);
+        PasswordVerificationService service = new PasswordVerificationServiceImpl(customerRepo, stronger, registry, 1, 10);
+
+        assertTrue(service.verify("alice", "alice123").join().isPresent());
+
+        assertNotEquals(weakHash, alice.getPasswordHash());
+        assertTrue(alice.getPasswordHash().startsWith("$2a$05$"));
+        assertTrue(stronger.matches("alice123", alice.getPasswordHash()));
+        verify(customerRepo).save(alice);
+    }
+
+    @Test
+    @DisplayName("verify: saturated pool rejects immediately with TooManyRequestsException")
+    void verify_rejects_when_saturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(customerRepo.findByUsername(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        PasswordVerificationService service = new PasswordVerificationServiceImpl(
+                customerRepo, new BCryptPasswordEncoder(4), registry, 1, 1);
+
+        CompletableFuture<Optional<Customer>> running = service.verify("a", "x");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<Customer>> queued = service.verify("b", "x");
+
+        assertThrows(TooManyRequestsException.class, () -> service.verify("c", "x"));
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.join().isEmpty());
+        assertTrue(queued.join().isEmpty());
+    }
+}
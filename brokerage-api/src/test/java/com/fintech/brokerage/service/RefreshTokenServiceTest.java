@@ -0,0 +1,97 @@
+package com.fintech.brokerage.service;
+
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.exception.InvalidTokenException;
+import com.fintech.brokerage.repo.RevokedTokenRepository;
+import com.fintech.brokerage.security.CustomerPrincipal;
+import com.fintech.brokerage.security.PrincipalDirectory;
+import com.fintech.brokerage.service.RefreshTokenService.IssuedTokens;
+import com.fintech.brokerage.service.impl.JwtServiceImpl;
+import com.fintech.brokerage.service.impl.RefreshTokenServiceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RefreshTokenServiceTest {
+
+    private static final String SECRET = "y5h8N2QkV7tRzP3fG4aL9sXc1vB6wYj2K0mF8qD3eH7uJ1nP5rT4oV9bZ6xS8yW3";
+
+    @Mock private RevokedTokenRepository revokedRepo;
+    @Mock private PrincipalDirectory directory;
+
+    private final JwtService jwt = new JwtServiceImpl(SECRET, 1800);
+    private RefreshTokenService service;
+    private Customer alice;
+
+    @BeforeEach
+    void setUp() {
+        when(revokedRepo.findAllByExpiresAtAfter(any())).thenReturn(List.of());
+        service = new RefreshTokenServiceImpl(jwt, revokedRepo, directory, 3600);
+
+        alice = new Customer("alice", "{bcrypt}hash", Role.USER);
+        alice.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        when(directory.findByUsername("alice"))
+                .thenReturn(Optional.of(new CustomerPrincipal(alice.getId(), "alice", Role.USER, true)));
+    }
+
+    @Test
+    @DisplayName("refresh: rotates to a new pair of the same family and revokes the old token")
+    void refresh_rotates() {
+        IssuedTokens first = service.issue(alice);
+
+        IssuedTokens second = service.refresh(first.refreshToken());
+
+        assertNotEquals(first.refreshToken(), second.refreshToken());
+        assertEquals(jwt.parseRefreshToken(first.refreshToken()).familyId(),
+                jwt.parseRefreshToken(second.refreshToken()).familyId());
+        verify(revokedRepo, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("refresh: reusing a rotated token revokes the whole family")
+    void reuse_revokes_family() {
+        IssuedTokens first = service.issue(alice);
+        IssuedTokens second = service.refresh(first.refreshToken());
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(first.refreshToken()));
+        assertThrows(InvalidTokenException.class, () -> service.refresh(second.refreshToken()),
+                "the legitimate successor must be revoked as well");
+    }
+
+    @Test
+    @DisplayName("revoke: logout invalidates the family; access tokens are not accepted as refresh tokens")
+    void logout_and_wrong_token_type() {
+        IssuedTokens tokens = service.issue(alice);
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(tokens.accessToken()));
+
+        service.revoke(tokens.refreshToken());
+        assertThrows(InvalidTokenException.class, () -> service.refresh(tokens.refreshToken()));
+    }
+
+    @Test
+    @DisplayName("refresh: disabled customers cannot refresh")
+    void disabled_customer_rejected() {
+        IssuedTokens tokens = service.issue(alice);
+        when(directory.findByUsername("alice"))
+                .thenReturn(Optional.of(new CustomerPrincipal(alice.getId(), "alice", Role.USER, false)));
+
+        assertThrows(InvalidTokenException.class, () -> service.refresh(tokens.refreshToken()));
+    }
+}
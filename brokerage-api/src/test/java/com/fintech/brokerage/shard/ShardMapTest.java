@@ -0,0 +1,83 @@
+package com.fintech.brokerage.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardMapTest {
+
+    private static final int CUSTOMERS = 20_000;
+
+    private final Random rnd = new Random(7);
+
+    @AfterEach
+    void clearTransactionFlag() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("shardOf: without extra urls every customer is on shard 0")
+    void single_database() {
+        ShardMap map = new ShardMap(List.of());
+        assertFalse(map.isSharded());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, map.shardOf(randomId()));
+        }
+    }
+
+    @Test
+    @DisplayName("shardOf: customers spread evenly over the shards")
+    void even_spread() {
+        ShardMap map = new ShardMap(List.of("jdbc:h2:mem:s1", "jdbc:h2:mem:s2", "jdbc:h2:mem:s3"));
+        int[] counts = new int[map.shardCount()];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            counts[map.shardOf(randomId())]++;
+        }
+        for (int count : counts) {
+            assertEquals(CUSTOMERS / 4.0, count, CUSTOMERS * 0.02);
+        }
+    }
+
+    @Test
+    @DisplayName("shardOf: adding a shard only moves about 1/(n+1) of the customers, all onto the new shard")
+    void adding_a_shard_moves_few() {
+        ShardMap three = new ShardMap(List.of("jdbc:h2:mem:s1", "jdbc:h2:mem:s2"));
+        ShardMap four = new ShardMap(List.of("jdbc:h2:mem:s1", "jdbc:h2:mem:s2", "jdbc:h2:mem:s3"));
+        int moved = 0;
+        for (int i = 0; i < CUSTOMERS; i++) {
+            UUID id = randomId();
+            int before = three.shardOf(id);
+            int after = four.shardOf(id);
+            if (before != after) {
+                assertEquals(3, after);
+                moved++;
+            }
+        }
+        assertEquals(CUSTOMERS / 4.0, moved, CUSTOMERS * 0.02);
+    }
+
+    @Test
+    @DisplayName("onShard: switching shards inside an open transaction is rejected, outside it restores the previous shard")
+    void router_guards_transactions() {
+        ShardRouter router = new ShardRouter(new ShardMap(List.of("jdbc:h2:mem:s1")));
+
+        assertEquals(1, router.onShard(1, () -> router.onShard(1, ShardContext::current)));
+        assertNull(ShardContext.current());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertEquals("same", router.onShard(0, () -> "same"));
+        assertThrows(IllegalStateException.class, () -> router.onShard(1, () -> "other"));
+        assertNull(ShardContext.current());
+    }
+
+    private UUID randomId() {
+        return new UUID(rnd.nextLong(), rnd.nextLong());
+    }
+}
@@ -0,0 +1,135 @@
+package com.fintech.brokerage.shard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Grows two embedded H2 shards to three, with the customer-owned tables reduced to the
+ * columns the move relies on.
+ */
+class ShardRebalancerTest {
+
+    private static final int CUSTOMERS = 40;
+    private static final int TRY = 1;
+
+    private final Random rnd = new Random(3);
+    private final ShardMap two = new ShardMap(List.of("jdbc:h2:mem:s1"));
+    private final ShardMap three = new ShardMap(List.of("jdbc:h2:mem:s1", "jdbc:h2:mem:s2"));
+    private final List<JdbcTemplate> shardJdbc = new ArrayList<>();
+    private final List<UUID> customers = new ArrayList<>();
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < three.shardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+            jdbc.execute("""
+                    create table asset (id uuid primary key, customer_id uuid, instrument_id int,
+                        size numeric(19,4), usable_size numeric(19,4), version bigint,
+                        updated_at timestamp(6) with time zone, unique (customer_id, instrument_id))""");
+            jdbc.execute("create table orders (id uuid primary key, customer_id uuid, size numeric(19,4))");
+            jdbc.execute("""
+                    create table balance_movement (id uuid primary key, customer_id uuid, instrument_id int,
+                        size_delta numeric(19,4), usable_delta numeric(19,4), compacted boolean)""");
+            jdbc.execute("""
+                    create table cash_posting (id uuid primary key, customer_id uuid, idempotency_key varchar(80),
+                        amount numeric(19,4), unique (customer_id, idempotency_key))""");
+            shardJdbc.add(jdbc);
+        }
+        // placed while there were two shards
+        for (int i = 0; i < CUSTOMERS; i++) {
+            UUID customerId = new UUID(rnd.nextLong(), rnd.nextLong());
+            customers.add(customerId);
+            JdbcTemplate jdbc = shardJdbc.get(two.shardOf(customerId));
+            jdbc.update("insert into asset values (?, ?, ?, 100, 90, 0, current_timestamp)", UUID.randomUUID(),
+                    customerId, TRY);
+            jdbc.update("insert into orders values (?, ?, 1)", UUID.randomUUID(), customerId);
+            jdbc.update("insert into balance_movement values (?, ?, ?, 0, -10, false)", UUID.randomUUID(), customerId, TRY);
+            jdbc.update("insert into cash_posting values (?, ?, 'k1', 100)", UUID.randomUUID(), customerId);
+        }
+        rebalancer = new ShardRebalancer(three, shardJdbc);
+    }
+
+    @Test
+    @DisplayName("checkPlacement: fails while customers sit on their old shard; rebalance moves all of their rows")
+    void moves_rehomed_customers() {
+        long rehomed = customers.stream().filter(c -> three.shardOf(c) != two.shardOf(c)).count();
+        assertTrue(rehomed > 0);
+        assertTrue(customers.stream().allMatch(c -> three.shardOf(c) == two.shardOf(c) || three.shardOf(c) == 2));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, rebalancer::checkPlacement);
+        assertTrue(e.getMessage().contains("app.sharding.rebalance=true"), e.getMessage());
+        assertEquals(rehomed, rebalancer.misplacedCustomers().values().stream().mapToLong(Long::longValue).sum());
+
+        assertEquals(rehomed, rebalancer.rebalance());
+
+        assertDoesNotThrow(rebalancer::checkPlacement);
+        for (UUID c : customers) {
+            for (int shard = 0; shard < three.shardCount(); shard++) {
+                for (String table : ShardRebalancer.CUSTOMER_TABLES) {
+                    assertEquals(shard == three.shardOf(c) ? 1 : 0, count(shard, table, c), table + " of " + c);
+                }
+            }
+        }
+        assertEquals(0, rebalancer.rebalance());
+    }
+
+    @Test
+    @DisplayName("rebalance: adds to a snapshot written on the new shard after the resize, and a repeated run changes nothing")
+    void combines_snapshots_and_repeats_safely() {
+        UUID moving = customers.stream().filter(c -> three.shardOf(c) == 2).findFirst().orElseThrow();
+        int source = two.shardOf(moving);
+        JdbcTemplate target = shardJdbc.get(2);
+        // a deposit that landed on the new shard before the rows were moved
+        target.update("insert into asset values (?, ?, ?, 5, 5, 0, current_timestamp)", UUID.randomUUID(), moving, TRY);
+        UUID sourceAssetId = shardJdbc.get(source).queryForObject("select id from asset where customer_id = ?",
+                UUID.class, moving);
+        List<Map<String, Object>> sourceRows = new ArrayList<>();
+        for (String table : ShardRebalancer.CUSTOMER_TABLES) {
+            sourceRows.addAll(shardJdbc.get(source).queryForList("select * from " + table + " where customer_id = ?",
+                    moving).stream().map(r -> Map.<String, Object>of("table", table, "row", r)).toList());
+        }
+
+        rebalancer.rebalance();
+        assertSnapshot(target, moving, sourceAssetId);
+
+        // an interrupted run: copied and combined on the target, not yet deleted on the source
+        for (Map<String, Object> r : sourceRows) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> row = (Map<String, Object>) r.get("row");
+            ReferenceDataReplicator.merge(shardJdbc.get(source), (String) r.get("table"), List.of(row));
+        }
+        assertEquals(1, rebalancer.rebalance());
+
+        assertSnapshot(target, moving, sourceAssetId);
+        for (String table : ShardRebalancer.CUSTOMER_TABLES) {
+            assertEquals(0, count(source, table, moving), table);
+            assertEquals(1, count(2, table, moving), table);
+        }
+    }
+
+    private static void assertSnapshot(JdbcTemplate target, UUID customerId, UUID expectedId) {
+        Map<String, Object> asset = target.queryForMap("select * from asset where customer_id = ?", customerId);
+        assertEquals(expectedId, asset.get("ID"));
+        assertEquals(0, new BigDecimal("105").compareTo((BigDecimal) asset.get("SIZE")));
+        assertEquals(0, new BigDecimal("95").compareTo((BigDecimal) asset.get("USABLE_SIZE")));
+    }
+
+    private int count(int shard, String table, UUID customerId) {
+        return shardJdbc.get(shard).queryForObject("select count(*) from " + table + " where customer_id = ?",
+                Integer.class, customerId);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fintech.brokerage.shard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order id lookups over three embedded H2 shards that only have the {@code orders.id} column.
+ */
+class ShardRoutingAspectTest {
+
+    private static final int HOME = 1;
+
+    private final Random rnd = new Random(11);
+    private final List<JdbcTemplate> shardJdbc = new ArrayList<>();
+    private SimpleMeterRegistry registry;
+    private ShardRoutingAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        ShardMap map = new ShardMap(List.of("jdbc:h2:mem:s1", "jdbc:h2:mem:s2"));
+        for (int shard = 0; shard < map.shardCount(); shard++) {
+            JdbcTemplate jdbc = spy(new JdbcTemplate(new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "")));
+            jdbc.execute("create table orders (id uuid primary key)");
+            shardJdbc.add(jdbc);
+        }
+        registry = new SimpleMeterRegistry();
+        ShardRouter router = new ShardRouter(map);
+        aspect = new ShardRoutingAspect(router, shardJdbc, registry);
+
+        UUID customerId;
+        do {
+            customerId = new UUID(rnd.nextLong(), rnd.nextLong());
+        } while (router.shardOf(customerId) != HOME);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+        auth.setDetails(Map.of("customerId", customerId.toString()));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        shardJdbc.forEach(jdbc -> clearInvocations(jdbc));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("locateOrder: an order on the caller's shard is found by one probe of that shard")
+    void home_shard_probe() {
+        UUID orderId = order(HOME);
+
+        assertEquals(HOME, aspect.locateOrder(orderId));
+
+        assertEquals(1.0, lookups("home"));
+        verify(shardJdbc.get(HOME)).queryForObject(anyString(), eq(Integer.class), eq(orderId));
+        verifyNoInteractions(shardJdbc.get(0), shardJdbc.get(2));
+    }
+
+    @Test
+    @DisplayName("locateOrder: an order elsewhere is found by scattering over the other shards, home probed once")
+    void scatter_fallback() {
+        UUID orderId = order(2);
+
+        assertEquals(2, aspect.locateOrder(orderId));
+
+        assertEquals(0.0, lookups("home"));
+        assertEquals(1.0, lookups("scatter"));
+        for (JdbcTemplate jdbc : shardJdbc) {
+            verify(jdbc).queryForObject(anyString(), eq(Integer.class), eq(orderId));
+        }
+    }
+
+    @Test
+    @DisplayName("locateOrder: without a customer in the security context every shard is scattered from shard 0")
+    void scatter_without_customer() {
+        SecurityContextHolder.clearContext();
+        UUID orderId = order(HOME);
+
+        assertEquals(HOME, aspect.locateOrder(orderId));
+
+        assertEquals(1.0, lookups("scatter"));
+        verifyNoInteractions(shardJdbc.get(2));
+    }
+
+    @Test
+    @DisplayName("locateOrder: an id on no shard probes each shard once and is reported as not found")
+    void miss_on_all_shards() {
+        UUID orderId = UUID.randomUUID();
+
+        assertThrows(NoSuchElementException.class, () -> aspect.locateOrder(orderId));
+
+        assertEquals(1.0, lookups("missing"));
+        assertEquals(0.0, lookups("home") + lookups("scatter"));
+        for (JdbcTemplate jdbc : shardJdbc) {
+            verify(jdbc).queryForObject(anyString(), eq(Integer.class), eq(orderId));
+        }
+    }
+
+    private UUID order(int shard) {
+        UUID id = UUID.randomUUID();
+        shardJdbc.get(shard).update("insert into orders (id) values (?)", id);
+        clearInvocations(shardJdbc.get(shard));
+        return id;
+    }
+
+    private double lookups(String probe) {
+        return registry.get("shards.order_lookups").tag("probe", probe).counter().count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.fintech.brokerage.statement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.PostingType;
+import com.fintech.brokerage.statement.CustomerStatement.AssetBalance;
+import com.fintech.brokerage.statement.CustomerStatement.OrderLine;
+import com.fintech.brokerage.statement.CustomerStatement.PostingLine;
+import com.fintech.brokerage.statement.StatementBuilder.AssetRow;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementBuilderTest {
+
+    private static final UUID CUSTOMER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    @DisplayName("build: opening and closing take the movements recorded after each day boundary back out")
+    void balances_at_day_boundaries() {
+        List<AssetRow> assets = List.of(
+                // now 1140; +40 net since the day started, +20 of it after the day ended
+                new AssetRow("TRY", bd("1140.0000"), bd("1110.0000"), bd("40.0000"), bd("20.0000"), bd("20.0000")),
+                // bought during the day, matched after midnight: only the opening differs
+                new AssetRow("AAPL", bd("3.0000"), bd("3.0000"), bd("3.0000"), bd("3.0000"), bd("3.0000")),
+                new AssetRow("GOOGL", bd("1.0000"), bd("1.0000"), bd("0"), bd("0"), bd("0")));
+        List<OrderLine> orders = List.of(
+                order("AAPL", OrderSide.BUY, "3", "10", OrderStatus.MATCHED),
+                order("AAPL", OrderSide.BUY, "3", "10", OrderStatus.PENDING),
+                order("AAPL", OrderSide.BUY, "1", "10", OrderStatus.CANCELED));
+
+        CustomerStatement s = StatementBuilder.build(CUSTOMER, DAY, assets, orders, List.of());
+
+        Map<String, AssetBalance> byName = s.assets().stream()
+                .collect(Collectors.toMap(AssetBalance::assetName, Function.identity()));
+        assertEquals(bd("1100.0000"), byName.get("TRY").opening());
+        assertEquals(bd("1120.0000"), byName.get("TRY").closing());
+        assertEquals(bd("1090.0000"), byName.get("TRY").usableClosing());
+        assertEquals(bd("0.0000"), byName.get("AAPL").opening());
+        assertEquals(bd("0.0000"), byName.get("AAPL").closing());
+        assertEquals(bd("1.0000"), byName.get("GOOGL").opening());
+        assertEquals(List.of("AAPL", "GOOGL", "TRY"), s.assets().stream().map(AssetBalance::assetName).toList());
+        assertEquals(new CustomerStatement.Activity(3, 1, 1, 1, BigDecimal.ZERO, BigDecimal.ZERO), s.activity());
+        assertEquals(orders, s.orders());
+    }
+
+    @Test
+    @DisplayName("build: a customer without activity gets opening equal to closing")
+    void quiet_day() {
+        CustomerStatement s = StatementBuilder.build(CUSTOMER, DAY,
+                List.of(new AssetRow("TRY", bd("500.0000"), bd("500.0000"), bd("0"), bd("0"), bd("0"))), List.of(),
+                List.of());
+
+        assertEquals(1, s.assets().size());
+        assertEquals(s.assets().get(0).closing(), s.assets().get(0).opening());
+        assertEquals(new CustomerStatement.Activity(0, 0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO), s.activity());
+    }
+
+    @Test
+    @DisplayName("build: a funded day lists its postings, and the TRY opening excludes them")
+    void funded_day() {
+        // 200 deposited and 50 withdrawn during the day, nothing since
+        List<AssetRow> assets = List.of(
+                new AssetRow("TRY", bd("650.0000"), bd("650.0000"), bd("150.0000"), bd("0"), bd("0")));
+        List<PostingLine> postings = List.of(
+                new PostingLine(UUID.randomUUID(), PostingType.DEPOSIT, bd("200.0000"), Instant.parse("2026-10-18T09:00:00Z")),
+                new PostingLine(UUID.randomUUID(), PostingType.WITHDRAWAL, bd("50.0000"), Instant.parse("2026-10-18T17:00:00Z")));
+
+        CustomerStatement s = StatementBuilder.build(CUSTOMER, DAY, assets, List.of(), postings);
+
+        AssetBalance tryBalance = s.assets().get(0);
+        assertEquals(bd("500.0000"), tryBalance.opening());
+        assertEquals(bd("650.0000"), tryBalance.closing());
+        assertEquals(0, tryBalance.opening().add(s.activity().deposited()).subtract(s.activity().withdrawn())
+                .compareTo(tryBalance.closing()), "opening + deposits - withdrawals = closing on a day without orders");
+        assertEquals(bd("200.0000"), s.activity().deposited());
+        assertEquals(bd("50.0000"), s.activity().withdrawn());
+        assertEquals(postings, s.postings());
+    }
+
+    private static OrderLine order(String asset, OrderSide side, String size, String price, OrderStatus status) {
+        return new OrderLine(UUID.randomUUID(), asset, side, bd(size), bd(price), status, Instant.parse("2026-10-18T10:00:00Z"));
+    }
+
+    private static BigDecimal bd(String v) {
+        return new BigDecimal(v);
+    }
+}
@@ -0,0 +1,66 @@
+package com.fintech.brokerage.statement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCheckpointTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("completed: the checkpoint only advances over chunks that finished without a gap")
+    void advances_over_contiguous_chunks() throws Exception {
+        Path file = dir.resolve("_checkpoint");
+        StatementCheckpoint cp = StatementCheckpoint.open(file);
+        assertNull(cp.resumeAfter());
+
+        UUID end0 = id(100);
+        UUID end1 = id(200);
+        UUID end2 = id(300);
+
+        cp.completed(1, end1, 10, 3);
+        assertNull(cp.resumeAfter(), "chunk 0 is still running");
+        assertFalse(Files.exists(file));
+
+        cp.completed(0, end0, 10, 4);
+        assertEquals(end1, cp.resumeAfter());
+        assertEquals(20, cp.customers());
+        assertEquals(7, cp.orders());
+
+        cp.completed(2, end2, 5, 0);
+        assertEquals(end2, cp.resumeAfter());
+        assertEquals(25, cp.customers());
+    }
+
+    @Test
+    @DisplayName("open: a restarted run continues after the persisted checkpoint")
+    void restart_resumes() throws Exception {
+        Path file = dir.resolve("_checkpoint");
+        StatementCheckpoint first = StatementCheckpoint.open(file);
+        first.completed(0, id(100), 2, 5);
+
+        StatementCheckpoint restarted = StatementCheckpoint.open(file);
+        assertEquals(id(100), restarted.resumeAfter());
+        assertEquals(2, restarted.customers(), "counts carry over to the resumed run");
+        assertEquals(5, restarted.orders());
+
+        // sequence numbers start over in the new run
+        restarted.completed(0, id(200), 3, 1);
+        StatementCheckpoint reopened = StatementCheckpoint.open(file);
+        assertEquals(id(200), reopened.resumeAfter());
+        assertEquals(5, reopened.customers());
+        assertEquals(6, reopened.orders());
+    }
+
+    private static UUID id(long n) {
+        return new UUID(0, n);
+    }
+}
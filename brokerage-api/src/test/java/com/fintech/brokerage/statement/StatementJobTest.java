@@ -0,0 +1,181 @@
+package com.fintech.brokerage.statement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fintech.brokerage.instrument.InstrumentRegistry;
+import com.fintech.brokerage.shard.ShardMap;
+import com.fintech.brokerage.shard.ShardRouter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the whole job against an embedded H2 database with the columns it reads, in chunks of
+ * two customers on one thread, so the order of chunks is fixed.
+ */
+class StatementJobTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final LocalDate DAY = LocalDate.now(UTC).minusDays(1);
+    private static final OffsetDateTime DAY_START = DAY.atStartOfDay(UTC).toOffsetDateTime();
+    private static final OffsetDateTime DAY_END = DAY_START.plusDays(1);
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private InstrumentRegistry instruments;
+    private ObjectMapper mapper;
+    private StatementJob job;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("""
+                create table instrument (id integer generated by default as identity primary key,
+                    symbol varchar(16) not null unique, name varchar(255), listed_at timestamp(6) with time zone)""");
+        jdbc.execute("create table customer (id uuid primary key)");
+        jdbc.execute("""
+                create table asset (customer_id uuid, instrument_id int, size numeric(19,4),
+                    usable_size numeric(19,4), primary key (customer_id, instrument_id))""");
+        jdbc.execute("""
+                create table balance_movement (id uuid primary key, customer_id uuid, instrument_id int,
+                    size_delta numeric(19,4), usable_delta numeric(19,4), compacted boolean,
+                    created_at timestamp(6) with time zone)""");
+        jdbc.execute("""
+                create table orders (id uuid primary key, customer_id uuid, instrument_id int, order_side varchar(4),
+                    size numeric(19,4), price numeric(19,4), status varchar(10), create_date timestamp(6) with time zone)""");
+        jdbc.execute("""
+                create table cash_posting (id uuid primary key, customer_id uuid, idempotency_key varchar(80),
+                    type varchar(16), amount numeric(19,4), created_at timestamp(6) with time zone)""");
+        ShardRouter router = new ShardRouter(new ShardMap(List.of()));
+        instruments = new InstrumentRegistry(jdbc, router, mock(ApplicationEventPublisher.class));
+        instruments.afterSingletonsInstantiated();
+        mapper = JsonMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        job = new StatementJob(jdbc, router, instruments, mapper, new SimpleMeterRegistry(), dir.toString(), 2, 1, 1, UTC);
+
+        for (int n = 1; n <= 6; n++) {
+            jdbc.update("insert into customer (id) values (?)", customer(n));
+            asset(customer(n), "TRY", "500", "500");
+        }
+    }
+
+    @Test
+    @DisplayName("run: balances at both day boundaries come from the movements, also once compacted")
+    void balances_from_movements() throws Exception {
+        UUID alice = customer(1);
+        // snapshot 1150 = 1000 + the two compacted movements below
+        jdbc.update("update asset set size = 1150, usable_size = 1150 where customer_id = ?", alice);
+        movement(alice, "TRY", "100", "100", true, DAY_START.minusHours(2));
+        movement(alice, "TRY", "50", "50", true, DAY_START.plusHours(9));     // deposit during the day
+        jdbc.update("insert into cash_posting values (?, ?, 'bulk:payroll', 'DEPOSIT', 50, ?)", UUID.randomUUID(), alice,
+                DAY_START.plusHours(9));
+        movement(alice, "TRY", "-30", "0", false, DAY_START.plusHours(15));   // BUY matched during the day
+        movement(alice, "TRY", "20", "20", false, DAY_END.plusMinutes(5));    // after the day ended
+        order(alice, "AAPL", "BUY", "3", "10", "MATCHED", DAY_START.plusHours(14));
+        order(alice, "AAPL", "BUY", "1", "10", "PENDING", DAY_END.plusMinutes(1));
+
+        StatementJob.Result result = job.run(DAY);
+
+        assertEquals(6, result.customers());
+        assertEquals(1, result.orders(), "only orders placed during the day are listed");
+        JsonNode tryBalance = statement(alice).get("assets").get(0);
+        assertEquals("TRY", tryBalance.get("assetName").asText());
+        assertEquals(0, new BigDecimal("1100").compareTo(tryBalance.get("opening").decimalValue()));
+        assertEquals(0, new BigDecimal("1120").compareTo(tryBalance.get("closing").decimalValue()));
+        assertEquals(0, new BigDecimal("1150").compareTo(tryBalance.get("usableClosing").decimalValue()));
+        assertEquals(1, statement(alice).get("postings").size());
+        assertEquals(0, new BigDecimal("50").compareTo(statement(alice).get("activity").get("deposited").decimalValue()));
+    }
+
+    @Test
+    @DisplayName("run: an interrupted run resumes after its checkpoint, counts every customer once, then is done")
+    void resumes_after_failure() throws Exception {
+        order(customer(1), "AAPL", "BUY", "1", "10", "PENDING", DAY_START.plusHours(1));
+        order(customer(5), "AAPL", "BUY", "1", "10", "PENDING", DAY_START.plusHours(1));
+        // a directory where customer 3's statement goes makes the second chunk fail
+        Path blocker = dir.resolve(DAY.toString()).resolve("00").resolve(customer(3) + ".json");
+        Files.createDirectories(blocker);
+        Files.writeString(blocker.resolve("keep"), "x");
+
+        assertThrows(IllegalStateException.class, () -> job.run(DAY));
+        Path dayDir = dir.resolve(DAY.toString());
+        assertFalse(Files.exists(dayDir.resolve("_done")));
+        assertEquals(customer(2) + " 2 1", Files.readString(dayDir.resolve("_checkpoint")));
+        assertFalse(Files.exists(dayDir.resolve("00").resolve(customer(5) + ".json")), "nothing after the failed chunk");
+
+        Files.delete(blocker.resolve("keep"));
+        Files.delete(blocker);
+        StatementJob.Result resumed = job.run(DAY);
+
+        assertTrue(resumed.resumed());
+        assertEquals(6, resumed.customers());
+        assertEquals(2, resumed.orders());
+        for (int n = 1; n <= 6; n++) {
+            assertTrue(Files.isRegularFile(dayDir.resolve("00").resolve(customer(n) + ".json")));
+        }
+        assertTrue(Files.exists(dayDir.resolve("_done")));
+
+        StatementJob.Result again = job.run(DAY);
+        assertTrue(again.alreadyComplete());
+        assertEquals(6, again.customers());
+    }
+
+    @Test
+    @DisplayName("run: refuses a day that has not ended yet")
+    void refuses_open_day() {
+        assertThrows(IllegalArgumentException.class, () -> job.run(DAY.plusDays(1)));
+        assertFalse(Files.exists(dir.resolve(DAY.plusDays(1).toString())));
+    }
+
+    private JsonNode statement(UUID customerId) throws Exception {
+        return mapper.readTree(dir.resolve(DAY.toString()).resolve("00").resolve(customerId + ".json").toFile());
+    }
+
+    private void asset(UUID customerId, String symbol, String size, String usable) {
+        jdbc.update("insert into asset (customer_id, instrument_id, size, usable_size) values (?, ?, ?, ?)",
+                customerId, instruments.idOf(symbol), new BigDecimal(size), new BigDecimal(usable));
+    }
+
+    private void movement(UUID customerId, String symbol, String size, String usable, boolean compacted,
+                          OffsetDateTime at) {
+        jdbc.update("insert into balance_movement values (?, ?, ?, ?, ?, ?, ?)", UUID.randomUUID(), customerId,
+                instruments.idOf(symbol), new BigDecimal(size), new BigDecimal(usable), compacted, at);
+    }
+
+    private void order(UUID customerId, String symbol, String side, String size, String price, String status,
+                       OffsetDateTime at) {
+        jdbc.update("insert into orders values (?, ?, ?, ?, ?, ?, ?, ?)", UUID.randomUUID(), customerId,
+                instruments.idOf(symbol), side, new BigDecimal(size), new BigDecimal(price), status, at);
+    }
+
+    private static UUID customer(int n) {
+        return new UUID(0, n);
+    }
+}
@@ -0,0 +1,295 @@
+package com.fintech.brokerage.stress;
+
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.Order;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.exception.InsufficientBalanceException;
+import com.fintech.brokerage.exception.OrderStateException;
+import com.fintech.brokerage.ledger.Balance;
+import com.fintech.brokerage.repo.AssetRepository;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.repo.OrderRepository;
+import com.fintech.brokerage.service.OrderService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Interleaves create, cancel and match calls for a handful of shared customers on many threads
+ * against the embedded database, then checks that balances still agree with the final order
+ * states. Excluded from the default build; run with {@code mvn test -Pstress}, sized with
+ * {@code -Dstress.threads}, {@code -Dstress.customers} and {@code -Dstress.operations}.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress;DB_CLOSE_DELAY=-1",
+        "logging.level.com.fintech.brokerage.service.impl.OrderServiceImpl=WARN"
+})
+class OrderConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderConcurrencyStressTest.class);
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 8);
+    private static final int CUSTOMERS = Integer.getInteger("stress.customers", 3);
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 3000);
+    /** Cancels and matches pick among the latest orders so they collide with each other. */
+    private static final int HOT_WINDOW = 8;
+
+    private static final String[] STOCKS = { AssetType.AAPL.getSymbol(), AssetType.TSLA.getSymbol() };
+    private static final BigDecimal INITIAL_TRY = new BigDecimal("1000000.0000");
+    private static final BigDecimal INITIAL_STOCK = new BigDecimal("1000.0000");
+
+    @Autowired private OrderService orderService;
+    @Autowired private CustomerRepository customerRepo;
+    @Autowired private AssetRepository assetRepo;
+    @Autowired private OrderRepository orderRepo;
+
+    private enum Op { CREATE, CANCEL, MATCH }
+
+    private enum Outcome { OK, CONFLICT, LOCKED, LOST_RACE, REJECTED, UNEXPECTED }
+
+    private record Placed(UUID id, int customer) {}
+
+    private final LongAdder[][] outcomes = new LongAdder[Op.values().length][Outcome.values().length];
+    private final List<Placed> placed = Collections.synchronizedList(new ArrayList<>());
+    private final Set<UUID> canceledOk = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> matchedOk = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Throwable> firstUnexpected = new AtomicReference<>();
+
+    @Test
+    @DisplayName("stress: concurrent create/cancel/match keep balances equal to the final order states")
+    void interleaved_writes_keep_invariants() throws Exception {
+        for (LongAdder[] row : outcomes) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+        List<Customer> customers = seedCustomers();
+
+        AtomicInteger budget = new AtomicInteger(OPERATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                while (budget.getAndDecrement() > 0) {
+                    step(customers);
+                }
+                return null;
+            });
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.MINUTES), "stress run did not finish");
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        report(seconds);
+
+        Throwable unexpected = firstUnexpected.get();
+        assertNull(unexpected, () -> "unexpected failure: " + unexpected);
+        assertTrue(count(Op.CREATE, Outcome.OK) > 0, "no order was created");
+        for (int c = 0; c < customers.size(); c++) {
+            verifyCustomer(customers.get(c), c);
+        }
+    }
+
+    private List<Customer> seedCustomers() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer c = customerRepo.save(new Customer("stress-" + run + "-" + i, "n/a", Role.USER));
+            assetRepo.save(new Asset(c, AssetType.TRY.getSymbol(), INITIAL_TRY, INITIAL_TRY));
+            for (String stock : STOCKS) {
+                assetRepo.save(new Asset(c, stock, INITIAL_STOCK, INITIAL_STOCK));
+            }
+            customers.add(c);
+        }
+        return customers;
+    }
+
+    private void step(List<Customer> customers) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int roll = rnd.nextInt(4);
+        Op op = placed.isEmpty() || roll < 2 ? Op.CREATE : roll == 2 ? Op.CANCEL : Op.MATCH;
+        try {
+            switch (op) {
+                case CREATE -> {
+                    int c = rnd.nextInt(customers.size());
+                    OrderSide side = rnd.nextBoolean() ? OrderSide.BUY : OrderSide.SELL;
+                    Order o = orderService.create(customers.get(c), STOCKS[rnd.nextInt(STOCKS.length)], side,
+                            BigDecimal.valueOf(1 + rnd.nextInt(5)), BigDecimal.valueOf(rnd.nextInt(1_000, 20_000), 2));
+                    placed.add(new Placed(o.getId(), c));
+                }
+                case CANCEL -> {
+                    UUID id = pickHot(rnd);
+                    orderService.cancel(id);
+                    canceledOk.add(id);
+                }
+                case MATCH -> {
+                    UUID id = pickHot(rnd);
+                    orderService.match(id);
+                    matchedOk.add(id);
+                }
+            }
+            record(op, Outcome.OK);
+        } catch (RuntimeException e) {
+            Outcome outcome = classify(e);
+            record(op, outcome);
+            if (outcome == Outcome.UNEXPECTED) {
+                firstUnexpected.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private UUID pickHot(ThreadLocalRandom rnd) {
+        synchronized (placed) {
+            int n = placed.size();
+            return placed.get(n - 1 - rnd.nextInt(Math.min(n, HOT_WINDOW))).id();
+        }
+    }
+
+    private static Outcome classify(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException) {
+            return Outcome.CONFLICT;
+        }
+        if (e instanceof ConcurrencyFailureException) {
+            return Outcome.LOCKED;
+        }
+        if (e instanceof OrderStateException) {
+            return Outcome.LOST_RACE;
+        }
+        if (e instanceof InsufficientBalanceException) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.UNEXPECTED;
+    }
+
+    /**
+     * Recomputes every balance of the customer from the initial amounts and the final order
+     * states: matched orders moved totals, pending orders hold reservations, canceled orders
+     * left no trace.
+     */
+    private void verifyCustomer(Customer customer, int index) {
+        List<UUID> ids;
+        synchronized (placed) {
+            ids = placed.stream().filter(p -> p.customer() == index).map(Placed::id).toList();
+        }
+
+        BigDecimal trySize = INITIAL_TRY;
+        BigDecimal tryReserved = BigDecimal.ZERO;
+        Map<String, BigDecimal> stockSize = new HashMap<>();
+        Map<String, BigDecimal> stockReserved = new HashMap<>();
+        for (String stock : STOCKS) {
+            stockSize.put(stock, INITIAL_STOCK);
+            stockReserved.put(stock, BigDecimal.ZERO);
+        }
+
+        for (Order o : orderRepo.findAllById(ids)) {
+            BigDecimal notional = o.getPrice().multiply(o.getSize()).setScale(4, RoundingMode.HALF_UP);
+            boolean buy = o.getOrderSide() == OrderSide.BUY;
+            switch (o.getStatus()) {
+                case MATCHED -> {
+                    trySize = buy ? trySize.subtract(notional) : trySize.add(notional);
+                    stockSize.merge(o.getAssetName(), buy ? o.getSize() : o.getSize().negate(), BigDecimal::add);
+                }
+                case PENDING -> {
+                    if (buy) {
+                        tryReserved = tryReserved.add(notional);
+                    } else {
+                        stockReserved.merge(o.getAssetName(), o.getSize(), BigDecimal::add);
+                    }
+                }
+                case CANCELED -> { }
+            }
+            if (canceledOk.contains(o.getId())) {
+                assertEquals(OrderStatus.CANCELED, o.getStatus(), "successful cancel of " + o.getId());
+            }
+            if (matchedOk.contains(o.getId())) {
+                assertEquals(OrderStatus.MATCHED, o.getStatus(), "successful match of " + o.getId());
+            }
+        }
+
+        Map<String, Balance> balances = new HashMap<>();
+        for (Balance b : assetRepo.findBalances(customer, null)) {
+            balances.put(b.assetName(), b);
+            assertTrue(b.usableSize().signum() >= 0, b.assetName() + " usable below zero");
+            assertTrue(b.usableSize().compareTo(b.size()) <= 0, b.assetName() + " usable above size");
+        }
+
+        assertBalance(balances.get(AssetType.TRY.getSymbol()), trySize, tryReserved);
+        for (String stock : STOCKS) {
+            assertBalance(balances.get(stock), stockSize.get(stock), stockReserved.get(stock));
+        }
+    }
+
+    private static void assertBalance(Balance balance, BigDecimal expectedSize, BigDecimal reserved) {
+        String name = balance.assetName();
+        assertEquals(0, expectedSize.compareTo(balance.size()),
+                () -> name + " size " + balance.size() + ", expected " + expectedSize);
+        BigDecimal expectedUsable = expectedSize.subtract(reserved);
+        assertEquals(0, expectedUsable.compareTo(balance.usableSize()),
+                () -> name + " usable " + balance.usableSize() + ", expected " + expectedUsable
+                        + " (reserved by pending orders: " + reserved + ")");
+    }
+
+    private void record(Op op, Outcome outcome) {
+        outcomes[op.ordinal()][outcome.ordinal()].increment();
+    }
+
+    private long count(Op op, Outcome outcome) {
+        return outcomes[op.ordinal()][outcome.ordinal()].sum();
+    }
+
+    private void report(double seconds) {
+        StringBuilder sb = new StringBuilder(String.format(
+                "%nStress run: %d threads, %d customers, %d operations in %.1fs (%.0f ops/s)%n",
+                THREADS, CUSTOMERS, OPERATIONS, seconds, OPERATIONS / seconds));
+        sb.append(String.format("%-8s %8s %8s %10s %8s %10s %9s %10s %9s%n",
+                "op", "total", "ok", "conflict", "locked", "lost-race", "rejected", "unexpected", "conflict%"));
+        for (Op op : Op.values()) {
+            long total = 0;
+            for (Outcome o : Outcome.values()) {
+                total += count(op, o);
+            }
+            long conflicts = count(op, Outcome.CONFLICT) + count(op, Outcome.LOCKED);
+            sb.append(String.format("%-8s %8d %8d %10d %8d %10d %9d %10d %8.1f%%%n", op, total,
+                    count(op, Outcome.OK), count(op, Outcome.CONFLICT), count(op, Outcome.LOCKED),
+                    count(op, Outcome.LOST_RACE), count(op, Outcome.REJECTED), count(op, Outcome.UNEXPECTED),
+                    total == 0 ? 0.0 : 100.0 * conflicts / total));
+        }
+        log.info(sb.toString());
+    }
+}
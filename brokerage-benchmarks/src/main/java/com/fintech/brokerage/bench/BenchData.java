@@ -0,0 +1,61 @@
+package com.fintech.brokerage.bench;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import com.fintech.brokerage.entity.Order;
+
+/**
+ * Fixed, seeded inputs shared by the benchmarks so runs of different versions measure the
+ * same work.
+ */
+final class BenchData {
+
+    static final long SEED = 42L;
+    static final int SIZE = 1024;
+    static final int MASK = SIZE - 1;
+
+    private BenchData() {
+    }
+
+    /** Prices between 1 and 1000 with 2 decimals, like quoted share prices. */
+    static BigDecimal[] prices(SplittableRandom rnd) {
+        BigDecimal[] out = new BigDecimal[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            out[i] = BigDecimal.valueOf(100 + rnd.nextInt(99_900), 2);
+        }
+        return out;
+    }
+
+    /** Sizes between 0.0001 and 50 with the 4 decimals of the money columns. */
+    static BigDecimal[] sizes(SplittableRandom rnd) {
+        BigDecimal[] out = new BigDecimal[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            out[i] = BigDecimal.valueOf(1 + rnd.nextInt(500_000), 4);
+        }
+        return out;
+    }
+
+    /**
+     * Sets fields that JPA would normally fill in ({@code id}, {@code createDate}) on an entity
+     * built outside a persistence context.
+     */
+    static Order withPersistentState(Order order, UUID id, Instant createDate) {
+        set(order, "id", id);
+        set(order, "createDate", createDate);
+        return order;
+    }
+
+    private static void set(Object target, String field, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(field);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + field, e);
+        }
+    }
+}
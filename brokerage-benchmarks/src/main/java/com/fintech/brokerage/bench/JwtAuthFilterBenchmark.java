@@ -0,0 +1,96 @@
+package com.fintech.brokerage.bench;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.security.CustomerPrincipal;
+import com.fintech.brokerage.security.JwtAuthFilter;
+import com.fintech.brokerage.security.PrincipalDirectory;
+import com.fintech.brokerage.security.VerifiedTokenCache;
+import com.fintech.brokerage.service.impl.JwtServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Bearer token authentication in {@link JwtAuthFilter}: {@code cached} is the steady state of
+ * a client reusing its token, {@code verify} the full HMAC check and claim parsing (cache
+ * disabled).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "y5h8N2QkV7tRzP3fG4aL9sXc1vB6wYj2K0mF8qD3eH7uJ1nP5rT4oV9bZ6xS8yW3";
+    private static final FilterChain NO_OP = (req, res) -> { };
+
+    @Param({ "cached", "verify" })
+    public String path;
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        CustomerPrincipal principal = new CustomerPrincipal(new UUID(BenchData.SEED, 1), "alice", Role.USER, true);
+        PrincipalDirectory directory = new PrincipalDirectory(singleCustomerRepository(principal), true, 60_000, 10_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache("cached".equals(path) ? 10_000 : 0);
+        filter = new JwtAuthFilter(SECRET, directory, cache, new SimpleMeterRegistry());
+
+        String token = new JwtServiceImpl(SECRET, 1800).issueToken(principal.customerId(), principal.username(),
+                principal.role());
+        request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws ServletException, IOException {
+        // OncePerRequestFilter clears its marker attribute afterwards, so the request can be reused.
+        filter.doFilter(request, response, NO_OP);
+        Authentication a = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return a;
+    }
+
+    /** Only {@code findAllPrincipals} is needed: the directory is preloaded and never misses. */
+    private static CustomerRepository singleCustomerRepository(CustomerPrincipal principal) {
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[] { CustomerRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllPrincipals" -> List.of(principal);
+                    case "findByUsername", "findById" -> Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "CustomerRepository(stub)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,82 @@
+package com.fintech.brokerage.bench;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.brokerage.controller.dto.OrderResponse;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.Order;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.OrderStatus;
+import com.fintech.brokerage.enums.Role;
+
+/**
+ * Entity to {@link OrderResponse} mapping plus JSON serialization, for a single order (create
+ * response) and a 20 order page (default page size of {@code /api/orders/paged}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderResponseSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper mapper;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the controllers.
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        SplittableRandom rnd = new SplittableRandom(BenchData.SEED);
+        var prices = BenchData.prices(rnd);
+        var sizes = BenchData.sizes(rnd);
+        AssetType[] assets = { AssetType.AAPL, AssetType.TSLA, AssetType.GOOGL };
+        OrderStatus[] statuses = OrderStatus.values();
+
+        Customer customer = new Customer("bench", "x", Role.USER);
+        customer.setId(new UUID(rnd.nextLong(), rnd.nextLong()));
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+
+        orders = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Order o = new Order(customer, assets[i % assets.length].getSymbol(),
+                    i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL, sizes[i], prices[i], statuses[i % statuses.length]);
+            orders.add(BenchData.withPersistentState(o, new UUID(rnd.nextLong(), rnd.nextLong()),
+                    base.plusSeconds(i * 60L)));
+        }
+    }
+
+    @Benchmark
+    public byte[] single() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new OrderResponse(orders.get(0)));
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(orders.stream().map(OrderResponse::new).toList());
+    }
+}
@@ -0,0 +1,97 @@
+package com.fintech.brokerage.bench;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fintech.brokerage.BrokerageApiApplication;
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.entity.Order;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.OrderSide;
+import com.fintech.brokerage.enums.Role;
+import com.fintech.brokerage.repo.AssetRepository;
+import com.fintech.brokerage.repo.CustomerRepository;
+import com.fintech.brokerage.service.OrderService;
+
+/**
+ * {@code OrderServiceImpl} write paths through the real Spring context, JPA and an in-memory
+ * H2 database. Cancel and match need a pending order, so they are measured together with the
+ * create that produces it; subtract {@link #create()} to isolate them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Customer customer;
+    private BigDecimal[] prices;
+    private BigDecimal[] sizes;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        // Command line arguments, so they take precedence over application.yml.
+        context = new SpringApplicationBuilder(BrokerageApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+
+        // Enough TRY that the trial never runs out; the AAPL position grows with every match.
+        customer = context.getBean(CustomerRepository.class).save(new Customer("bench", "x", Role.USER));
+        context.getBean(AssetRepository.class).save(new Asset(customer, AssetType.TRY.getSymbol(),
+                new BigDecimal("1000000000000.0000"), new BigDecimal("1000000000000.0000")));
+
+        SplittableRandom rnd = new SplittableRandom(BenchData.SEED);
+        prices = BenchData.prices(rnd);
+        sizes = BenchData.sizes(rnd);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order create() {
+        int k = i++ & BenchData.MASK;
+        return orderService.create(customer, AssetType.AAPL.getSymbol(), OrderSide.BUY, sizes[k], prices[k]);
+    }
+
+    @Benchmark
+    public UUID createThenCancel() {
+        UUID id = create().getId();
+        orderService.cancel(id);
+        return id;
+    }
+
+    @Benchmark
+    public UUID createThenMatch() {
+        UUID id = create().getId();
+        orderService.match(id);
+        return id;
+    }
+}
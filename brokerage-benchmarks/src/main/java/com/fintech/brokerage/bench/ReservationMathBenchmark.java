@@ -0,0 +1,74 @@
+package com.fintech.brokerage.bench;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fintech.brokerage.entity.Asset;
+import com.fintech.brokerage.entity.Customer;
+import com.fintech.brokerage.enums.AssetType;
+import com.fintech.brokerage.enums.Role;
+
+/**
+ * The BigDecimal work done for every BUY order: notional at the money scale (same expression
+ * as {@code OrderServiceImpl.notional}), the balance check and the reserve/refund on
+ * {@link Asset}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReservationMathBenchmark {
+
+    private BigDecimal[] prices;
+    private BigDecimal[] sizes;
+    private Asset tryAsset;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(BenchData.SEED);
+        prices = BenchData.prices(rnd);
+        sizes = BenchData.sizes(rnd);
+        Customer customer = new Customer("bench", "x", Role.USER);
+        tryAsset = new Asset(customer, AssetType.TRY.getSymbol(), new BigDecimal("1000000000.0000"),
+                new BigDecimal("1000000000.0000"));
+    }
+
+    @Benchmark
+    public BigDecimal notional() {
+        int k = i++ & BenchData.MASK;
+        return prices[k].multiply(sizes[k]).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public boolean notionalAndBalanceCheck() {
+        int k = i++ & BenchData.MASK;
+        BigDecimal total = prices[k].multiply(sizes[k]).setScale(4, RoundingMode.HALF_UP);
+        return tryAsset.getUsableSize().compareTo(total) >= 0;
+    }
+
+    /** Reserve then refund, so the balance (and its digit count) stays stable across iterations. */
+    @Benchmark
+    public BigDecimal reserveAndRefund() {
+        int k = i++ & BenchData.MASK;
+        BigDecimal total = prices[k].multiply(sizes[k]).setScale(4, RoundingMode.HALF_UP);
+        tryAsset.subFromUsable(total);
+        tryAsset.addToUsable(total);
+        return tryAsset.getUsableSize();
+    }
+}
@@ -0,0 +1,128 @@
+package com.fintech.brokerage.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.brokerage.loadgen.LoadConfig.Credentials;
+
+/**
+ * Thin blocking client for the endpoints exercised by the load generator. Calls return the HTTP
+ * status, or {@link #IO_ERROR} when no response was received.
+ */
+final class ApiClient {
+
+    static final int IO_ERROR = -1;
+
+    /** Authenticated customer: access token and the customerId claim taken from it. */
+    record Session(String username, String token, String customerId) {
+    }
+
+    /** Outcome of an order creation; {@code orderId} is only set on success. */
+    record Created(int status, String orderId) {
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI base;
+    private final ObjectMapper json = new ObjectMapper();
+
+    ApiClient(URI base) {
+        this.base = base;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    Session login(Credentials c) throws IOException, InterruptedException {
+        String body = json.writeValueAsString(json.createObjectNode()
+                .put("username", c.username()).put("password", c.password()));
+        HttpResponse<String> res = http.send(post("/auth/login", body, null), HttpResponse.BodyHandlers.ofString());
+        if (res.statusCode() != 200) {
+            throw new IOException("Login of " + c.username() + " failed with HTTP " + res.statusCode());
+        }
+        String token = json.readTree(res.body()).path("token").asText();
+        String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+        return new Session(c.username(), token, json.readTree(payload).path("customerId").asText());
+    }
+
+    Created createOrder(Session s, String assetName, String side, String size, String price) {
+        String body = "{\"customerId\":\"" + s.customerId() + "\",\"assetName\":\"" + assetName
+                + "\",\"side\":\"" + side + "\",\"size\":" + size + ",\"price\":" + price + "}";
+        try {
+            HttpResponse<String> res = http.send(post("/api/orders", body, s.token()),
+                    HttpResponse.BodyHandlers.ofString());
+            String id = null;
+            if (res.statusCode() == 201) {
+                JsonNode node = json.readTree(res.body());
+                id = node.path("id").asText(null);
+            }
+            return new Created(res.statusCode(), id);
+        } catch (IOException e) {
+            return new Created(IO_ERROR, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Created(IO_ERROR, null);
+        }
+    }
+
+    int listOrders(Session s, Instant from, Instant to) {
+        return send(get("/api/orders?customerId=" + s.customerId() + "&from=" + from + "&to=" + to, s.token()));
+    }
+
+    int pagedOrders(Session s) {
+        return send(get("/api/orders/paged?customerId=" + s.customerId() + "&size=20", s.token()));
+    }
+
+    int cancelOrder(Session s, String orderId) {
+        return send(request("/api/orders/" + orderId, s.token()).DELETE().build());
+    }
+
+    int matchOrder(Session admin, String orderId) {
+        return send(post("/api/admin/orders/" + orderId + "/match", "", admin.token()));
+    }
+
+    int assets(Session s) {
+        return send(get("/api/assets?customerId=" + s.customerId(), s.token()));
+    }
+
+    private int send(HttpRequest req) {
+        try {
+            return http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return IO_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return IO_ERROR;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT);
+        if (token != null) {
+            b.header("Authorization", "Bearer " + token);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,71 @@
+package com.fintech.brokerage.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histograms and outcome counters of one operation. Two histograms are kept:
+ * {@code corrected} measures from the moment the request was scheduled to be sent (correcting
+ * coordinated omission: time spent waiting behind a slow previous call counts), {@code service}
+ * from the moment it was actually sent.
+ */
+final class EndpointStats {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    final Operation operation;
+    private final Recorder corrected = new Recorder(MAX_MICROS, 3);
+    private final Recorder service = new Recorder(MAX_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+
+    EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    void record(int status, long intendedStartNanos, long sentNanos, long endNanos) {
+        corrected.recordValue(Math.min(MAX_MICROS, (endNanos - intendedStartNanos) / 1000));
+        service.recordValue(Math.min(MAX_MICROS, (endNanos - sentNanos) / 1000));
+        if (status == ApiClient.IO_ERROR) {
+            ioErrors.increment();
+        } else if (status == 429 || status == 503) {
+            throttled.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            ok.increment();
+        }
+    }
+
+    /** Drops everything recorded so far, used at the end of the warmup. */
+    void reset() {
+        corrected.reset();
+        service.reset();
+        ok.reset();
+        throttled.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+        ioErrors.reset();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(operation, corrected.getIntervalHistogram(), service.getIntervalHistogram(), ok.sum(),
+                throttled.sum(), clientErrors.sum(), serverErrors.sum(), ioErrors.sum());
+    }
+
+    record Snapshot(Operation operation, Histogram corrected, Histogram service, long ok, long throttled,
+                    long clientErrors, long serverErrors, long ioErrors) {
+
+        long total() {
+            return ok + throttled + clientErrors + serverErrors + ioErrors;
+        }
+    }
+}
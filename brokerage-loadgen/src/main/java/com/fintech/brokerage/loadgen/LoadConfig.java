@@ -0,0 +1,139 @@
+package com.fintech.brokerage.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, all in {@code --name=value} form. See {@link #USAGE}.
+ */
+record LoadConfig(URI baseUrl,
+                  List<Credentials> accounts,
+                  Credentials admin,
+                  int users,
+                  double ratePerUser,
+                  Duration warmup,
+                  Duration duration,
+                  Map<Operation, Integer> mix,
+                  String assetName,
+                  String price,
+                  String size,
+                  long seed,
+                  Path outDir) {
+
+    record Credentials(String username, String password) {
+    }
+
+    static final String USAGE = """
+            Options (--name=value):
+              --base-url          API root                                   [http://localhost:8080]
+              --accounts          user:password,...  customers to log in as  [alice:alice123,bob:bob123,John:john123]
+              --account-format    printf pattern for generated usernames, e.g. cust%07d (replaces --accounts)
+              --account-count     number of generated usernames              [1000]
+              --account-password  password of the generated usernames
+              --admin             admin user:password, used for match        [admin:admin123]
+              --users             concurrent virtual users                   [50]
+              --rate              requests/second per virtual user           [2]
+              --warmup            not recorded, e.g. 10s                     [10s]
+              --duration          recorded period, e.g. 60s or 5m            [60s]
+              --mix               operation weights                          [create=30,list=10,paged=25,cancel=15,match=5,assets=15]
+              --asset             asset bought by create                     [AAPL]
+              --price / --size    order price and size                       [1 / 0.01]
+              --seed              random seed for the operation sequence     [42]
+              --out               directory for per-endpoint .hgrm files     [none]
+            Virtual users are spread round-robin over the accounts. Note that the per-customer
+            rate limit (app.rate-limit.*) applies, so raise it or use enough accounts.
+            """;
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> o = new HashMap<>();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                throw new IllegalArgumentException("");
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            o.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        List<Credentials> accounts = new ArrayList<>();
+        if (o.containsKey("account-format")) {
+            String password = require(o, "account-password");
+            int count = Integer.parseInt(o.getOrDefault("account-count", "1000"));
+            for (int i = 0; i < count; i++) {
+                accounts.add(new Credentials(String.format(o.get("account-format"), i), password));
+            }
+        } else {
+            for (String pair : o.getOrDefault("accounts", "alice:alice123,bob:bob123,John:john123").split(",")) {
+                accounts.add(credentials(pair));
+            }
+        }
+
+        return new LoadConfig(
+                URI.create(stripSlash(o.getOrDefault("base-url", "http://localhost:8080"))),
+                accounts,
+                credentials(o.getOrDefault("admin", "admin:admin123")),
+                Integer.parseInt(o.getOrDefault("users", "50")),
+                Double.parseDouble(o.getOrDefault("rate", "2")),
+                duration(o.getOrDefault("warmup", "10s")),
+                duration(o.getOrDefault("duration", "60s")),
+                mix(o.getOrDefault("mix", "create=30,list=10,paged=25,cancel=15,match=5,assets=15")),
+                o.getOrDefault("asset", "AAPL"),
+                o.getOrDefault("price", "1"),
+                o.getOrDefault("size", "0.01"),
+                Long.parseLong(o.getOrDefault("seed", "42")),
+                o.containsKey("out") ? Path.of(o.get("out")) : null);
+    }
+
+    private static Credentials credentials(String pair) {
+        int colon = pair.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected user:password but got '" + pair + "'");
+        }
+        return new Credentials(pair.substring(0, colon).trim(), pair.substring(colon + 1));
+    }
+
+    private static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.byKey(kv[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no positive weight");
+        }
+        return mix;
+    }
+
+    private static Duration duration(String s) {
+        long n = Long.parseLong(s.substring(0, s.length() - 1));
+        return switch (s.charAt(s.length() - 1)) {
+            case 's' -> Duration.ofSeconds(n);
+            case 'm' -> Duration.ofMinutes(n);
+            case 'h' -> Duration.ofHours(n);
+            default -> throw new IllegalArgumentException("Duration needs an s, m or h suffix: '" + s + "'");
+        };
+    }
+
+    private static String require(Map<String, String> o, String key) {
+        String v = o.get(key);
+        if (v == null) {
+            throw new IllegalArgumentException("--" + key + " is required");
+        }
+        return v;
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,147 @@
+package com.fintech.brokerage.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.fintech.brokerage.loadgen.ApiClient.Session;
+import com.fintech.brokerage.loadgen.EndpointStats.Snapshot;
+import com.fintech.brokerage.loadgen.LoadConfig.Credentials;
+
+/**
+ * Closed-loop load generator for a running brokerage-api instance: logs the configured
+ * customers in, runs {@code --users} virtual users against the operation mix, and prints
+ * coordinated-omission corrected latency percentiles per endpoint.
+ */
+public final class LoadGenerator {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final int LOGIN_PARALLELISM = 8;
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            if (!e.getMessage().isEmpty()) {
+                System.err.println(e.getMessage());
+            }
+            System.err.println(LoadConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        run(config, System.out);
+    }
+
+    static void run(LoadConfig config, PrintStream out) throws Exception {
+        ApiClient client = new ApiClient(config.baseUrl());
+
+        int accountCount = Math.min(config.users(), config.accounts().size());
+        out.printf("Logging in %d customers and the admin at %s%n", accountCount, config.baseUrl());
+        List<Session> sessions = login(client, config.accounts().subList(0, accountCount));
+        Session admin = client.login(config.admin());
+
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            stats.put(op, new EndpointStats(op));
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long stop = measureFrom + config.duration().toNanos();
+
+        List<Thread> threads = new ArrayList<>(config.users());
+        for (int i = 0; i < config.users(); i++) {
+            VirtualUser vu = new VirtualUser(client, sessions.get(i % sessions.size()), admin, config, stats,
+                    config.seed() + i, start, stop);
+            Thread t = new Thread(vu, "vu-" + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+        out.printf("Started %d virtual users at %.1f req/s each, warmup %ds, measuring %ds%n",
+                config.users(), config.ratePerUser(), config.warmup().toSeconds(), config.duration().toSeconds());
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        stats.values().forEach(EndpointStats::reset);
+
+        // Requests still in flight at the stop time are allowed to finish (up to the client timeout).
+        for (Thread t : threads) {
+            t.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(stop - System.nanoTime()) + 35_000));
+        }
+        double seconds = config.duration().toMillis() / 1000.0;
+
+        List<Snapshot> snapshots = stats.values().stream().map(EndpointStats::snapshot).toList();
+        report(snapshots, seconds, out);
+        if (config.outDir() != null) {
+            writeHistograms(snapshots, config, out);
+        }
+    }
+
+    private static List<Session> login(ApiClient client, List<Credentials> accounts) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(LOGIN_PARALLELISM);
+        try {
+            List<Future<Session>> futures = new ArrayList<>(accounts.size());
+            for (Credentials c : accounts) {
+                futures.add(pool.submit(() -> client.login(c)));
+            }
+            List<Session> sessions = new ArrayList<>(accounts.size());
+            for (Future<Session> f : futures) {
+                sessions.add(f.get());
+            }
+            return sessions;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void report(List<Snapshot> snapshots, double seconds, PrintStream out) {
+        out.println();
+        out.printf("%-34s %8s %8s %6s %6s %6s %6s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "req/s",
+                "429/503", "4xx", "5xx", "io", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99");
+        for (Snapshot s : snapshots) {
+            if (s.total() == 0) {
+                continue;
+            }
+            Histogram h = s.corrected();
+            out.printf("%-34s %8d %8.1f %6d %6d %6d %6d", s.operation().endpoint, s.total(), s.total() / seconds,
+                    s.throttled(), s.clientErrors(), s.serverErrors(), s.ioErrors());
+            for (double p : PERCENTILES) {
+                out.printf(" %9.2f", h.getValueAtPercentile(p) / 1000.0);
+            }
+            out.printf(" %9.2f %9.2f%n", h.getMaxValue() / 1000.0, s.service().getValueAtPercentile(99) / 1000.0);
+        }
+        out.println();
+        out.println("Latencies are measured from the scheduled send time (coordinated omission corrected);");
+        out.println("'svc p99' is measured from the actual send time, for comparison.");
+    }
+
+    private static void writeHistograms(List<Snapshot> snapshots, LoadConfig config, PrintStream out)
+            throws IOException {
+        Files.createDirectories(config.outDir());
+        for (Snapshot s : snapshots) {
+            if (s.total() == 0) {
+                continue;
+            }
+            var file = config.outDir().resolve(s.operation().key + ".hgrm");
+            try (PrintStream ps = new PrintStream(Files.newOutputStream(file))) {
+                // Values are recorded in microseconds; scale to milliseconds for plotting tools.
+                s.corrected().outputPercentileDistribution(ps, 1000.0);
+            }
+        }
+        out.println("Percentile distributions written to " + config.outDir().toAbsolutePath());
+    }
+}
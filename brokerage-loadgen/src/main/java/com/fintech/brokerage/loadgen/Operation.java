@@ -0,0 +1,31 @@
+package com.fintech.brokerage.loadgen;
+
+/**
+ * The API calls a virtual user can make; {@code key} is the name used in {@code --mix} and in
+ * the report.
+ */
+enum Operation {
+    CREATE("create", "POST /api/orders"),
+    LIST("list", "GET /api/orders"),
+    PAGED("paged", "GET /api/orders/paged"),
+    CANCEL("cancel", "DELETE /api/orders/{id}"),
+    MATCH("match", "POST /api/admin/orders/{id}/match"),
+    ASSETS("assets", "GET /api/assets");
+
+    final String key;
+    final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    static Operation byKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equalsIgnoreCase(key)) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'");
+    }
+}
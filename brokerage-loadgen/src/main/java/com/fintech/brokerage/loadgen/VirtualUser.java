@@ -0,0 +1,113 @@
+package com.fintech.brokerage.loadgen;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fintech.brokerage.loadgen.ApiClient.Created;
+import com.fintech.brokerage.loadgen.ApiClient.Session;
+
+/**
+ * One simulated customer issuing requests on a fixed schedule ({@code rate} per second). The
+ * schedule does not slip when the server is slow: a late request is sent immediately and its
+ * latency is measured from when it should have been sent.
+ */
+final class VirtualUser implements Runnable {
+
+    private static final int MAX_PENDING = 256;
+
+    private final ApiClient client;
+    private final Session session;
+    private final Session admin;
+    private final LoadConfig config;
+    private final Map<Operation, EndpointStats> stats;
+    private final SplittableRandom random;
+    private final long intervalNanos;
+    private final long startNanos;
+    private final long stopNanos;
+
+    private final Operation[] ops;
+    private final int[] cumulativeWeights;
+    private final ArrayDeque<String> pendingOrders = new ArrayDeque<>();
+
+    VirtualUser(ApiClient client, Session session, Session admin, LoadConfig config,
+                Map<Operation, EndpointStats> stats, long seed, long startNanos, long stopNanos) {
+        this.client = client;
+        this.session = session;
+        this.admin = admin;
+        this.config = config;
+        this.stats = stats;
+        this.random = new SplittableRandom(seed);
+        this.intervalNanos = (long) (1_000_000_000L / config.ratePerUser());
+        // Random phase so that virtual users do not fire in lockstep.
+        this.startNanos = startNanos + random.nextLong(intervalNanos);
+        this.stopNanos = stopNanos;
+
+        this.ops = config.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[ops.length];
+        int sum = 0;
+        for (int i = 0; i < ops.length; i++) {
+            sum += config.mix().get(ops[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    @Override
+    public void run() {
+        for (long intended = startNanos; intended < stopNanos; intended += intervalNanos) {
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            execute(nextOperation(), intended);
+        }
+    }
+
+    private void execute(Operation op, long intended) {
+        // Cancel and match need an order of our own; create one first if there is none.
+        if ((op == Operation.CANCEL || op == Operation.MATCH) && pendingOrders.isEmpty()) {
+            op = Operation.CREATE;
+        }
+
+        long sent = System.nanoTime();
+        int status = switch (op) {
+            case CREATE -> create();
+            case LIST -> {
+                Instant to = Instant.now();
+                yield client.listOrders(session, to.minus(1, ChronoUnit.DAYS), to);
+            }
+            case PAGED -> client.pagedOrders(session);
+            case CANCEL -> client.cancelOrder(session, pendingOrders.pollLast());
+            case MATCH -> client.matchOrder(admin, pendingOrders.pollFirst());
+            case ASSETS -> client.assets(session);
+        };
+        stats.get(op).record(status, intended, sent, System.nanoTime());
+    }
+
+    private int create() {
+        Created c = client.createOrder(session, config.assetName(), "BUY", config.size(), config.price());
+        if (c.orderId() != null) {
+            if (pendingOrders.size() == MAX_PENDING) {
+                pendingOrders.pollFirst();
+            }
+            pendingOrders.addLast(c.orderId());
+        }
+        return c.status();
+    }
+
+    private Operation nextOperation() {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < ops.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return ops[i];
+            }
+        }
+        return ops[ops.length - 1];
+    }
+}